@@ -0,0 +1,74 @@
+package com.carrie.hazellabev2.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.services.ProductoSearchIndex;
+
+/**
+ * Búsqueda de productos sobre el índice de trigramas en memoria (GET /api/productos/buscar)
+ * y costo de reconstruirlo completo al iniciar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaProductosBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int productos;
+
+    private List<Producto> catalogo;
+    private ProductoSearchIndex indice;
+
+    // La consulta solo aplica a las búsquedas; reconstruir se mide una vez por tamaño
+    @State(Scope.Benchmark)
+    public static class Consulta {
+        // Término corto (prefijo), palabra completa, subcadena y consulta de varias palabras
+        @Param({"ac", "etanol", "ulfat", "sulfato de cobre"})
+        public String texto;
+    }
+
+    @Setup
+    public void preparar() {
+        catalogo = GeneradorDatos.productos(productos);
+        indice = new ProductoSearchIndex();
+        indice.reconstruir(catalogo);
+    }
+
+    @Benchmark
+    public List<Producto> buscar(Consulta consulta) {
+        return indice.buscar(consulta.texto, null, null, 50);
+    }
+
+    @Benchmark
+    public List<Producto> buscarActivosPorCategoria(Consulta consulta) {
+        return indice.buscar(consulta.texto, 1L, true, 50);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public ProductoSearchIndex reconstruir() {
+        ProductoSearchIndex nuevo = new ProductoSearchIndex();
+        nuevo.reconstruir(catalogo);
+        return nuevo;
+    }
+}
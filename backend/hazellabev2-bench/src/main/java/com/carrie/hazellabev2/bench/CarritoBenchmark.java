@@ -0,0 +1,60 @@
+package com.carrie.hazellabev2.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.carrie.hazellabev2.dto.CarritoVistaDTO;
+import com.carrie.hazellabev2.dto.ItemCarritoVistaDTO;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Armado y serialización del carrito: entidades completas (ItemCarrito -> Producto -> Categoria)
+ * frente a la vista plana CarritoVistaDTO con totales calculados en el servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarritoBenchmark {
+
+    @Param({"5", "50"})
+    public int lineas;
+
+    private List<ItemCarrito> items;
+    private List<ItemCarritoVistaDTO> filas;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void preparar() {
+        items = GeneradorDatos.carrito(GeneradorDatos.productos(1000), lineas);
+        filas = GeneradorDatos.filasVista(items);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public byte[] entidades() throws IOException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] vista() throws IOException {
+        return objectMapper.writeValueAsBytes(CarritoVistaDTO.de(1L, filas));
+    }
+}
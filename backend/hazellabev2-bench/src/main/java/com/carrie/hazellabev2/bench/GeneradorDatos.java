@@ -0,0 +1,111 @@
+package com.carrie.hazellabev2.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import com.carrie.hazellabev2.dto.ItemCarritoVistaDTO;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+
+/**
+ * Datos sintéticos con la forma del catálogo real (reactivos, equipos e insumos de laboratorio).
+ * La semilla es fija para que dos ejecuciones midan exactamente los mismos datos.
+ */
+public final class GeneradorDatos {
+
+    public static final long SEMILLA = 20240501L;
+
+    private static final String[] CATEGORIAS = {
+        "Reactivos", "Material de vidrio", "Equipos", "Insumos médicos", "Farmacéutico", "Seguridad"
+    };
+    private static final String[] BASES = {
+        "Ácido", "Sulfato", "Cloruro", "Hidróxido", "Nitrato", "Carbonato", "Etanol", "Metanol",
+        "Acetona", "Peróxido", "Pipeta", "Probeta", "Matraz", "Vaso precipitado", "Microscopio",
+        "Centrífuga", "Termómetro", "Balanza", "Guantes", "Mascarilla", "Jeringa", "Tubo de ensayo"
+    };
+    private static final String[] CALIFICADORES = {
+        "sulfúrico", "clorhídrico", "de cobre", "de sodio", "de potasio", "absoluto", "grado técnico",
+        "grado analítico", "graduada", "aforado", "digital", "de nitrilo", "borosilicato", "estéril", "100 ml", "500 ml"
+    };
+    private static final String[] PROVEEDORES = {
+        "Proveedor LabTech S.A.", "Proveedor Salud S.A.", "Químicos del Sur Ltda.", "Equipos Científicos Ltda."
+    };
+
+    private GeneradorDatos() {
+    }
+
+    public static List<Categoria> categorias() {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            categorias.add(new Categoria((long) i + 1, CATEGORIAS[i], new ArrayList<>()));
+        }
+        return categorias;
+    }
+
+    public static List<Producto> productos(int cantidad) {
+        Random random = new Random(SEMILLA);
+        List<Categoria> categorias = categorias();
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        List<Producto> productos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            String nombre = BASES[random.nextInt(BASES.length)] + " " + CALIFICADORES[random.nextInt(CALIFICADORES.length)];
+            LocalDate elaboracion = base.plusDays(random.nextInt(365));
+            productos.add(new Producto((long) i, nombre,
+                    "BATCH" + String.format("%06d", i),
+                    nombre + " para uso en laboratorio, presentación estándar. Lote controlado y certificado.",
+                    "CHEM" + String.format("%05d", random.nextInt(100_000)),
+                    fecha(elaboracion.plusDays(180 + random.nextInt(900))),
+                    fecha(elaboracion),
+                    1_000 + random.nextInt(300_000),
+                    random.nextInt(200),
+                    5 + random.nextInt(10),
+                    PROVEEDORES[random.nextInt(PROVEEDORES.length)],
+                    categorias.get(random.nextInt(categorias.size())),
+                    "producto" + i + ".jpg",
+                    random.nextInt(10) > 0,
+                    LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i),
+                    random.nextInt(20) == 0));
+        }
+        return productos;
+    }
+
+    public static Usuario usuario() {
+        return new Usuario(1L, "cliente1", "cliente1@gmail.com", "11222333-4", null, "cliente", "activo",
+                LocalDateTime.of(2024, 1, 1, 0, 0), "Metropolitana", "Santiago", "Cliente", "1990-01-01",
+                "Av. Siempre Viva 123", new ArrayList<>());
+    }
+
+    // Carrito como entidades (lo que hoy devuelve /api/itemscarrito/usuario/{id})
+    public static List<ItemCarrito> carrito(List<Producto> productos, int lineas) {
+        Random random = new Random(SEMILLA);
+        Usuario usuario = usuario();
+        List<ItemCarrito> items = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            items.add(new ItemCarrito((long) i + 1, 1 + random.nextInt(5),
+                    productos.get(random.nextInt(productos.size())), usuario));
+        }
+        return items;
+    }
+
+    // Las mismas líneas como filas de la proyección JPQL de la vista del carrito
+    public static List<ItemCarritoVistaDTO> filasVista(List<ItemCarrito> items) {
+        List<ItemCarritoVistaDTO> filas = new ArrayList<>(items.size());
+        for (ItemCarrito item : items) {
+            Producto producto = item.getProducto();
+            filas.add(new ItemCarritoVistaDTO(item.getId(), producto.getId(), producto.getName(), producto.getImage(),
+                    producto.getCategory().getNombre(), producto.getCost(), item.getQuantity(), producto.getStock()));
+        }
+        return filas;
+    }
+
+    private static Date fecha(LocalDate dia) {
+        return Date.from(dia.atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+}
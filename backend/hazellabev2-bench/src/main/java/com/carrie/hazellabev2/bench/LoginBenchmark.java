@@ -0,0 +1,65 @@
+package com.carrie.hazellabev2.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.carrie.hazellabev2.config.BCryptPoolPasswordEncoder;
+
+/**
+ * Verificación de contraseña en el login: BCrypt directo en el hilo que atiende la petición
+ * frente al pool acotado. Se mide en logins/segundo con varios hilos cliente (-t para cambiarlo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"10", "12"})
+    public int costo;
+
+    private String hash;
+    private BCryptPasswordEncoder directo;
+    private BCryptPoolPasswordEncoder pool;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        directo = new BCryptPasswordEncoder(costo);
+        hash = directo.encode("password123");
+        // Cola amplia: aquí interesa el rendimiento, no el rechazo por saturación
+        pool = new BCryptPoolPasswordEncoder(Runtime.getRuntime().availableProcessors(), 1024, 60_000, costo);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        pool.destroy();
+    }
+
+    @Benchmark
+    public boolean matchesDirecto() {
+        return directo.matches("password123", hash);
+    }
+
+    @Benchmark
+    public boolean matchesEnPool() {
+        return pool.matches("password123", hash);
+    }
+}
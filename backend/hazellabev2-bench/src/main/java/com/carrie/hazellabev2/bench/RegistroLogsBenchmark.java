@@ -0,0 +1,115 @@
+package com.carrie.hazellabev2.bench;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.carrie.hazellabev2.config.MuestreoSqlTurboFilter;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+
+/**
+ * Costo del logging visto desde el hilo de la petición: una línea INFO escrita en el mismo hilo
+ * (como la consola del perfil dev) frente a encolarla en el AsyncAppender del perfil prod, y el
+ * costo de un log.debug de SQL apagado con el filtro de muestreo activo (lo que paga cada consulta).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RegistroLogsBenchmark {
+
+    private static final String PATRON = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%X{requestId:-}] [%t] %logger{39} : %m%n";
+
+    private LoggerContext contexto;
+    private Logger sincrono;
+    private Logger asincrono;
+    private Logger sql;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+        contexto.reset();
+        MuestreoSqlTurboFilter muestreo = new MuestreoSqlTurboFilter();
+        muestreo.start();
+        contexto.addTurboFilter(muestreo);
+
+        sincrono = contexto.getLogger("bench.sincrono");
+        sincrono.setAdditive(false);
+        sincrono.addAppender(salidaDescartada("sincrono"));
+
+        AsyncAppender cola = new AsyncAppender();
+        cola.setContext(contexto);
+        cola.setName("asincrono");
+        cola.setQueueSize(8192);
+        cola.setNeverBlock(true);
+        cola.setIncludeCallerData(false);
+        cola.addAppender(salidaDescartada("asincrono-destino"));
+        cola.start();
+        asincrono = contexto.getLogger("bench.asincrono");
+        asincrono.setAdditive(false);
+        asincrono.addAppender(cola);
+
+        sql = contexto.getLogger("org.hibernate.SQL");
+        sql.setLevel(ch.qos.logback.classic.Level.INFO);
+        MDC.put("requestId", "4f1c2a9d0b7e6c35");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.stop();
+    }
+
+    @Benchmark
+    public void infoSincrono() {
+        sincrono.info("Producto {} actualizado con stock {}", 42L, 17);
+    }
+
+    @Benchmark
+    public void infoAsincrono() {
+        asincrono.info("Producto {} actualizado con stock {}", 42L, 17);
+    }
+
+    @Benchmark
+    public void debugSqlApagado() {
+        sql.debug("select p1_0.id from producto p1_0 where p1_0.id=?");
+    }
+
+    private OutputStreamAppender<ILoggingEvent> salidaDescartada(String nombre) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(contexto);
+        encoder.setPattern(PATRON);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(contexto);
+        appender.setName(nombre);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,69 @@
+package com.carrie.hazellabev2.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serialización del listado de productos tal como la hacen GET /api/productos (lista completa)
+ * y GET /api/productos/stream (NDJSON, un objeto por línea). Cada Producto incluye su Categoria EAGER.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionProductosBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int productos;
+
+    private List<Producto> catalogo;
+    private ObjectMapper objectMapper;
+    private ObjectWriter escritorProducto;
+
+    @Setup
+    public void preparar() {
+        catalogo = GeneradorDatos.productos(productos);
+        // Mismo constructor que usa Spring Boot para el ObjectMapper de la aplicación
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorProducto = objectMapper.writerFor(Producto.class);
+    }
+
+    @Benchmark
+    public byte[] listaCompleta() throws IOException {
+        return objectMapper.writeValueAsBytes(catalogo);
+    }
+
+    @Benchmark
+    public int ndjson() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(productos * 512);
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            for (Producto producto : catalogo) {
+                escritorProducto.writeValue(generador, producto);
+                generador.writeRaw('\n');
+            }
+        }
+        return salida.size();
+    }
+}
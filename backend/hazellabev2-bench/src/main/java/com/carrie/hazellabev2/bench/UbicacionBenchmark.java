@@ -0,0 +1,66 @@
+package com.carrie.hazellabev2.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.carrie.hazellabev2.dto.ComunaSugerenciaDTO;
+import com.carrie.hazellabev2.services.RegionComunaCatalogo;
+
+/**
+ * Consultas al catálogo de regiones y comunas: autocompletado, validación al crear usuario
+ * y obtención de la respuesta ya serializada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UbicacionBenchmark {
+
+    private RegionComunaCatalogo catalogo;
+
+    // Solo el autocompletado depende del texto; así los demás no se repiten por cada valor
+    @State(Scope.Benchmark)
+    public static class Consulta {
+        @Param({"s", "san", "nunoa", "maipo"})
+        public String texto;
+    }
+
+    @Setup
+    public void preparar() {
+        catalogo = new RegionComunaCatalogo();
+    }
+
+    @Benchmark
+    public List<ComunaSugerenciaDTO> autocompletar(Consulta consulta) {
+        return catalogo.buscarComunas(consulta.texto, 10);
+    }
+
+    @Benchmark
+    public String validarComuna() {
+        return catalogo.comunaOficial("metropolitana", "Ñuñoa");
+    }
+
+    @Benchmark
+    public byte[] comunasPorRegion() {
+        return catalogo.getRecursoComunas("Valparaíso").json();
+    }
+
+    @Benchmark
+    public RegionComunaCatalogo cargarCatalogo() {
+        return new RegionComunaCatalogo();
+    }
+}
@@ -1,13 +1,35 @@
 package com.carrie.hazellabev2;
 
+import java.util.Arrays;
+
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Hazellabev2Application {
 
+	// Tareas de mantenimiento (p. ej. --hazellab.tarea=crear-admin): corren sin servidor web y terminan
+	public static final String PROPIEDAD_TAREA = "hazellab.tarea";
+
 	public static void main(String[] args) {
-		SpringApplication.run(Hazellabev2Application.class, args);
+		SpringApplication aplicacion = new SpringApplication(Hazellabev2Application.class);
+		// Guarda los pasos del arranque para consultarlos en /actuator/startup
+		aplicacion.setApplicationStartup(new BufferingApplicationStartup(4096));
+
+		boolean esTarea = Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + PROPIEDAD_TAREA + "="));
+		if (esTarea) {
+			aplicacion.setWebApplicationType(WebApplicationType.NONE);
+		}
+
+		ConfigurableApplicationContext contexto = aplicacion.run(args);
+		if (esTarea) {
+			System.exit(SpringApplication.exit(contexto));
+		}
 	}
 
 }
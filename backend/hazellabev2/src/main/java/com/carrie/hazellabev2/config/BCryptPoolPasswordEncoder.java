@@ -0,0 +1,158 @@
+package com.carrie.hazellabev2.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+
+/**
+ * PasswordEncoder que ejecuta BCrypt en un pool propio de tamaño fijo con una cola acotada.
+ *
+ * Los hilos de Tomcat solo esperan el resultado: si la cola está llena la petición se rechaza
+ * de inmediato con ServicioSaturadoException (503) en vez de dejar todos los hilos ocupados en BCrypt.
+ * El costo puede fijarse o calibrarse al iniciar para que un hash tarde cerca de la latencia objetivo.
+ */
+public class BCryptPoolPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptPoolPasswordEncoder.class);
+    private static final Pattern COSTO_HASH = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final String MENSAJE_SATURADO = "Servicio de autenticación saturado, intente nuevamente.";
+
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+    private volatile BCryptPasswordEncoder delegado;
+    private volatile int costo;
+    private volatile boolean costoDefinitivo;
+
+    public BCryptPoolPasswordEncoder(int hilos, int capacidadCola, long esperaMaximaMs, int costoInicial) {
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.esperaMaximaMs = esperaMaximaMs;
+        usarCosto(costoInicial);
+    }
+
+    /* ---------------------------------- PasswordEncoder ---------------------------------- */
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        BCryptPasswordEncoder actual = delegado;
+        return ejecutar(() -> actual.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        // BCrypt lee el costo desde el propio hash, así que cualquier delegado sirve para comparar
+        BCryptPasswordEncoder actual = delegado;
+        return ejecutar(() -> actual.matches(rawPassword, encodedPassword));
+    }
+
+    // Se rehashea al iniciar sesión cuando el hash guardado no usa el costo vigente
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (!costoDefinitivo || encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COSTO_HASH.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != costo;
+    }
+
+    /* ---------------------------------- Costo ---------------------------------- */
+
+    public int getCosto() {
+        return costo;
+    }
+
+    public void fijarCosto(int nuevoCosto) {
+        usarCosto(nuevoCosto);
+        costoDefinitivo = true;
+    }
+
+    /**
+     * Mide un hash con el costo mínimo y sube el costo (cada punto duplica el tiempo)
+     * mientras la estimación no supere la latencia objetivo.
+     */
+    public int calibrar(long objetivoMs, int costoMinimo, int costoMaximo) {
+        BCryptPasswordEncoder prueba = new BCryptPasswordEncoder(costoMinimo);
+        prueba.encode("calentamiento");
+        long inicio = System.nanoTime();
+        prueba.encode("calibracion");
+        double milisegundos = (System.nanoTime() - inicio) / 1_000_000.0;
+
+        int elegido = costoMinimo;
+        while (elegido < costoMaximo && milisegundos * 2 <= objetivoMs) {
+            milisegundos *= 2;
+            elegido++;
+        }
+        fijarCosto(elegido);
+        log.info("Costo de BCrypt calibrado en {} (~{} ms por hash, objetivo {} ms)",
+                elegido, Math.round(milisegundos), objetivoMs);
+        return elegido;
+    }
+
+    private void usarCosto(int nuevoCosto) {
+        this.delegado = new BCryptPasswordEncoder(nuevoCosto);
+        this.costo = nuevoCosto;
+    }
+
+    /* ---------------------------------- Pool ---------------------------------- */
+
+    public int getTareasEnCola() {
+        return executor.getQueue().size();
+    }
+
+    public int getHilosActivos() {
+        return executor.getActiveCount();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+        }
+
+        try {
+            return futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Operación de contraseña interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
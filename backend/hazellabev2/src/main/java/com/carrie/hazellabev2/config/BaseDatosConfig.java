@@ -0,0 +1,48 @@
+package com.carrie.hazellabev2.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class BaseDatosConfig {
+
+    // Envuelve el pool de Hikari para reservar conexiones a las conexiones anidadas (ver ReservaConexionesDataSource)
+    @Bean
+    static BeanPostProcessor reservaConexiones(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int reservadas = environment.getProperty("hazellab.bd.conexiones-reservadas", Integer.class, 2);
+                int maximo = Math.max(hikari.getMaximumPoolSize() - reservadas, 1);
+                return new ReservaConexionesDataSource(hikari, maximo, hikari.getConnectionTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasReservaConexiones(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof ReservaConexionesDataSource reserva)) {
+                return;
+            }
+            Gauge.builder("hazellab.bd.permisos.en.uso", reserva, ReservaConexionesDataSource::getPermisosEnUso)
+                    .description("Hilos con una conexión de primer nivel abierta")
+                    .register(registry);
+            Gauge.builder("hazellab.bd.permisos.esperando", reserva, ReservaConexionesDataSource::getHilosEsperando)
+                    .description("Hilos esperando turno para abrir una conexión")
+                    .register(registry);
+        };
+    }
+}
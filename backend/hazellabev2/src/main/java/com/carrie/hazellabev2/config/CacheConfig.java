@@ -0,0 +1,16 @@
+package com.carrie.hazellabev2.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Los cachés se crean con la especificación de spring.cache.caffeine.spec (application.properties)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTOS = "productos";
+    public static final String PRODUCTOS_DESTACADOS = "productosDestacados";
+    public static final String PRODUCTOS_POR_CATEGORIA = "productosPorCategoria";
+    public static final String PRODUCTOS_POR_ESTADO = "productosPorEstado";
+    public static final String CATEGORIAS = "categorias";
+    public static final String CATEGORIAS_LISTA = "categoriasLista";
+}
@@ -0,0 +1,86 @@
+package com.carrie.hazellabev2.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Caché de segundo nivel de Hibernate: JCache con Caffeine en memoria (una copia por instancia).
+ *
+ * Cada región se crea aquí con su tamaño máximo y vencimiento; con missing_cache_strategy=fail
+ * Hibernate no arranca si una entidad anotada con @Cache pide una región que no está en esta lista.
+ * Las entradas se guardan por referencia (Hibernate ya las desarma en arreglos inmutables),
+ * así una lectura desde caché no paga una serialización.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+    public static final String REGION_CATEGORIAS = "hazellab.categorias";
+    public static final String REGION_PRODUCTOS = "hazellab.productos";
+    public static final String REGION_BLOGS = "hazellab.blogs";
+    public static final String REGION_CONSULTAS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String REGION_MARCAS_TIEMPO = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${hazellab.cache.segundo-nivel.categorias:500}")
+    private long maximoCategorias;
+
+    @Value("${hazellab.cache.segundo-nivel.productos:10000}")
+    private long maximoProductos;
+
+    @Value("${hazellab.cache.segundo-nivel.blogs:500}")
+    private long maximoBlogs;
+
+    @Value("${hazellab.cache.segundo-nivel.consultas:1000}")
+    private long maximoConsultas;
+
+    @Value("${hazellab.cache.segundo-nivel.expira-minutos:30}")
+    private long minutosExpiracion;
+
+    // URI propia por contexto: con la URI por defecto dos contextos de Spring en la misma JVM
+    // (pruebas) compartirían las regiones y el primero en cerrarse las cerraría para ambos
+    @Bean
+    public CacheManager cacheSegundoNivel() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hazellab-segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(REGION_CATEGORIAS, region(maximoCategorias, true));
+        cacheManager.createCache(REGION_PRODUCTOS, region(maximoProductos, true));
+        cacheManager.createCache(REGION_BLOGS, region(maximoBlogs, true));
+        cacheManager.createCache(REGION_CONSULTAS, region(maximoConsultas, true));
+        // Las marcas de tiempo invalidan el caché de consultas: si se desalojaran antes que los
+        // resultados, una consulta podría devolver datos viejos. No vencen ni se acotan por tamaño.
+        cacheManager.createCache(REGION_MARCAS_TIEMPO, region(0, false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivel);
+    }
+
+    private CaffeineConfiguration<Object, Object> region(long maximo, boolean vence) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStoreByValue(false);
+        configuracion.setNativeStatisticsEnabled(true);
+        if (maximo > 0) {
+            configuracion.setMaximumSize(OptionalLong.of(maximo));
+        }
+        if (vence) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(minutosExpiracion)));
+        }
+        return configuracion;
+    }
+}
@@ -0,0 +1,116 @@
+package com.carrie.hazellabev2.config;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta las consultas SQL de cada petición HTTP y avisa cuando una petición supera el máximo
+ * permitido o repite la misma sentencia muchas veces (N+1). El total queda en el atributo
+ * {@link #ATRIBUTO_CONSULTAS} de la petición, que usan las pruebas de presupuesto de consultas.
+ *
+ * Las consultas lentas las registra Hibernate con su tiempo (hibernate.log_slow_query, logger org.hibernate.SQL_SLOW).
+ * Con hazellab.sql.log.muestreo > 0 una fracción de las peticiones registra además todo su SQL
+ * con parámetros y tiempos (ver MuestreoSqlTurboFilter).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConsultasSqlFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_CONSULTAS = "hazellab.consultasSql";
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasSqlFilter.class);
+
+    private final int maximoPorPeticion;
+    private final int umbralRepeticiones;
+    private final double muestreo;
+    private final MeterRegistry registry;
+    private final DistributionSummary consultasPorPeticion;
+
+    public ConsultasSqlFilter(
+            @Value("${hazellab.sql.max-consultas-por-peticion:20}") int maximoPorPeticion,
+            @Value("${hazellab.sql.umbral-repeticiones:5}") int umbralRepeticiones,
+            @Value("${hazellab.sql.log.muestreo:0}") double muestreo,
+            MeterRegistry registry) {
+        this.maximoPorPeticion = maximoPorPeticion;
+        this.umbralRepeticiones = umbralRepeticiones;
+        this.muestreo = muestreo;
+        this.registry = registry;
+        this.consultasPorPeticion = DistributionSummary.builder("hazellab.sql.consultas.por.peticion")
+                .description("Sentencias SQL ejecutadas por petición HTTP")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(200.0)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean muestreada = muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo;
+        long inicio = muestreada ? System.nanoTime() : 0;
+        if (muestreada) {
+            MDC.put(MuestreoSqlTurboFilter.MDC_MUESTRA, "1");
+        }
+        ContadorConsultasSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorConsultasSql.Registro registro = ContadorConsultasSql.terminar();
+            request.setAttribute(ATRIBUTO_CONSULTAS, registro.getTotal());
+            if (registro.getTotal() > 0) {
+                consultasPorPeticion.record(registro.getTotal());
+                revisar(request, registro);
+            }
+            if (muestreada) {
+                log.info("Muestra SQL {} {}: {} consultas, {} ms", request.getMethod(), rutaDe(request),
+                        registro.getTotal(), (System.nanoTime() - inicio) / 1_000_000);
+                MDC.remove(MuestreoSqlTurboFilter.MDC_MUESTRA);
+            }
+        }
+    }
+
+    private void revisar(HttpServletRequest request, ContadorConsultasSql.Registro registro) {
+        Map.Entry<String, Integer> masRepetida = registro.masRepetida();
+        boolean exceso = registro.getTotal() > maximoPorPeticion;
+        boolean repeticion = masRepetida.getValue() >= umbralRepeticiones;
+        if (!exceso && !repeticion) {
+            return;
+        }
+
+        // Solo las peticiones sospechosas pagan el costo de armar etiquetas y buscar el contador
+        String ruta = rutaDe(request);
+        if (exceso) {
+            registry.counter("hazellab.sql.peticiones.sospechosas", "motivo", "exceso", "uri", ruta).increment();
+            log.warn("{} {} ejecutó {} consultas SQL (máximo {})",
+                    request.getMethod(), ruta, registro.getTotal(), maximoPorPeticion);
+        }
+        if (repeticion) {
+            registry.counter("hazellab.sql.peticiones.sospechosas", "motivo", "repeticion", "uri", ruta).increment();
+            log.warn("Posible N+1 en {} {}: la misma consulta se ejecutó {} veces: {}",
+                    request.getMethod(), ruta, masRepetida.getValue(), masRepetida.getKey());
+        }
+    }
+
+    // Plantilla del endpoint (/api/productos/{id}) para no crear una serie por cada id
+    private static String rutaDe(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? patron.toString() : "DESCONOCIDA";
+    }
+}
@@ -0,0 +1,85 @@
+package com.carrie.hazellabev2.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * StatementInspector de Hibernate que cuenta las sentencias SQL del hilo actual mientras hay un
+ * registro abierto (lo abre y cierra ConsultasSqlFilter en cada petición HTTP). Fuera de una
+ * petición, por ejemplo en tareas programadas, no hace nada.
+ *
+ * Hibernate entrega la sentencia con parámetros "?", así que la misma consulta repetida con
+ * distintos ids cae en la misma clave: muchas repeticiones de una sentencia es el patrón N+1.
+ */
+@Component
+public class ContadorConsultasSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Registro> ACTUAL = new ThreadLocal<>();
+
+    // Se registra a sí mismo como inspector al crear el EntityManagerFactory
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public static void iniciar() {
+        ACTUAL.set(new Registro());
+    }
+
+    public static Registro terminar() {
+        Registro registro = ACTUAL.get();
+        ACTUAL.remove();
+        return registro;
+    }
+
+    // Cantidad de sentencias del registro abierto en este hilo (0 si no hay ninguno)
+    public static int consultasActuales() {
+        Registro registro = ACTUAL.get();
+        return registro != null ? registro.getTotal() : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Registro registro = ACTUAL.get();
+        if (registro != null) {
+            registro.agregar(sql);
+        }
+        return sql;
+    }
+
+    public static final class Registro {
+        private int total;
+        private final Map<String, Integer> porSentencia = new HashMap<>();
+
+        private void agregar(String sql) {
+            total++;
+            porSentencia.merge(sql, 1, Integer::sum);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        // Sentencias distintas ejecutadas, con parámetros "?"
+        public Set<String> getSentencias() {
+            return porSentencia.keySet();
+        }
+
+        // Sentencia que más veces se ejecutó en la petición, o null si no hubo ninguna
+        public Map.Entry<String, Integer> masRepetida() {
+            Map.Entry<String, Integer> mayor = null;
+            for (Map.Entry<String, Integer> entrada : porSentencia.entrySet()) {
+                if (mayor == null || entrada.getValue() > mayor.getValue()) {
+                    mayor = entrada;
+                }
+            }
+            return mayor;
+        }
+    }
+}
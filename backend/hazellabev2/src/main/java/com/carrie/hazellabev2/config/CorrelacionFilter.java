@@ -0,0 +1,65 @@
+package com.carrie.hazellabev2.config;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Asigna a cada petición un id de correlación: el del header X-Request-Id si viene uno válido
+ * (por ejemplo desde el proxy), o uno nuevo. Queda en el MDC como "requestId", así aparece en
+ * todas las líneas de log de la petición, y se devuelve en la respuesta con el mismo header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacionFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+
+    // Se acepta el id entrante solo si es corto y sin caracteres que ensucien los logs
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // En el despacho asíncrono (fin de una respuesta NDJSON) se reutiliza el id ya asignado
+        String id = (String) request.getAttribute(MDC_REQUEST_ID);
+        if (id == null) {
+            id = request.getHeader(HEADER);
+            if (id == null || !ID_VALIDO.matcher(id).matches()) {
+                id = nuevoId();
+            }
+            request.setAttribute(MDC_REQUEST_ID, id);
+            response.setHeader(HEADER, id);
+        }
+        MDC.put(MDC_REQUEST_ID, id);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    // 64 bits aleatorios en hexadecimal: suficiente para correlacionar y más barato que un UUID
+    private static String nuevoId() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    // La escritura de la respuesta asíncrona corre en otro hilo y recibe el MDC por LogConfig
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
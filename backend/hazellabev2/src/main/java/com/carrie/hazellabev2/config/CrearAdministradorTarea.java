@@ -0,0 +1,73 @@
+package com.carrie.hazellabev2.config;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.Hazellabev2Application;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+/**
+ * Tarea de línea de comandos para crear (o restablecer) el usuario administrador. Solo existe si se
+ * pide explícitamente; un arranque normal no la carga ni calcula ningún hash:
+ *
+ *   java -jar hazellabev2-0.0.1-SNAPSHOT-exec.jar --hazellab.tarea=crear-admin \
+ *        --hazellab.admin.email=admin@duoc.cl --hazellab.admin.password=... [--hazellab.admin.rut=...]
+ *
+ * Con hazellab.tarea la aplicación arranca sin servidor web y termina al completar la tarea.
+ */
+@Component
+@ConditionalOnProperty(name = Hazellabev2Application.PROPIEDAD_TAREA, havingValue = CrearAdministradorTarea.NOMBRE)
+public class CrearAdministradorTarea implements ApplicationRunner {
+
+    public static final String NOMBRE = "crear-admin";
+
+    private static final Logger log = LoggerFactory.getLogger(CrearAdministradorTarea.class);
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${hazellab.admin.email:}")
+    private String email;
+
+    @Value("${hazellab.admin.password:}")
+    private String password;
+
+    @Value("${hazellab.admin.rut:admin}")
+    private String rut;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (email.isBlank() || password.isBlank()) {
+            throw new IllegalArgumentException("Faltan hazellab.admin.email o hazellab.admin.password");
+        }
+
+        Usuario admin = usuarioRepository.findByEmail(email).orElseGet(() -> {
+            Usuario nuevo = new Usuario();
+            nuevo.setEmail(email);
+            nuevo.setUsername("admin");
+            nuevo.setRut(rut);
+            nuevo.setCreatedAt(LocalDateTime.now());
+            return nuevo;
+        });
+        boolean existia = admin.getId() != null;
+        admin.setPassword(passwordEncoder.encode(password));
+        admin.setRole("super_admin");
+        admin.setStatus("activo");
+        usuarioRepository.save(admin);
+
+        log.info(existia ? "Administrador {} actualizado" : "Administrador {} creado", email);
+    }
+}
@@ -0,0 +1,91 @@
+package com.carrie.hazellabev2.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Con hilos virtuales, un hilo que bloquea dentro de un bloque synchronized (o de código nativo)
+ * queda fijado a su hilo portador y lo deja inutilizable mientras espera. Este componente escucha
+ * el evento JFR jdk.VirtualThreadPinned en el propio proceso: lo mide en hazellab.hilos.virtuales.pinning
+ * y registra una vez cada pila distinta, para saber qué código (propio o de una librería) hay que cambiar.
+ *
+ * Solo existe en modo hilos virtuales (spring.threads.virtual.enabled en Java 21+).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DiagnosticoPinning implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_REGISTRADOS = 8;
+    private static final int MAX_PILAS_REGISTRADAS = 200;
+
+    private final Duration umbral;
+    private final Timer pinning;
+    private final Set<String> pilasRegistradas = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public DiagnosticoPinning(@Value("${hazellab.hilos-virtuales.umbral-pinning-ms:20}") long umbralMs,
+            MeterRegistry registry) {
+        this.umbral = Duration.ofMillis(umbralMs);
+        this.pinning = Timer.builder("hazellab.hilos.virtuales.pinning")
+                .description("Tiempo que un hilo virtual quedó fijado a su hilo portador")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Diagnóstico de pinning de hilos virtuales activo (umbral {} ms)", umbral.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        pinning.record(evento.getDuration());
+        if (evento.getStackTrace() == null) {
+            return;
+        }
+        List<RecordedFrame> frames = evento.getStackTrace().getFrames();
+        String pila = frames.stream()
+                .limit(FRAMES_REGISTRADOS)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        if (pilasRegistradas.size() < MAX_PILAS_REGISTRADAS && pilasRegistradas.add(pila)) {
+            log.warn("Hilo virtual fijado a su portador durante {} ms en:\n\tat {}",
+                    evento.getDuration().toMillis(), pila);
+        }
+    }
+}
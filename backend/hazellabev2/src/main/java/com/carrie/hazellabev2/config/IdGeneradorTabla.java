@@ -0,0 +1,16 @@
+package com.carrie.hazellabev2.config;
+
+/**
+ * Generador de ids por tabla (GenerationType.TABLE) que comparten las entidades cuyos INSERT se
+ * agrupan en lotes. Cada contador lo siembra una migración (V5__contadores_id_generador.sql) por
+ * encima del id máximo existente, antes de que la aplicación acepte peticiones: así los primeros
+ * bloques nunca chocan con filas creadas con IDENTITY.
+ */
+public final class IdGeneradorTabla {
+
+    public static final String TABLA = "id_generador";
+    public static final int BLOQUE = 50;
+
+    private IdGeneradorTabla() {
+    }
+}
@@ -0,0 +1,37 @@
+package com.carrie.hazellabev2.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import com.carrie.hazellabev2.services.MetricasNegocio;
+
+/**
+ * Con spring.main.lazy-initialization=true los beans se crean la primera vez que se usan. Los que
+ * tienen métodos @Scheduled quedan fuera: el registro de tareas programadas solo los ve si existen
+ * al terminar el arranque, y si no se crean el barrido de reservas o la purga del limitador nunca corren.
+ * MetricasNegocio tampoco es perezoso: registra sus medidores al crearse y Prometheus debe verlos
+ * (en cero) desde el primer scrape, no recién después del primer login.
+ */
+@Configuration
+public class InicioConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter inicioAnticipado() {
+        return (nombre, definicion, tipo) ->
+                MetricasNegocio.class.isAssignableFrom(tipo) || tieneMetodosProgramados(tipo);
+    }
+
+    static boolean tieneMetodosProgramados(Class<?> tipo) {
+        AtomicBoolean encontrado = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(tipo,
+                metodo -> encontrado.set(true),
+                metodo -> !encontrado.get() && AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class));
+        return encontrado.get();
+    }
+}
@@ -0,0 +1,96 @@
+package com.carrie.hazellabev2.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita las peticiones /api en curso con un semáforo. Con hilos de plataforma el pool de Tomcat
+ * ya pone ese tope; con hilos virtuales no hay pool y miles de peticiones llegarían juntas al pool
+ * de conexiones. Las que exceden el tope esperan un cupo (sin ocupar un hilo del sistema si son
+ * virtuales) y si no lo obtienen en espera-maxima-ms reciben 503 con Retry-After.
+ *
+ * Solo se activa si hazellab.concurrencia.max-peticiones está definido (perfil virtual).
+ */
+@Component
+@ConditionalOnProperty(name = "hazellab.concurrencia.max-peticiones")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private static final String MENSAJE_SATURADO = "Servidor saturado, intente nuevamente.";
+
+    private final Semaphore cupos;
+    private final int maximo;
+    private final long esperaMaximaMs;
+    private final Counter rechazos;
+
+    public LimiteConcurrenciaFilter(
+            @Value("${hazellab.concurrencia.max-peticiones}") int maximo,
+            @Value("${hazellab.concurrencia.espera-maxima-ms:2000}") long esperaMaximaMs,
+            MeterRegistry registry) {
+        // Justo: las peticiones obtienen cupo en orden de llegada y ninguna espera indefinidamente
+        this.cupos = new Semaphore(maximo, true);
+        this.maximo = maximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+        Gauge.builder("hazellab.concurrencia.en.curso", cupos, s -> maximo - s.availablePermits())
+                .description("Peticiones /api en curso")
+                .register(registry);
+        Gauge.builder("hazellab.concurrencia.en.espera", cupos, Semaphore::getQueueLength)
+                .description("Peticiones /api esperando un cupo")
+                .register(registry);
+        this.rechazos = Counter.builder("hazellab.concurrencia.rechazos")
+                .description("Peticiones rechazadas con 503 por no obtener cupo a tiempo")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean obtenido;
+        try {
+            obtenido = cupos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtenido = false;
+        }
+        if (!obtenido) {
+            rechazos.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(MENSAJE_SATURADO);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            cupos.release();
+        }
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+}
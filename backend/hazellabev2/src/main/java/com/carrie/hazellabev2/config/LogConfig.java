@@ -0,0 +1,37 @@
+package com.carrie.hazellabev2.config;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class LogConfig {
+
+    // Spring Boot aplica este decorador al executor de tareas (@Async y respuestas asíncronas de MVC):
+    // la tarea corre con el MDC (requestId) del hilo que la creó
+    @Bean
+    public TaskDecorator propagarMdc() {
+        return tarea -> {
+            Map<String, String> contexto = MDC.getCopyOfContextMap();
+            if (contexto == null) {
+                return tarea;
+            }
+            return () -> {
+                Map<String, String> anterior = MDC.getCopyOfContextMap();
+                MDC.setContextMap(contexto);
+                try {
+                    tarea.run();
+                } finally {
+                    if (anterior != null) {
+                        MDC.setContextMap(anterior);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.carrie.hazellabev2.config;
+
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.carrie.hazellabev2.services.LimitadorLogin;
+import com.carrie.hazellabev2.services.MonitorStockCritico;
+import com.carrie.hazellabev2.services.ProductoSearchIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * Expone como métricas los contadores que los componentes ya llevan internamente (limitador de login,
+ * pool de BCrypt, índice de búsqueda). Son FunctionCounter y Gauge: se leen solo cuando Prometheus
+ * consulta, no agregan trabajo a las peticiones.
+ *
+ * Las métricas HTTP (http.server.requests), HikariCP (hikaricp.*), caché (cache.*) e Hibernate
+ * (hibernate.*) las registra Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    // Las consultas de Prometheus a /actuator no se miden: solo agregarían series al histograma HTTP
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> excluirActuator() {
+        return registry -> registry.config().meterFilter(MeterFilter.deny(id ->
+                "http.server.requests".equals(id.getName())
+                        && String.valueOf(id.getTag("uri")).startsWith("/actuator")));
+    }
+
+    @Bean
+    public MeterBinder metricasLimitadorLogin(LimitadorLogin limitador) {
+        return registry -> {
+            FunctionCounter.builder("hazellab.login.limitador.intentos", limitador, LimitadorLogin::getPermitidos)
+                    .description("Intentos de login evaluados por el limitador")
+                    .tag("resultado", "permitido")
+                    .register(registry);
+            FunctionCounter.builder("hazellab.login.limitador.intentos", limitador, LimitadorLogin::getRechazosPorEmail)
+                    .tag("resultado", "rechazado_email")
+                    .register(registry);
+            FunctionCounter.builder("hazellab.login.limitador.intentos", limitador, LimitadorLogin::getRechazosPorIp)
+                    .tag("resultado", "rechazado_ip")
+                    .register(registry);
+            Gauge.builder("hazellab.login.limitador.claves", limitador, LimitadorLogin::getClavesEmail)
+                    .description("Cubetas activas en el limitador de login")
+                    .tag("tipo", "email")
+                    .register(registry);
+            Gauge.builder("hazellab.login.limitador.claves", limitador, LimitadorLogin::getClavesIp)
+                    .tag("tipo", "ip")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasBCrypt(PasswordEncoder passwordEncoder) {
+        return registry -> {
+            if (!(passwordEncoder instanceof BCryptPoolPasswordEncoder pool)) {
+                return;
+            }
+            Gauge.builder("hazellab.bcrypt.cola", pool, BCryptPoolPasswordEncoder::getTareasEnCola)
+                    .description("Hashes BCrypt esperando un hilo del pool")
+                    .register(registry);
+            Gauge.builder("hazellab.bcrypt.hilos.activos", pool, BCryptPoolPasswordEncoder::getHilosActivos)
+                    .description("Hilos del pool de BCrypt calculando un hash")
+                    .register(registry);
+            Gauge.builder("hazellab.bcrypt.costo", pool, BCryptPoolPasswordEncoder::getCosto)
+                    .description("Costo BCrypt vigente")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasStockCritico(MonitorStockCritico monitor) {
+        return registry -> Gauge.builder("hazellab.stock.criticos", monitor, MonitorStockCritico::cantidadCriticos)
+                .description("Productos con stock menor o igual a su stock crítico")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder metricasBusqueda(ProductoSearchIndex indice) {
+        return registry -> Gauge.builder("hazellab.busqueda.productos", indice, ProductoSearchIndex::tamanio)
+                .description("Productos en el índice de búsqueda en memoria")
+                .register(registry);
+    }
+}
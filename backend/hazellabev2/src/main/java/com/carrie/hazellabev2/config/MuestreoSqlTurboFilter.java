@@ -0,0 +1,33 @@
+package com.carrie.hazellabev2.config;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Filtro de logback que, en una petición marcada para muestreo (MDC {@link #MDC_MUESTRA}),
+ * habilita los logs de Hibernate con el SQL, los valores de los parámetros y el tiempo que la
+ * sesión pasó ejecutando sentencias, aunque esos loggers estén apagados. En el resto de las
+ * peticiones no cambia nada: solo compara el nombre del logger y lee el MDC.
+ */
+public class MuestreoSqlTurboFilter extends TurboFilter {
+
+    public static final String MDC_MUESTRA = "sqlMuestra";
+
+    private static final String LOGGER_SQL = "org.hibernate.SQL";
+    private static final String LOGGER_PARAMETROS = "org.hibernate.orm.jdbc.bind";
+    private static final String LOGGER_SESION = "org.hibernate.engine.internal.StatisticalLoggingSessionEventListener";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        String nombre = logger.getName();
+        if (!LOGGER_SQL.equals(nombre) && !LOGGER_PARAMETROS.equals(nombre) && !LOGGER_SESION.equals(nombre)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(MDC_MUESTRA) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,143 @@
+package com.carrie.hazellabev2.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Protege el pool de conexiones del bloqueo mutuo por conexiones anidadas.
+ *
+ * El generador de ids por tabla de ItemCarrito pide una segunda conexión mientras la transacción de
+ * la petición ya tiene una, y lo hace dentro de un bloque synchronized de Hibernate. Si todas las
+ * conexiones del pool las tienen hilos que esperan ese mismo monitor, el que lo tiene nunca obtiene
+ * su conexión y todos esperan hasta connection-timeout.
+ *
+ * Aquí la primera conexión de cada hilo necesita un permiso de un semáforo con (pool - reservadas)
+ * permisos; las conexiones anidadas no lo piden, así siempre queda alguna libre para ellas. Las
+ * peticiones que esperan lo hacen en este semáforo, en orden de llegada, y si no obtienen permiso en
+ * el tiempo máximo fallan igual que lo haría Hikari.
+ */
+public class ReservaConexionesDataSource extends DelegatingDataSource {
+
+    // Conexiones abiertas por el hilo actual a través de este DataSource
+    private static final ThreadLocal<int[]> ABIERTAS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Semaphore permisos;
+    private final int maximo;
+    private final long esperaMaximaMs;
+
+    public ReservaConexionesDataSource(DataSource destino, int maximo, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(maximo, true);
+        this.maximo = maximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proteger(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proteger(() -> super.getConnection(username, password));
+    }
+
+    public int getPermisosMaximos() {
+        return maximo;
+    }
+
+    public int getPermisosEnUso() {
+        return maximo - permisos.availablePermits();
+    }
+
+    public int getHilosEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private interface Apertura {
+        Connection abrir() throws SQLException;
+    }
+
+    private Connection proteger(Apertura apertura) throws SQLException {
+        int[] abiertas = ABIERTAS.get();
+        boolean primera = abiertas[0] == 0;
+        if (primera) {
+            adquirirPermiso();
+        }
+        Connection conexion;
+        try {
+            conexion = apertura.abrir();
+        } catch (SQLException | RuntimeException e) {
+            if (primera) {
+                permisos.release();
+            }
+            throw e;
+        }
+        abiertas[0]++;
+        return envolver(conexion, abiertas, primera);
+    }
+
+    private void adquirirPermiso() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Conexión no disponible: se esperó "
+                        + esperaMaximaMs + " ms (en uso " + getPermisosEnUso() + " de " + maximo
+                        + ", esperando " + getHilosEsperando() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    // El permiso se devuelve al cerrar la conexión que lo tomó (una sola vez, aunque se cierre dos veces)
+    private Connection envolver(Connection conexion, int[] abiertas, boolean conPermiso) {
+        AtomicBoolean cerrada = new AtomicBoolean();
+        InvocationHandler manejador = (proxy, metodo, args) -> {
+            if ("equals".equals(metodo.getName()) && metodo.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("close".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                try {
+                    conexion.close();
+                } finally {
+                    if (cerrada.compareAndSet(false, true)) {
+                        abiertas[0]--;
+                        if (conPermiso) {
+                            permisos.release();
+                        }
+                    }
+                }
+                return null;
+            }
+            return invocar(conexion, metodo, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, manejador);
+    }
+
+    private static Object invocar(Connection conexion, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(conexion, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -1,42 +1,104 @@
 package com.carrie.hazellabev2.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.carrie.hazellabev2.services.TokenService;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Con proteger-api=false se emiten y validan tokens pero /api/** sigue abierta (modo de transición del frontend)
+    @Value("${hazellab.seguridad.proteger-api:false}")
+    private boolean protegerApi;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
-            .authorizeHttpRequests(auth -> auth
-                // ✅ Swagger sin auth
-                .requestMatchers(
-                    "/swagger-ui.html",
-                    "/swagger-ui/**",
-                    "/v3/api-docs/**",
-                    "/swagger-resources/**",
-                    "/webjars/**"
-                ).permitAll()
-                // ✅ Endpoints API públicos (incluyendo ubicación)
-                .requestMatchers("/api/**").permitAll()
-                .anyRequest().permitAll()
-            )
+            // ✅ Sin sesión HTTP: cada petición se autentica solo con su token
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeHttpRequests(auth -> {
+                auth
+                    // ✅ Swagger sin auth
+                    .requestMatchers(
+                        "/swagger-ui.html",
+                        "/swagger-ui/**",
+                        "/v3/api-docs/**",
+                        "/swagger-resources/**",
+                        "/webjars/**"
+                    ).permitAll()
+                    .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+
+                if (protegerApi) {
+                    auth
+                        .requestMatchers("/api/auth/limitador").hasAnyRole("admin", "super_admin")
+                        // ✅ Login, registro y catálogo público
+                        .requestMatchers("/api/auth/**", "/api/ubicacion/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/usuarios").permitAll()
+                        // ✅ La exportación y el stream llevan el catálogo completo (stock, costos, proveedores): van antes del GET público
+                        .requestMatchers(HttpMethod.GET, "/api/productos/exportar", "/api/productos/stream").hasAnyRole("admin", "super_admin")
+                        // ✅ El listado de todos los carritos es de administración; el resto del carrito lo autoriza AccesoCarrito por dueño
+                        .requestMatchers(HttpMethod.GET, "/api/itemscarrito").hasAnyRole("admin", "super_admin")
+                        .requestMatchers(HttpMethod.GET, "/api/productos/**", "/api/categorias/**", "/api/blogs/**").permitAll()
+                        // ✅ Escrituras del catálogo (incluida la importación masiva) y gestión de usuarios solo para administradores:
+                        // un token de cliente no puede editar productos, listar usuarios ni cambiarse el rol
+                        .requestMatchers("/api/productos/**", "/api/categorias/**", "/api/blogs/**", "/api/usuarios/**").hasAnyRole("admin", "super_admin")
+                        // ✅ Administración del caché y ajustes directos de inventario solo para administradores
+                        .requestMatchers("/api/cache/**", "/api/stock/productos/**").hasAnyRole("admin", "super_admin")
+                        // ✅ Salud y scrape de Prometheus abiertos; el resto de actuator solo administradores
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAnyRole("admin", "super_admin")
+                        .requestMatchers("/api/**").authenticated();
+                } else {
+                    // ✅ Endpoints API públicos (incluyendo ubicación)
+                    auth.requestMatchers("/api/**").permitAll();
+                }
+                auth.anyRequest().permitAll();
+            })
             .formLogin(login -> login.disable())
             .httpBasic(basic -> basic.disable());
 
         return http.build();
     }
 
+    // ✅ BCrypt en un pool acotado: con la cola llena se responde 503 en vez de bloquear los hilos de Tomcat
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${hazellab.bcrypt.hilos:0}") int hilos,
+            @Value("${hazellab.bcrypt.cola:64}") int cola,
+            @Value("${hazellab.bcrypt.espera-maxima-ms:5000}") long esperaMaximaMs,
+            @Value("${hazellab.bcrypt.costo:0}") int costo,
+            @Value("${hazellab.bcrypt.objetivo-ms:250}") long objetivoMs,
+            @Value("${hazellab.bcrypt.costo-minimo:10}") int costoMinimo,
+            @Value("${hazellab.bcrypt.costo-maximo:14}") int costoMaximo) {
+
+        int tamanioPool = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        BCryptPoolPasswordEncoder encoder = new BCryptPoolPasswordEncoder(tamanioPool, cola, esperaMaximaMs,
+                costo > 0 ? costo : costoMinimo);
+
+        if (costo > 0) {
+            encoder.fijarCosto(costo);
+        } else {
+            // La calibración tarda algunos hashes: se hace en segundo plano para no retrasar el arranque
+            Thread calibracion = new Thread(() -> encoder.calibrar(objetivoMs, costoMinimo, costoMaximo),
+                    "bcrypt-calibracion");
+            calibracion.setDaemon(true);
+            calibracion.start();
+        }
+        return encoder;
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.carrie.hazellabev2.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.carrie.hazellabev2.services.TokenService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Autentica la petición a partir del header "Authorization: Bearer <token>" sin tocar la base de datos
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(PREFIJO)) {
+            // Un token inválido o vencido simplemente deja la petición sin autenticar
+            tokenService.validarAcceso(header.substring(PREFIJO.length()).trim()).ifPresent(sesion -> {
+                UsernamePasswordAuthenticationToken autenticacion = new UsernamePasswordAuthenticationToken(
+                        sesion, null, List.of(new SimpleGrantedAuthority("ROLE_" + sesion.role())));
+                SecurityContextHolder.getContext().setAuthentication(autenticacion);
+            });
+        }
+        filterChain.doFilter(request, response);
+    }
+}
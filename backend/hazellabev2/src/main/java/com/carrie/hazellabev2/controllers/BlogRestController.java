@@ -3,6 +3,7 @@ package com.carrie.hazellabev2.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,9 +14,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.carrie.hazellabev2.entities.Blog;
 import com.carrie.hazellabev2.services.BlogService;
+import com.carrie.hazellabev2.services.RevisionCatalogo;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -24,6 +27,9 @@ import com.carrie.hazellabev2.services.BlogService;
 public class BlogRestController {
     @Autowired
     private BlogService blogService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
     
     @PostMapping
     public ResponseEntity<Blog> crearBlog(@RequestBody Blog blog) {
@@ -44,9 +50,13 @@ public class BlogRestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Blog>> listarBlogs() {
+    public ResponseEntity<List<Blog>> listarBlogs(WebRequest request) {
+        // 304 sin consultar ni serializar si no hubo cambios desde la copia del cliente
+        if (revisionCatalogo.noModificado(request, RevisionCatalogo.BLOGS)) {
+            return null;
+        }
         List<Blog> blogs = blogService.listarTodo();
-        return ResponseEntity.ok(blogs);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(blogs);
     }
 
     @DeleteMapping("/{id}")
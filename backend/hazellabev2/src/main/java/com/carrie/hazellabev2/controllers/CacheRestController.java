@@ -0,0 +1,76 @@
+package com.carrie.hazellabev2.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.carrie.hazellabev2.dto.CacheEstadisticaDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Caché", description = "Estadísticas y administración del caché del catálogo")
+public class CacheRestController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("cacheSegundoNivel")
+    private javax.cache.CacheManager cacheSegundoNivel;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Operation(summary = "Estadísticas del caché", description = "Aciertos, fallos y desalojos de cada caché del catálogo")
+    @GetMapping("/estadisticas")
+    public ResponseEntity<List<CacheEstadisticaDTO>> estadisticas() {
+        List<CacheEstadisticaDTO> estadisticas = new ArrayList<>();
+        for (String nombre : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(nombre) instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                estadisticas.add(new CacheEstadisticaDTO(nombre, cache.getNativeCache().estimatedSize(),
+                        stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return ResponseEntity.ok(estadisticas);
+    }
+
+    @Operation(summary = "Estadísticas del caché de segundo nivel", description = "Aciertos, fallos y desalojos de cada región de Hibernate (entidades, consultas y marcas de tiempo)")
+    @GetMapping("/segundo-nivel")
+    public ResponseEntity<List<CacheEstadisticaDTO>> estadisticasSegundoNivel() {
+        List<CacheEstadisticaDTO> estadisticas = new ArrayList<>();
+        for (String region : cacheSegundoNivel.getCacheNames()) {
+            Cache<?, ?> cache = cacheSegundoNivel.getCache(region).unwrap(Cache.class);
+            CacheStats stats = cache.stats();
+            estadisticas.add(new CacheEstadisticaDTO(region, cache.estimatedSize(),
+                    stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+        }
+        return ResponseEntity.ok(estadisticas);
+    }
+
+    @Operation(summary = "Vaciar caché", description = "Elimina todas las entradas de los cachés del catálogo y del caché de segundo nivel")
+    @DeleteMapping
+    public ResponseEntity<Void> vaciar() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,13 +1,39 @@
 package com.carrie.hazellabev2.controllers;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.carrie.hazellabev2.exceptions.FormatoNoSoportadoException;
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<String> handleServicioSaturado(ServicioSaturadoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(FormatoNoSoportadoException.class)
+    public ResponseEntity<String> handleFormatoNoSoportado(FormatoNoSoportadoException ex) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.parseMediaType("text/plain;charset=UTF-8"))
+                .body(ex.getMessage());
+    }
+
+    // Va antes que el manejador genérico: sin esto una operación sobre un carrito ajeno respondería 500
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<String> handleAccessDenied(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
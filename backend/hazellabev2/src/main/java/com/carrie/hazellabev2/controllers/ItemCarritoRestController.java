@@ -4,10 +4,15 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import com.carrie.hazellabev2.dto.CarritoVistaDTO;
+import com.carrie.hazellabev2.dto.OperacionCarritoDTO;
 import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.services.AccesoCarrito;
 import com.carrie.hazellabev2.services.ItemCarritoService;
+import com.carrie.hazellabev2.services.TokenService;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -17,21 +22,29 @@ public class ItemCarritoRestController {
     @Autowired
     private ItemCarritoService itemCarritoService;
 
+    // ✅ Cada operación se comprueba contra el usuario del token: un cliente no toca carritos ajenos
+    @Autowired
+    private AccesoCarrito accesoCarrito;
+
     // 🔹 Crear nuevo item en el carrito
     @PostMapping
-    public ResponseEntity<ItemCarrito> crearItemCarrito(@RequestBody ItemCarrito itemCarrito) {
+    public ResponseEntity<ItemCarrito> crearItemCarrito(@RequestBody ItemCarrito itemCarrito,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarUsuario(sesion, itemCarrito.getUsuario() != null ? itemCarrito.getUsuario().getId() : null);
         ItemCarrito nuevoItemCarrito = itemCarritoService.crear(itemCarrito);
         return ResponseEntity.ok(nuevoItemCarrito);
     }
 
     // 🔹 Obtener item por ID
     @GetMapping("/{id}")
-    public ResponseEntity<ItemCarrito> obtenerItemCarritoPorId(@PathVariable Long id) {
+    public ResponseEntity<ItemCarrito> obtenerItemCarritoPorId(@PathVariable Long id,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarItem(sesion, id);
         ItemCarrito itemCarrito = itemCarritoService.obtenerPorID(id);
         return ResponseEntity.ok(itemCarrito);
     }
 
-    // 🔹 Listar todos los items del carrito (modo admin)
+    // 🔹 Listar todos los items del carrito (modo admin: SecurityConfig lo restringe a administradores)
     @GetMapping
     public ResponseEntity<List<ItemCarrito>> listarItemsCarrito() {
         List<ItemCarrito> itemsCarrito = itemCarritoService.listarTodo();
@@ -40,32 +53,55 @@ public class ItemCarritoRestController {
 
     // 🔹 Eliminar un item del carrito
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> eliminarItemCarrito(@PathVariable Long id) {
+    public ResponseEntity<Void> eliminarItemCarrito(@PathVariable Long id,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarItem(sesion, id);
         itemCarritoService.eliminar(id);
         return ResponseEntity.noContent().build();
     }
 
     // 🔹 Listar items de un usuario específico
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<ItemCarrito>> listarPorUsuario(@PathVariable Long usuarioId) {
+    public ResponseEntity<List<ItemCarrito>> listarPorUsuario(@PathVariable Long usuarioId,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarUsuario(sesion, usuarioId);
+        // El repositorio ya trae producto y categoría con el item, no hace falta forzar la carga
         List<ItemCarrito> items = itemCarritoService.listarPorUsuario(usuarioId);
+        return ResponseEntity.ok(items);
+    }
 
-        // 👇 Forzar carga de producto (evita errores de lazy loading)
-        items.forEach(item -> {
-            if (item.getProducto() != null) {
-                item.getProducto().getName();
-            }
-        });
+    // 🔹 Vista del carrito: líneas aplanadas con totales, resuelta en una sola consulta
+    @GetMapping("/usuario/{usuarioId}/vista")
+    public ResponseEntity<CarritoVistaDTO> obtenerCarrito(@PathVariable Long usuarioId,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarUsuario(sesion, usuarioId);
+        return ResponseEntity.ok(itemCarritoService.obtenerCarrito(usuarioId));
+    }
 
-        return ResponseEntity.ok(items);
+    // 🔹 Aplicar varias operaciones (agregar / fijar cantidad / eliminar) en una sola llamada
+    @PostMapping("/usuario/{usuarioId}/lote")
+    public ResponseEntity<CarritoVistaDTO> aplicarOperaciones(
+            @PathVariable Long usuarioId,
+            @RequestBody List<OperacionCarritoDTO> operaciones,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+
+        accesoCarrito.verificarUsuario(sesion, usuarioId);
+        CarritoVistaDTO carrito = itemCarritoService.aplicarOperaciones(usuarioId, operaciones);
+        return ResponseEntity.ok(carrito);
     }
 
     // 🔹 Actualizar todo el item (por ejemplo, cambiar producto o cantidad)
     @PutMapping("/{id}")
     public ResponseEntity<ItemCarrito> actualizarItemCarrito(
             @PathVariable Long id,
-            @RequestBody ItemCarrito itemCarritoActualizado) {
-
+            @RequestBody ItemCarrito itemCarritoActualizado,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
+
+        accesoCarrito.verificarItem(sesion, id);
+        // Tampoco se puede pasar la línea al carrito de otro usuario
+        if (itemCarritoActualizado.getUsuario() != null) {
+            accesoCarrito.verificarUsuario(sesion, itemCarritoActualizado.getUsuario().getId());
+        }
         ItemCarrito itemCarrito = itemCarritoService.actualizar(id, itemCarritoActualizado);
         return ResponseEntity.ok(itemCarrito);
     }
@@ -74,8 +110,10 @@ public class ItemCarritoRestController {
     @PutMapping("/{id}/cantidad")
     public ResponseEntity<ItemCarrito> actualizarCantidad(
             @PathVariable Long id,
-            @RequestBody ItemCarrito item) {
+            @RequestBody ItemCarrito item,
+            @AuthenticationPrincipal TokenService.Sesion sesion) {
 
+        accesoCarrito.verificarItem(sesion, id);
         ItemCarrito actualizado = itemCarritoService.actualizarCantidad(id, item.getQuantity());
         return ResponseEntity.ok(actualizado);
     }
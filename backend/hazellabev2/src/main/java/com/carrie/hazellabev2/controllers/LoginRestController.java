@@ -1,11 +1,20 @@
 package com.carrie.hazellabev2.controllers;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.carrie.hazellabev2.dto.LoginRequest;
+import com.carrie.hazellabev2.dto.LoginResponseDTO;
+import com.carrie.hazellabev2.dto.RefrescoRequest;
 import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+import com.carrie.hazellabev2.services.LimitadorLogin;
+import com.carrie.hazellabev2.services.TokenService;
 import com.carrie.hazellabev2.services.UsuarioService;
 
 // ✅ NUEVAS IMPORTACIONES SWAGGER
@@ -15,6 +24,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -25,18 +35,35 @@ public class LoginRestController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private LimitadorLogin limitadorLogin;
+
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario con email y contraseña")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Login exitoso",
+        @ApiResponse(responseCode = "200", description = "Login exitoso: datos del usuario más token de acceso y de refresco",
                      content = @Content(mediaType = "application/json", 
-                     schema = @Schema(implementation = Usuario.class))),
+                     schema = @Schema(implementation = LoginResponseDTO.class))),
         @ApiResponse(responseCode = "400", description = "Credenciales inválidas o usuario inactivo"),
-        @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
+        @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+        @ApiResponse(responseCode = "429", description = "Demasiados intentos para ese email o IP, reintentar tras Retry-After"),
+        @ApiResponse(responseCode = "503", description = "Demasiados inicios de sesión simultáneos, reintentar")
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // ✅ Se limita antes de consultar la base de datos o ejecutar BCrypt
+        long esperaSegundos = limitadorLogin.intentar(loginRequest.getEmail(), request.getRemoteAddr());
+        if (esperaSegundos > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(esperaSegundos))
+                    .body("Demasiados intentos de inicio de sesión, intente nuevamente en " + esperaSegundos + " segundos");
+        }
+
         try {
             Usuario usuario = usuarioService.login(loginRequest.getEmail(), loginRequest.getPassword());
+            limitadorLogin.registrarExito(loginRequest.getEmail());
             
             // ✅ Validar que sea admin para dashboard (requerimiento rúbrica)
             if (!usuario.getRole().equals("super_admin") && !usuario.getRole().equals("admin")) {
@@ -44,9 +71,55 @@ public class LoginRestController {
             }
             
             usuario.setPassword(null);
-            return ResponseEntity.ok(usuario);
+            // ✅ NUEVO: tokens firmados para que el dashboard no vuelva a enviar credenciales
+            return ResponseEntity.ok(respuestaConTokens(usuario));
+        } catch (ServicioSaturadoException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Renovar token", description = "Entrega un nuevo token de acceso a partir de un token de refresco vigente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens renovados",
+                     content = @Content(mediaType = "application/json", 
+                     schema = @Schema(implementation = LoginResponseDTO.class))),
+        @ApiResponse(responseCode = "401", description = "Token de refresco inválido, vencido o usuario inactivo")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refrescar(@RequestBody RefrescoRequest refrescoRequest) {
+        TokenService.Sesion sesion = tokenService.validarRefresco(refrescoRequest.getTokenRefresco()).orElse(null);
+        if (sesion == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token de refresco inválido o vencido");
+        }
+
+        // El refresco es poco frecuente: aquí sí se revisa que el usuario siga existiendo y activo
+        try {
+            Usuario usuario = usuarioService.obtenerPorID(sesion.usuarioId());
+            if (!"activo".equals(usuario.getStatus())) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Usuario inactivo.");
+            }
+            usuario.setPassword(null);
+            return ResponseEntity.ok(respuestaConTokens(usuario));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Estadísticas del limitador de login", description = "Intentos permitidos, rechazos por email y por IP, y claves en memoria")
+    @GetMapping("/limitador")
+    public ResponseEntity<Map<String, Long>> estadisticasLimitador() {
+        return ResponseEntity.ok(Map.of(
+                "permitidos", limitadorLogin.getPermitidos(),
+                "rechazosPorEmail", limitadorLogin.getRechazosPorEmail(),
+                "rechazosPorIp", limitadorLogin.getRechazosPorIp(),
+                "clavesEmail", limitadorLogin.getClavesEmail(),
+                "clavesIp", limitadorLogin.getClavesIp()));
+    }
+
+    private LoginResponseDTO respuestaConTokens(Usuario usuario) {
+        return new LoginResponseDTO(usuario, tokenService.generarAcceso(usuario), tokenService.generarRefresco(usuario),
+                "Bearer", tokenService.getDuracionAccesoSegundos());
+    }
+}
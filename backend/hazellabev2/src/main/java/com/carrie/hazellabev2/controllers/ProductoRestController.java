@@ -1,8 +1,21 @@
 package com.carrie.hazellabev2.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +28,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.carrie.hazellabev2.dto.ProductoPaginaDTO;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
+import com.carrie.hazellabev2.dto.ResultadoImportacionDTO;
+import com.carrie.hazellabev2.dto.VencimientoDTO;
 import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.exceptions.FormatoNoSoportadoException;
+import com.carrie.hazellabev2.services.ImportacionService;
 import com.carrie.hazellabev2.services.ProductoService;
+import com.carrie.hazellabev2.services.RevisionCatalogo;
+import com.carrie.hazellabev2.services.VencimientoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -34,6 +62,30 @@ public class ProductoRestController {
     
     @Autowired
     private ProductoService productoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private VencimientoService vencimientoService;
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Value("${hazellab.productos.limite-defecto:50}")
+    private int limiteDefecto;
+
+    @Value("${hazellab.productos.limite-maximo:500}")
+    private int limiteMaximo;
+
+    @Value("${hazellab.vencimientos.dias-defecto:30}")
+    private int diasVencimientoDefecto;
+
+    @Value("${hazellab.vencimientos.dias-maximo:365}")
+    private int diasVencimientoMaximo;
     
     @Operation(summary = "Crear nuevo producto", description = "Agrega un nuevo producto al inventario")
     @ApiResponses(value = {
@@ -61,7 +113,7 @@ public class ProductoRestController {
         return ResponseEntity.ok(producto);
     }
   
-    @Operation(summary = "Actualizar producto", description = "Actualiza la información de un producto existente")
+    @Operation(summary = "Actualizar producto", description = "Actualiza la información de un producto existente. El stock del cuerpo se ignora: se ajusta con /api/stock/productos/{id}/reponer o /descontar")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado")
@@ -72,12 +124,159 @@ public class ProductoRestController {
         return ResponseEntity.ok(producto);
     }
 
-    @Operation(summary = "Listar todos los productos", description = "Obtiene la lista completa de productos del inventario")
+    @Operation(summary = "Actualizar campos de un producto", description = "JSON Merge Patch (RFC 7396): solo cambian los campos enviados y null borra el valor. La categoría se indica como {\"id\": n}; el stock no se acepta (se ajusta con /api/stock/productos/{id}/reponer o /descontar)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo desconocido, no modificable o con valor inválido"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> parcharProducto(@PathVariable Long id, @RequestBody JsonNode parche) {
+        try {
+            return ResponseEntity.ok(productoService.parchar(id, parche));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Listar productos", description = "Obtiene la lista de productos del inventario. Con page/limit devuelve solo esa página (ordenada por id)")
     @ApiResponse(responseCode = "200", description = "Lista de productos obtenida exitosamente")
     @GetMapping
-    public ResponseEntity<List<Producto>> listarProductos() {
-        List<Producto> productos = productoService.listarTodo();
-        return ResponseEntity.ok(productos);
+    public ResponseEntity<List<Producto>> listarProductos(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+
+        // 304 sin consultar la base ni serializar si el catálogo no cambió desde la copia del cliente
+        if (revisionCatalogo.noModificado(request, RevisionCatalogo.PRODUCTOS)) {
+            return null;
+        }
+
+        // Sin parámetros se mantiene el comportamiento original (lista completa)
+        if (page == null && limit == null) {
+            return revalidable(productoService.listarTodo());
+        }
+
+        int pagina = page != null ? Math.max(page, 0) : 0;
+        List<Producto> productos = productoService.listarPagina(pagina, acotarLimite(limit));
+        return revalidable(productos);
+    }
+
+    @Operation(summary = "Listar productos en vista de tarjeta", description = "Proyección liviana para los listados (id, name, cost, image, estadoStock, categoria). Con fields se devuelven solo esos campos, separados por coma; el detalle completo está en /{id}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tarjetas de productos obtenidas exitosamente"),
+        @ApiResponse(responseCode = "400", description = "fields contiene un campo que la tarjeta no tiene")
+    })
+    @GetMapping("/tarjetas")
+    public ResponseEntity<?> listarTarjetas(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean destacados,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
+        Set<String> campos = leerCampos(fields);
+        Set<String> desconocidos = new LinkedHashSet<>(campos);
+        desconocidos.removeAll(ProductoTarjetaDTO.CAMPOS);
+        if (!desconocidos.isEmpty()) {
+            return ResponseEntity.badRequest().body("Campos no disponibles en la tarjeta: " + String.join(", ", desconocidos)
+                    + ". Campos válidos: " + String.join(", ", ProductoTarjetaDTO.CAMPOS));
+        }
+
+        if (revisionCatalogo.noModificado(request, RevisionCatalogo.PRODUCTOS)) {
+            return null;
+        }
+
+        List<ProductoTarjetaDTO> tarjetas = destacados
+                ? productoService.listarTarjetasDestacadas()
+                : productoService.listarTarjetas(page != null ? Math.max(page, 0) : 0, acotarLimite(limit));
+
+        SimpleBeanPropertyFilter filtro = campos.isEmpty()
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(campos);
+        MappingJacksonValue cuerpo = new MappingJacksonValue(tarjetas);
+        cuerpo.setFilters(new SimpleFilterProvider().addFilter(ProductoTarjetaDTO.FILTRO, filtro));
+        return revalidable(cuerpo);
+    }
+
+    @Operation(summary = "Listar productos por cursor", description = "Paginación keyset sobre el id: usar el campo next de la respuesta como parámetro after de la siguiente llamada")
+    @ApiResponse(responseCode = "200", description = "Página de productos obtenida exitosamente")
+    @GetMapping("/cursor")
+    public ResponseEntity<ProductoPaginaDTO> listarProductosPorCursor(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productoService.listarDesde(after, acotarLimite(limit)));
+    }
+
+    @Operation(summary = "Exportar catálogo en streaming", description = "Escribe un producto por línea (NDJSON) a medida que se leen de la base de datos")
+    @ApiResponse(responseCode = "200", description = "Catálogo transmitido exitosamente")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProductos() {
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                productoService.recorrerCatalogo(producto -> {
+                    try {
+                        generador.writeObject(producto);
+                        generador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
+    }
+
+    /* ---------------------------------- IMPORTACIÓN Y EXPORTACIÓN MASIVA ---------------------------------- */
+    // El cuerpo se lee como InputStream: el archivo nunca se carga completo en memoria
+
+    @Operation(summary = "Importar productos desde CSV", description = "CSV con encabezado (columnas de ProductoImportacionDTO, batchCode obligatoria). Crea o actualiza por batchCode en bloques transaccionales y responde los errores por fila. En un lote existente el stock se ajusta por la diferencia, sin pisar reservas concurrentes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación procesada; las filas rechazadas vienen en errores"),
+        @ApiResponse(responseCode = "400", description = "Archivo vacío o encabezado con columnas desconocidas")
+    })
+    @PostMapping(value = "/importar", consumes = "text/csv")
+    public ResponseEntity<?> importarCsv(InputStream cuerpo) throws IOException {
+        try {
+            return ResponseEntity.ok(importacionService.importarCsv(cuerpo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Importar productos desde NDJSON", description = "Un objeto JSON por línea con los campos de ProductoImportacionDTO. Crea o actualiza por batchCode en bloques transaccionales y responde los errores por fila. En un lote existente el stock se ajusta por la diferencia, sin pisar reservas concurrentes")
+    @ApiResponse(responseCode = "200", description = "Importación procesada; las filas rechazadas vienen en errores")
+    @PostMapping(value = "/importar", consumes = "application/x-ndjson")
+    public ResponseEntity<ResultadoImportacionDTO> importarNdjson(InputStream cuerpo) throws IOException {
+        return ResponseEntity.ok(importacionService.importarNdjson(cuerpo));
+    }
+
+    @Operation(summary = "Exportar catálogo para reimportar", description = "Transmite el catálogo completo en el formato de la importación (csv o ndjson), con la categoría por nombre")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catálogo transmitido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado")
+    })
+    @GetMapping("/exportar")
+    // ✅ El tipo del cuerpo debe ser StreamingResponseBody: con ResponseEntity<?> Spring no lo transmite y responde 500
+    public ResponseEntity<StreamingResponseBody> exportarProductos(@RequestParam(defaultValue = "csv") String formato) {
+        if ("csv".equalsIgnoreCase(formato)) {
+            StreamingResponseBody cuerpo = importacionService::exportarCsv;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"productos.csv\"")
+                    .body(cuerpo);
+        }
+        if ("ndjson".equalsIgnoreCase(formato)) {
+            StreamingResponseBody cuerpo = importacionService::exportarNdjson;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(cuerpo);
+        }
+        // ✅ Se lanza en vez de devolver un cuerpo transmitido: así el 400 no abre una respuesta asíncrona
+        throw new FormatoNoSoportadoException("Formato no soportado: " + formato + ". Use csv o ndjson.");
     }
 
     @Operation(summary = "Eliminar producto", description = "Elimina un producto del inventario")
@@ -118,9 +317,8 @@ public class ProductoRestController {
                 throw new RuntimeException("La URL debe comenzar con http o https");
             }
 
-            Producto producto = productoService.obtenerPorID(id);
-            producto.setImage(imageUrl);
-            Producto productoActualizado = productoService.actualizar(id, producto);
+            // Una sola lectura y un UPDATE de la columna image, sin pasar por el reemplazo completo de actualizar
+            Producto productoActualizado = productoService.actualizarImagen(id, imageUrl);
 
             return ResponseEntity.ok(productoActualizado);
 
@@ -132,15 +330,38 @@ public class ProductoRestController {
     @Operation(summary = "Listar productos destacados", description = "Obtiene la lista de productos marcados como destacados")
     @ApiResponse(responseCode = "200", description = "Lista de productos destacados obtenida exitosamente")
     @GetMapping("/destacados")
-    public ResponseEntity<List<Producto>> listarDestacados() {
+    public ResponseEntity<List<Producto>> listarDestacados(WebRequest request) {
+        if (revisionCatalogo.noModificado(request, RevisionCatalogo.PRODUCTOS)) {
+            return null;
+        }
         List<Producto> productos = productoService.listarDestacados();
-        return ResponseEntity.ok(productos);
+        return revalidable(productos);
+    }
+
+    @Operation(summary = "Calendario de vencimientos", description = "Lotes activos que vencen entre hoy y dentro de los días indicados, agrupados por fecha de vencimiento")
+    @ApiResponse(responseCode = "200", description = "Calendario obtenido exitosamente")
+    @GetMapping("/vencimientos")
+    public ResponseEntity<Map<LocalDate, List<VencimientoDTO>>> calendarioVencimientos(
+            @RequestParam(required = false) Integer dias) {
+        int horizonte = dias == null || dias < 0 ? diasVencimientoDefecto : Math.min(dias, diasVencimientoMaximo);
+        return ResponseEntity.ok(vencimientoService.calendario(horizonte));
     }
 
     /* ======================================================
        🔍 ENDPOINTS DE FILTRADO Y BÚSQUEDA
     ====================================================== */
 
+    @Operation(summary = "Buscar productos", description = "Búsqueda por texto (prefijo, subcadena y varios términos con ranking) sobre nombre, descripción, código químico y lote, con filtros opcionales de categoría y estado")
+    @GetMapping("/buscar")
+    public ResponseEntity<List<Producto>> buscar(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Boolean activo,
+            @RequestParam(required = false) Integer limit) {
+        List<Producto> productos = productoService.buscar(q, categoriaId, activo, acotarLimite(limit));
+        return ResponseEntity.ok(productos);
+    }
+
     @Operation(summary = "Buscar productos por nombre", description = "Busca productos cuyo nombre contenga el texto especificado")
     @GetMapping("/buscar/nombre")
     public ResponseEntity<List<Producto>> buscarPorNombre(@RequestParam String nombre) {
@@ -155,7 +376,7 @@ public class ProductoRestController {
         return ResponseEntity.ok(productos);
     }
 
-    @Operation(summary = "Productos con stock bajo", description = "Obtiene productos con stock menor a 5 unidades")
+    @Operation(summary = "Productos con stock bajo", description = "Obtiene los productos con stock menor o igual a su stock crítico (sin recorrer la tabla). Para recibir los cambios al instante usar /api/stock/alertas")
     @GetMapping("/stock-bajo")
     public ResponseEntity<List<Producto>> obtenerProductosStockBajo() {
         List<Producto> productos = productoService.buscarProductosStockBajo();
@@ -188,4 +409,27 @@ public class ProductoRestController {
         
         return ResponseEntity.ok(productos);
     }
+
+    private int acotarLimite(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return limiteDefecto;
+        }
+        return Math.min(limit, limiteMaximo);
+    }
+
+    private static Set<String> leerCampos(String fields) {
+        Set<String> campos = new LinkedHashSet<>();
+        if (fields != null) {
+            Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(campo -> !campo.isEmpty())
+                    .forEach(campos::add);
+        }
+        return campos;
+    }
+
+    // no-cache: el navegador guarda la respuesta pero la revalida siempre con If-None-Match
+    private static <T> ResponseEntity<T> revalidable(T cuerpo) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(cuerpo);
+    }
 }
\ No newline at end of file
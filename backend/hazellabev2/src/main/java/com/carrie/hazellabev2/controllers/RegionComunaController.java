@@ -1,62 +1,72 @@
 package com.carrie.hazellabev2.controllers;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
+
+import com.carrie.hazellabev2.dto.ComunaSugerenciaDTO;
+import com.carrie.hazellabev2.services.RegionComunaCatalogo;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/ubicacion")
 public class RegionComunaController {
 
+    @Autowired
+    private RegionComunaCatalogo catalogo;
+
+    // Los datos solo cambian con un despliegue: el navegador puede reutilizarlos por un día y revalidar con ETag
+    @Value("${hazellab.ubicacion.cache-segundos:86400}")
+    private long cacheSegundos;
+
     @GetMapping("/regiones-comunas")
-    public Map<String, List<String>> getRegionesComunas() {
-        Map<String, List<String>> regionesComunas = new HashMap<>();
-        
-        // Datos de regiones y comunas de Chile
-        regionesComunas.put("Arica y Parinacota", Arrays.asList("Arica", "Camarones", "Putre", "General Lagos"));
-        regionesComunas.put("Tarapacá", Arrays.asList("Iquique", "Alto Hospicio", "Pozo Almonte", "Camiña", "Colchane", "Huara", "Pica"));
-        regionesComunas.put("Antofagasta", Arrays.asList("Antofagasta", "Mejillones", "Sierra Gorda", "Taltal", "Calama", "Ollagüe", "San Pedro de Atacama", "Tocopilla", "María Elena"));
-        regionesComunas.put("Atacama", Arrays.asList("Copiapó", "Caldera", "Tierra Amarilla", "Chañaral", "Diego de Almagro", "Vallenar", "Alto del Carmen", "Freirina", "Huasco"));
-        regionesComunas.put("Coquimbo", Arrays.asList("La Serena", "Coquimbo", "Andacollo", "La Higuera", "Paiguano", "Vicuña", "Illapel", "Canela", "Los Vilos", "Salamanca", "Ovalle", "Combarbalá", "Monte Patria", "Punitaqui", "Río Hurtado"));
-        regionesComunas.put("Valparaíso", Arrays.asList("Valparaíso", "Casablanca", "Concón", "Juan Fernández", "Puchuncaví", "Quintero", "Viña del Mar", "Isla de Pascua", "Los Andes", "Calle Larga", "Rinconada", "San Esteban", "La Ligua", "Cabildo", "Papudo", "Petorca", "Zapallar", "Quillota", "Calera", "Hijuelas", "La Cruz", "Nogales", "San Antonio", "Algarrobo", "Cartagena", "El Quisco", "El Tabo", "Santo Domingo", "San Felipe", "Catemu", "Llaillay", "Panquehue", "Putaendo", "Santa María", "Quilpué", "Limache", "Olmué", "Villa Alemana"));
-        regionesComunas.put("Metropolitana", Arrays.asList("Santiago", "Cerrillos", "Cerro Navia", "Conchalí", "El Bosque", "Estación Central", "Huechuraba", "Independencia", "La Cisterna", "La Florida", "La Granja", "La Pintana", "La Reina", "Las Condes", "Lo Barnechea", "Lo Espejo", "Lo Prado", "Macul", "Maipú", "Ñuñoa", "Pedro Aguirre Cerda", "Peñalolén", "Providencia", "Pudahuel", "Quilicura", "Quinta Normal", "Recoleta", "Renca", "San Joaquín", "San Miguel", "San Ramón", "Vitacura", "Puente Alto", "Pirque", "San José de Maipo", "Colina", "Lampa", "Tiltil", "San Bernardo", "Buin", "Calera de Tango", "Paine", "Melipilla", "Alhué", "Curacaví", "María Pinto", "San Pedro", "Talagante", "El Monte", "Isla de Maipo", "Padre Hurtado", "Peñaflor"));
-        regionesComunas.put("O'Higgins", Arrays.asList("Rancagua", "Codegua", "Coinco", "Coltauco", "Doñihue", "Graneros", "Las Cabras", "Machalí", "Malloa", "Mostazal", "Olivar", "Peumo", "Pichidegua", "Quinta de Tilcoco", "Rengo", "Requínoa", "San Vicente", "Pichilemu", "La Estrella", "Litueche", "Marchihue", "Navidad", "Paredones", "San Fernando", "Chépica", "Chimbarongo", "Lolol", "Nancagua", "Palmilla", "Peralillo", "Placilla", "Pumanque", "Santa Cruz"));
-        regionesComunas.put("Maule", Arrays.asList("Talca", "Constitución", "Curepto", "Empedrado", "Maule", "Pelarco", "Pencahue", "Río Claro", "San Clemente", "San Rafael", "Cauquenes", "Chanco", "Pelluhue", "Curicó", "Hualañé", "Licantén", "Molina", "Rauco", "Romeral", "Sagrada Familia", "Teno", "Vichuquén", "Linares", "Colbún", "Longaví", "Parral", "Retiro", "San Javier", "Villa Alegre", "Yerbas Buenas"));
-        regionesComunas.put("Ñuble", Arrays.asList("Chillán", "Bulnes", "Chillán Viejo", "El Carmen", "Pemuco", "Pinto", "Quillón", "San Ignacio", "Yungay", "Quirihue", "Cobquecura", "Coelemu", "Ninhue", "Portezuelo", "Ránquil", "Treguaco", "San Carlos", "Coihueco", "Ñiquén", "San Fabián", "San Nicolás"));
-        regionesComunas.put("Biobío", Arrays.asList("Concepción", "Coronel", "Chiguayante", "Florida", "Hualpén", "Hualqui", "Lota", "Penco", "San Pedro de la Paz", "Santa Juana", "Talcahuano", "Tomé", "Los Ángeles", "Antuco", "Cabrero", "Laja", "Mulchén", "Nacimiento", "Negrete", "Quilaco", "Quilleco", "San Rosendo", "Santa Bárbara", "Tucapel", "Yumbel", "Alto Biobío", "Lebú", "Arauco", "Cañete", "Contulmo", "Curanilahue", "Los Álamos", "Tirúa"));
-        regionesComunas.put("Araucanía", Arrays.asList("Temuco", "Carahue", "Cunco", "Curarrehue", "Freire", "Galvarino", "Gorbea", "Lautaro", "Loncoche", "Melipeuco", "Nueva Imperial", "Padre las Casas", "Perquenco", "Pitrufquén", "Pucón", "Saavedra", "Teodoro Schmidt", "Vilcún", "Villarrica", "Cholchol", "Angol", "Collipulli", "Curacautín", "Ercilla", "Lonquimay", "Los Sauces", "Lumaco", "Purén", "Renaico", "Traiguén", "Victoria"));
-        regionesComunas.put("Los Ríos", Arrays.asList("Valdivia", "Corral", "Lanco", "Los Lagos", "Máfil", "Mariquina", "Paillaco", "Panguipulli", "La Unión", "Futrono", "Lago Ranco", "Río Bueno"));
-        regionesComunas.put("Los Lagos", Arrays.asList("Puerto Montt", "Calbuco", "Cochamó", "Fresia", "Frutillar", "Los Muermos", "Llanquihue", "Maullín", "Puerto Varas", "Castro", "Ancud", "Chonchi", "Curaco de Vélez", "Dalcahue", "Puqueldón", "Queilén", "Quellón", "Quemchi", "Quinchao", "Osorno", "Puerto Octay", "Purranque", "Puyehue", "Río Negro", "San Juan de la Costa", "San Pablo", "Chaitén", "Futaleufú", "Hualaihué", "Palena"));
-        regionesComunas.put("Aysén", Arrays.asList("Coihaique", "Lago Verde", "Aisén", "Cisnes", "Guaitecas", "Cochrane", "O'Higgins", "Tortel", "Chile Chico", "Río Ibáñez"));
-        regionesComunas.put("Magallanes", Arrays.asList("Punta Arenas", "Laguna Blanca", "Río Verde", "San Gregorio", "Cabo de Hornos", "Antártica", "Porvenir", "Primavera", "Timaukel", "Natales", "Torres del Paine"));
-        
-        return regionesComunas;
+    public ResponseEntity<byte[]> getRegionesComunas(WebRequest request) {
+        return responder(catalogo.getRecursoRegionesComunas(), request);
     }
 
     @GetMapping("/regiones")
-    public List<String> getRegiones() {
-        return Arrays.asList(
-            "Arica y Parinacota", "Tarapacá", "Antofagasta", "Atacama", "Coquimbo",
-            "Valparaíso", "Metropolitana", "O'Higgins", "Maule", "Ñuble",
-            "Biobío", "Araucanía", "Los Ríos", "Los Lagos", "Aysén", "Magallanes"
-        );
+    public ResponseEntity<byte[]> getRegiones(WebRequest request) {
+        return responder(catalogo.getRecursoRegiones(), request);
     }
 
     @GetMapping("/comunas/{region}")
-    public List<String> getComunasPorRegion(@PathVariable String region) {
-        Map<String, List<String>> regionesComunas = getRegionesComunas();
-        List<String> comunas = regionesComunas.get(region);
-        if (comunas == null) {
-            return Arrays.asList(); // Retorna lista vacía si la región no existe
+    public ResponseEntity<byte[]> getComunasPorRegion(@PathVariable String region, WebRequest request) {
+        // Retorna lista vacía si la región no existe
+        return responder(catalogo.getRecursoComunas(region), request);
+    }
+
+    // ✅ NUEVO: autocompletado de comunas (sin distinguir tildes ni mayúsculas)
+    @GetMapping("/comunas/buscar")
+    public ResponseEntity<List<ComunaSugerenciaDTO>> buscarComunas(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ComunaSugerenciaDTO> sugerencias = catalogo.buscarComunas(q, Math.min(Math.max(limit, 1), 50));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(cacheSegundos)).cachePublic())
+                .body(sugerencias);
+    }
+
+    private ResponseEntity<byte[]> responder(RegionComunaCatalogo.Recurso recurso, WebRequest request) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(cacheSegundos)).cachePublic();
+        if (request.checkNotModified(recurso.etag())) {
+            return ResponseEntity.status(304).eTag(recurso.etag()).cacheControl(cacheControl).build();
         }
-        return comunas;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(recurso.etag())
+                .cacheControl(cacheControl)
+                .body(recurso.json());
     }
-}
\ No newline at end of file
+}
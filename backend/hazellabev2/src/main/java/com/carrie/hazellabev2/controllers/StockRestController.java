@@ -0,0 +1,173 @@
+package com.carrie.hazellabev2.controllers;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.carrie.hazellabev2.dto.NivelStockDTO;
+import com.carrie.hazellabev2.entities.ReservaStock;
+import com.carrie.hazellabev2.services.AccesoCarrito;
+import com.carrie.hazellabev2.services.MonitorStockCritico;
+import com.carrie.hazellabev2.services.StockService;
+import com.carrie.hazellabev2.services.TokenService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/stock")
+@Tag(name = "Stock", description = "Reservas de stock del carrito y ajustes atómicos de inventario")
+public class StockRestController {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private MonitorStockCritico monitorStockCritico;
+
+    // ✅ Las reservas se autorizan contra el dueño del carrito
+    @Autowired
+    private AccesoCarrito accesoCarrito;
+
+    @Value("${hazellab.stock.alertas.timeout-ms:1800000}")
+    private long timeoutAlertas;
+
+    /* ---------------------------------- Reservas ---------------------------------- */
+
+    @Operation(summary = "Reservar item del carrito", description = "Aparta el stock de un item del carrito por un tiempo limitado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock reservado"),
+        @ApiResponse(responseCode = "409", description = "Stock insuficiente o item inexistente")
+    })
+    @PostMapping("/reservas/item/{itemCarritoId}")
+    public ResponseEntity<?> reservarItem(@PathVariable Long itemCarritoId, @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarItem(sesion, itemCarritoId);
+        try {
+            ReservaStock reserva = stockService.reservar(itemCarritoId);
+            return ResponseEntity.ok(reserva);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Reservar carrito completo", description = "Reserva todas las líneas del carrito; si alguna no tiene stock no se reserva ninguna")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Carrito reservado"),
+        @ApiResponse(responseCode = "409", description = "Alguna línea no tiene stock suficiente")
+    })
+    @PostMapping("/reservas/usuario/{usuarioId}")
+    public ResponseEntity<?> reservarCarrito(@PathVariable Long usuarioId, @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarUsuario(sesion, usuarioId);
+        try {
+            List<ReservaStock> reservas = stockService.reservarCarrito(usuarioId);
+            return ResponseEntity.ok(reservas);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Confirmar reserva", description = "Da por vendida la cantidad reservada")
+    @PostMapping("/reservas/{reservaId}/confirmar")
+    public ResponseEntity<?> confirmar(@PathVariable Long reservaId, @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarReserva(sesion, reservaId);
+        try {
+            stockService.confirmar(reservaId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Liberar reserva", description = "Devuelve al inventario la cantidad reservada")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+        @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    @DeleteMapping("/reservas/{reservaId}")
+    public ResponseEntity<?> liberar(@PathVariable Long reservaId, @AuthenticationPrincipal TokenService.Sesion sesion) {
+        accesoCarrito.verificarReserva(sesion, reservaId);
+        try {
+            stockService.liberar(reservaId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /* ---------------------------------- Ajustes de inventario ---------------------------------- */
+
+    @Operation(summary = "Descontar stock", description = "Descuenta unidades solo si hay stock suficiente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Stock descontado"),
+        @ApiResponse(responseCode = "400", description = "Cantidad menor o igual a cero"),
+        @ApiResponse(responseCode = "409", description = "Stock insuficiente")
+    })
+    @PostMapping("/productos/{productoId}/descontar")
+    public ResponseEntity<?> descontar(@PathVariable Long productoId, @RequestParam int cantidad) {
+        try {
+            stockService.descontar(productoId, cantidad);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Reponer stock", description = "Suma unidades al stock del producto")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Stock repuesto"),
+        @ApiResponse(responseCode = "400", description = "Cantidad menor o igual a cero"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    @PostMapping("/productos/{productoId}/reponer")
+    public ResponseEntity<?> reponer(@PathVariable Long productoId, @RequestParam int cantidad) {
+        try {
+            stockService.reponer(productoId, cantidad);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /* ---------------------------------- Stock crítico ---------------------------------- */
+
+    @Operation(summary = "Productos en stock crítico", description = "Productos con stock menor o igual a su stock crítico, desde el monitor en memoria")
+    @GetMapping("/criticos")
+    public ResponseEntity<List<NivelStockDTO>> criticos() {
+        return ResponseEntity.ok(monitorStockCritico.getCriticos());
+    }
+
+    @Operation(summary = "Alertas de stock crítico (SSE)", description = "Al conectarse envía el evento criticos con el estado actual; después un evento entro o salio cada vez que un producto cruza su stock crítico")
+    @GetMapping(value = "/alertas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter alertas() throws IOException {
+        SseEmitter emisor = new SseEmitter(timeoutAlertas);
+        // Se suscribe antes de mandar el estado inicial: un cambio entre ambos pasos llega repetido, no se pierde
+        Runnable cancelar = monitorStockCritico.suscribir(alerta -> {
+            try {
+                emisor.send(SseEmitter.event().name(alerta.getTipo().toLowerCase()).data(alerta));
+            } catch (IOException | IllegalStateException e) {
+                emisor.completeWithError(e);
+            }
+        });
+        emisor.onCompletion(cancelar);
+        emisor.onTimeout(cancelar);
+        emisor.onError(error -> cancelar.run());
+
+        emisor.send(SseEmitter.event().name("criticos").data(monitorStockCritico.getCriticos()));
+        return emisor;
+    }
+}
@@ -3,10 +3,13 @@ package com.carrie.hazellabev2.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -15,7 +18,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+import com.carrie.hazellabev2.services.TokenService;
 import com.carrie.hazellabev2.services.UsuarioService;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -42,10 +48,17 @@ public class UsuarioRestController {
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @PostMapping
-    public ResponseEntity<?> crearUsuario(@RequestBody Usuario usuario) {
+    public ResponseEntity<?> crearUsuario(@RequestBody Usuario usuario, @AuthenticationPrincipal TokenService.Sesion sesion) {
+        // ✅ El registro es público: solo un administrador autenticado elige rol y estado, el resto entra como cliente
+        if (sesion == null || !sesion.esAdministrador()) {
+            usuario.setRole("cliente");
+            usuario.setStatus("activo");
+        }
         try {
             Usuario nuevoUsuario = usuarioService.crear(usuario);
             return ResponseEntity.ok(nuevoUsuario);
+        } catch (ServicioSaturadoException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -78,6 +91,27 @@ public class UsuarioRestController {
         try {
             Usuario usuario = usuarioService.actualizar(id, usuarioActualizado);
             return ResponseEntity.ok(usuario);
+        } catch (ServicioSaturadoException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Actualizar campos de un usuario", description = "JSON Merge Patch (RFC 7396): solo cambian los campos enviados; la contraseña se encripta solo si viene en el parche")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Usuario actualizado exitosamente",
+                     content = @Content(mediaType = "application/json", 
+                     schema = @Schema(implementation = Usuario.class))),
+        @ApiResponse(responseCode = "400", description = "Usuario no encontrado o datos de entrada inválidos")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> parcharUsuario(@PathVariable Long id, @RequestBody JsonNode parche) {
+        try {
+            Usuario usuario = usuarioService.parchar(id, parche);
+            return ResponseEntity.ok(usuario);
+        } catch (ServicioSaturadoException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
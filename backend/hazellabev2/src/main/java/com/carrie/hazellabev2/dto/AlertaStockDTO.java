@@ -0,0 +1,22 @@
+package com.carrie.hazellabev2.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cambio de estado de un producto respecto de su stock crítico: ENTRO (stock <= stockCritico) o SALIO
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertaStockDTO {
+    public static final String ENTRO = "ENTRO";
+    public static final String SALIO = "SALIO";
+
+    private String tipo;
+    private Long productoId;
+    private int stock;
+    private int stockCritico;
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,17 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheEstadisticaDTO {
+    private String nombre;
+    private long entradas;
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private long desalojos;
+}
@@ -0,0 +1,28 @@
+package com.carrie.hazellabev2.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Carrito completo de un usuario con los totales calculados en el servidor
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CarritoVistaDTO {
+    private Long usuarioId;
+    private List<ItemCarritoVistaDTO> items;
+    private int cantidadTotal;
+    private long subtotal;
+
+    public static CarritoVistaDTO de(Long usuarioId, List<ItemCarritoVistaDTO> items) {
+        int cantidadTotal = 0;
+        long subtotal = 0;
+        for (ItemCarritoVistaDTO item : items) {
+            cantidadTotal += item.getCantidad();
+            subtotal += item.getTotalLinea();
+        }
+        return new CarritoVistaDTO(usuarioId, items, cantidadTotal, subtotal);
+    }
+}
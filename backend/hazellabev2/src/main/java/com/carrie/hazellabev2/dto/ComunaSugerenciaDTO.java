@@ -0,0 +1,14 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado del autocompletado de comunas: la región acompaña porque hay nombres repetidos (p. ej. O'Higgins)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComunaSugerenciaDTO {
+    private String comuna;
+    private String region;
+}
@@ -0,0 +1,15 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila rechazada por la importación masiva: número de línea en el archivo, lote (si se pudo leer) y motivo
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErrorImportacionDTO {
+    private long fila;
+    private String batchCode;
+    private String mensaje;
+}
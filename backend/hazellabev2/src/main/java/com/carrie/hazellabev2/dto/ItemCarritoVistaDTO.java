@@ -0,0 +1,32 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Línea del carrito ya aplanada: se arma directamente desde la consulta JPQL, sin cargar entidades
+@Data
+@NoArgsConstructor
+public class ItemCarritoVistaDTO {
+    private Long itemId;
+    private Long productoId;
+    private String nombre;
+    private String imagen;
+    private String categoria;
+    private int precioUnitario;
+    private int cantidad;
+    private int stockDisponible;
+    private long totalLinea;
+
+    public ItemCarritoVistaDTO(Long itemId, Long productoId, String nombre, String imagen, String categoria,
+            int precioUnitario, int cantidad, int stockDisponible) {
+        this.itemId = itemId;
+        this.productoId = productoId;
+        this.nombre = nombre;
+        this.imagen = imagen;
+        this.categoria = categoria;
+        this.precioUnitario = precioUnitario;
+        this.cantidad = cantidad;
+        this.stockDisponible = stockDisponible;
+        this.totalLinea = (long) precioUnitario * cantidad;
+    }
+}
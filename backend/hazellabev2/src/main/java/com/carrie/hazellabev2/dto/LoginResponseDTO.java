@@ -0,0 +1,21 @@
+package com.carrie.hazellabev2.dto;
+
+import com.carrie.hazellabev2.entities.Usuario;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Los campos del usuario van al mismo nivel que los tokens, así el frontend sigue leyendo id, email y role igual que antes
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginResponseDTO {
+    @JsonUnwrapped
+    private Usuario usuario;
+    private String tokenAcceso;
+    private String tokenRefresco;
+    private String tipoToken;
+    private long expiraEnSegundos;
+}
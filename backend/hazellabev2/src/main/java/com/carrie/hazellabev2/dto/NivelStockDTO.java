@@ -0,0 +1,19 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Stock y umbral crítico de un producto, leídos sin cargar la entidad
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NivelStockDTO {
+    private Long productoId;
+    private int stock;
+    private int stockCritico;
+
+    public boolean esCritico() {
+        return stock <= stockCritico;
+    }
+}
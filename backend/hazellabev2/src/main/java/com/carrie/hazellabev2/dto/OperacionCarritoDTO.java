@@ -0,0 +1,17 @@
+package com.carrie.hazellabev2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una operación sobre el carrito dentro de un lote: agregar unidades, fijar la cantidad o quitar la línea
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OperacionCarritoDTO {
+    public enum Tipo { AGREGAR, FIJAR_CANTIDAD, ELIMINAR }
+
+    private Tipo tipo;
+    private Long productoId;
+    private int cantidad;
+}
@@ -0,0 +1,41 @@
+package com.carrie.hazellabev2.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila de la importación/exportación masiva del catálogo (CSV o NDJSON). La categoría va por nombre
+// y las fechas como yyyy-MM-dd; al importar, un campo ausente no modifica el producto existente
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"batchCode", "name", "description", "chemCode", "elabDate", "expDate", "cost", "stock",
+        "stockCritico", "proveedor", "categoria", "image", "activeStatus", "destacado"})
+public class ProductoImportacionDTO {
+    // Columnas del CSV, en el orden en que se exportan
+    public static final List<String> COLUMNAS = List.of("batchCode", "name", "description", "chemCode",
+            "elabDate", "expDate", "cost", "stock", "stockCritico", "proveedor", "categoria", "image",
+            "activeStatus", "destacado");
+
+    private String batchCode;
+    private String name;
+    private String description;
+    private String chemCode;
+    private LocalDate elabDate;
+    private LocalDate expDate;
+    private Integer cost;
+    private Integer stock;
+    private Integer stockCritico;
+    private String proveedor;
+    private String categoria;
+    private String image;
+    private Boolean activeStatus;
+    private Boolean destacado;
+}
@@ -0,0 +1,19 @@
+package com.carrie.hazellabev2.dto;
+
+import java.util.List;
+
+import com.carrie.hazellabev2.entities.Producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Página de productos obtenida por cursor: "next" es el id desde el cual pedir la siguiente página
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductoPaginaDTO {
+    private List<Producto> items;
+    private Long next;
+    private int limit;
+}
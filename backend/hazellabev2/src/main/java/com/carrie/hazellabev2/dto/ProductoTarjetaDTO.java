@@ -0,0 +1,48 @@
+package com.carrie.hazellabev2.dto;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Producto en vista de tarjeta (listados del catálogo): se arma directamente desde la consulta JPQL
+// con solo las columnas que muestra la tarjeta, sin cargar la entidad ni su categoría.
+// El filtro permite responder únicamente los campos pedidos con ?fields=
+@Data
+@NoArgsConstructor
+@JsonFilter(ProductoTarjetaDTO.FILTRO)
+public class ProductoTarjetaDTO {
+    public static final String FILTRO = "camposTarjeta";
+    public static final Set<String> CAMPOS = Set.of("id", "name", "cost", "image", "estadoStock", "categoria");
+
+    public static final String AGOTADO = "AGOTADO";
+    public static final String STOCK_BAJO = "BAJO";
+    public static final String DISPONIBLE = "DISPONIBLE";
+
+    private Long id;
+    private String name;
+    private int cost;
+    private String image;
+    private String estadoStock;
+    private String categoria;
+
+    public ProductoTarjetaDTO(Long id, String name, int cost, String image, int stock, int stockCritico,
+            String categoria) {
+        this.id = id;
+        this.name = name;
+        this.cost = cost;
+        this.image = image;
+        this.categoria = categoria;
+        this.estadoStock = calcularEstadoStock(stock, stockCritico);
+    }
+
+    private static String calcularEstadoStock(int stock, int stockCritico) {
+        if (stock <= 0) {
+            return AGOTADO;
+        }
+        // Mismo criterio que el monitor de stock crítico
+        return stock <= stockCritico ? STOCK_BAJO : DISPONIBLE;
+    }
+}
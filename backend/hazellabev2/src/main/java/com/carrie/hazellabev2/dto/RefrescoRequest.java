@@ -0,0 +1,14 @@
+package com.carrie.hazellabev2.dto;
+
+public class RefrescoRequest {
+
+    private String tokenRefresco;
+
+    public String getTokenRefresco() {
+        return tokenRefresco;
+    }
+
+    public void setTokenRefresco(String tokenRefresco) {
+        this.tokenRefresco = tokenRefresco;
+    }
+}
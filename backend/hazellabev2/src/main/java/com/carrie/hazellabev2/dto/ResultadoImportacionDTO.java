@@ -0,0 +1,19 @@
+package com.carrie.hazellabev2.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumen de una importación masiva. errores trae como máximo hazellab.importacion.max-errores filas;
+// conError cuenta todas las rechazadas
+@Data
+@NoArgsConstructor
+public class ResultadoImportacionDTO {
+    private long filas;
+    private long creados;
+    private long actualizados;
+    private long conError;
+    private List<ErrorImportacionDTO> errores = new ArrayList<>();
+}
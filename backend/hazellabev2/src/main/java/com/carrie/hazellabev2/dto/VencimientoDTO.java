@@ -0,0 +1,20 @@
+package com.carrie.hazellabev2.dto;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lote en el calendario de vencimientos: se arma directamente desde la consulta JPQL
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VencimientoDTO {
+    private Long productoId;
+    private String name;
+    private String batchCode;
+    private Date elabDate;
+    private Date expDate;
+    private int stock;
+}
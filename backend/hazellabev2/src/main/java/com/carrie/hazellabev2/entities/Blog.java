@@ -1,5 +1,11 @@
 package com.carrie.hazellabev2.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.carrie.hazellabev2.config.CacheSegundoNivelConfig;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -15,6 +21,8 @@ import lombok.NoArgsConstructor;
 
 @Entity
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_BLOGS)
 public class Blog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,8 +3,13 @@ package com.carrie.hazellabev2.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.carrie.hazellabev2.config.CacheSegundoNivelConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -20,6 +25,8 @@ import lombok.NoArgsConstructor;
 
 @Entity
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_CATEGORIAS)
 public class Categoria {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
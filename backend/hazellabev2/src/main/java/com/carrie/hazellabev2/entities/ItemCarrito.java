@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.carrie.hazellabev2.config.IdGeneradorTabla;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -14,8 +15,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 
 public class ItemCarrito {
+    // Con IDENTITY Hibernate no puede agrupar INSERTs en lote; la tabla de ids reparte bloques de 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "itemCarritoIds")
+    @TableGenerator(name = "itemCarritoIds", table = IdGeneradorTabla.TABLA,
+            pkColumnName = "nombre", valueColumnName = "siguiente",
+            pkColumnValue = "item_carrito", allocationSize = IdGeneradorTabla.BLOQUE)
     private Long id;
 
     private int quantity;
@@ -3,14 +3,22 @@ package com.carrie.hazellabev2.entities;
 import java.time.LocalDateTime;
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.carrie.hazellabev2.config.CacheSegundoNivelConfig;
+import com.carrie.hazellabev2.config.IdGeneradorTabla;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,9 +28,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // 👈 importante también aquí
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_PRODUCTOS)
+@DynamicUpdate // el UPDATE lleva solo las columnas modificadas, no las 16 de la fila
 public class Producto {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques desde id_generador: con IDENTITY Hibernate no puede agrupar los INSERT de la importación
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "productoIds")
+    @TableGenerator(name = "productoIds", table = IdGeneradorTabla.TABLA,
+            pkColumnName = "nombre", valueColumnName = "siguiente",
+            pkColumnValue = "producto", allocationSize = IdGeneradorTabla.BLOQUE)
     private Long id;
 
     private String name;
@@ -0,0 +1,32 @@
+package com.carrie.hazellabev2.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Unidades de stock apartadas para un item del carrito hasta que se confirme la compra o expire
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class ReservaStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(name = "item_carrito_id", unique = true)
+    private Long itemCarritoId;
+
+    private int cantidad;
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,9 @@
+package com.carrie.hazellabev2.exceptions;
+
+// Se lanza cuando se pide un formato de exportación desconocido: responde 400 antes de empezar a transmitir
+public class FormatoNoSoportadoException extends RuntimeException {
+
+    public FormatoNoSoportadoException(String mensaje) {
+        super(mensaje);
+    }
+}
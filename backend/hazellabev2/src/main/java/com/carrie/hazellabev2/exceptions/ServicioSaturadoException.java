@@ -0,0 +1,15 @@
+package com.carrie.hazellabev2.exceptions;
+
+// Se lanza cuando un recurso acotado (p. ej. el pool de BCrypt) no admite más trabajo: el cliente debe reintentar
+public class ServicioSaturadoException extends RuntimeException {
+    private final long reintentarEnSegundos;
+
+    public ServicioSaturadoException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
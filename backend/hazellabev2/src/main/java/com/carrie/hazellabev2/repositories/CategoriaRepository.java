@@ -1,9 +1,17 @@
 package com.carrie.hazellabev2.repositories;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 import com.carrie.hazellabev2.entities.Categoria;
 
-public interface CategoriaRepository extends CrudRepository<Categoria, Long> {
+import jakarta.persistence.QueryHint;
 
+public interface CategoriaRepository extends CrudRepository<Categoria, Long> {
+    // Caché de consultas: guarda solo los ids y arma cada fila desde la región de la entidad;
+    // cualquier escritura en la tabla invalida el resultado
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Iterable<Categoria> findAll();
 }
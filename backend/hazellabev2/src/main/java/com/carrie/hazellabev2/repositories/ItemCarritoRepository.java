@@ -1,11 +1,31 @@
 package com.carrie.hazellabev2.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import com.carrie.hazellabev2.dto.ItemCarritoVistaDTO;
 import com.carrie.hazellabev2.entities.ItemCarrito;
 
 public interface ItemCarritoRepository extends CrudRepository<ItemCarrito, Long> {
-    List<ItemCarrito> findByUsuarioId(Long usuarioId);
+    // Trae producto y categoría en el mismo JOIN para no disparar una consulta por línea
+    // JPQL explícito: el método derivado hacía JOIN a usuario para filtrar por su id y no usaba el
+    // índice de usuario_id
+    @EntityGraph(attributePaths = {"producto", "producto.category"})
+    @Query("select i from ItemCarrito i where i.usuario.id = :usuarioId")
+    List<ItemCarrito> findByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("select new com.carrie.hazellabev2.dto.ItemCarritoVistaDTO("
+            + "i.id, p.id, p.name, p.image, c.nombre, p.cost, i.quantity, p.stock) "
+            + "from ItemCarrito i join i.producto p left join p.category c "
+            + "where i.usuario.id = :usuarioId order by i.id")
+    List<ItemCarritoVistaDTO> findVistaByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Dueño de la línea, para autorizar sin cargar el item ni su producto
+    @Query("select i.usuario.id from ItemCarrito i where i.id = :id")
+    Optional<Long> findUsuarioIdById(@Param("id") Long id);
 }
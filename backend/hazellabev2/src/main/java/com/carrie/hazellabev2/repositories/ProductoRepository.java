@@ -1,21 +1,128 @@
 package com.carrie.hazellabev2.repositories;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import com.carrie.hazellabev2.dto.NivelStockDTO;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
+import com.carrie.hazellabev2.dto.VencimientoDTO;
 import com.carrie.hazellabev2.entities.Producto;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+// Los listados traen la categoría (EAGER) en el mismo SELECT; sin el EntityGraph Hibernate
+// hace una consulta extra por cada categoría distinta del resultado
 public interface ProductoRepository extends CrudRepository<Producto, Long> {
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Iterable<Producto> findAll();
+
+    // Los métodos derivados usan la caché de consultas: guarda los ids y arma cada fila desde la región de
+    // Producto. Cualquier escritura en la tabla (un cambio de stock incluido) invalida los resultados
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByDestacadoTrue();
     
     // ✅ NUEVOS MÉTODOS DE FILTRADO
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByNameContainingIgnoreCase(String name);
-    List<Producto> findByCategoryId(Long categoryId);
+    // JPQL explícito: el método derivado hacía JOIN a categoria para filtrar por su id y no usaba
+    // el índice de categoria_id; p.category.id se traduce directo a la columna de la FK
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select p from Producto p where p.category.id = :categoryId")
+    List<Producto> findByCategoryId(@Param("categoryId") Long categoryId);
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByStockLessThan(int stock);
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByActiveStatus(Boolean activeStatus);
     
     // ✅ Métodos combinados para búsquedas avanzadas
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByNameContainingIgnoreCaseAndCategoryId(String name, Long categoryId);
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByNameContainingIgnoreCaseAndActiveStatus(String name, Boolean activeStatus);
+
+    // ✅ Paginación: por número de página (compatibilidad) y por cursor sobre el id (keyset)
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Producto> findAllByOrderByIdAsc(Pageable pageable);
+    @EntityGraph(attributePaths = "category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // ✅ Vista de tarjeta: proyección con las columnas que usa el listado, sin hidratar entidades
+    @Query("select new com.carrie.hazellabev2.dto.ProductoTarjetaDTO("
+            + "p.id, p.name, p.cost, p.image, p.stock, p.stockCritico, c.nombre) "
+            + "from Producto p left join p.category c order by p.id")
+    List<ProductoTarjetaDTO> findTarjetasByOrderByIdAsc(Pageable pageable);
+
+    @Query("select new com.carrie.hazellabev2.dto.ProductoTarjetaDTO("
+            + "p.id, p.name, p.cost, p.image, p.stock, p.stockCritico, c.nombre) "
+            + "from Producto p left join p.category c where p.destacado = true order by p.id")
+    List<ProductoTarjetaDTO> findTarjetasDestacadas();
+
+    // ✅ Stock crítico: lectura por clave primaria tras cada cambio de stock y carga inicial del monitor
+    @Query("select new com.carrie.hazellabev2.dto.NivelStockDTO(p.id, p.stock, p.stockCritico) "
+            + "from Producto p where p.id = :id")
+    Optional<NivelStockDTO> findNivelStockById(@Param("id") Long id);
+
+    // Tras guardar productos: la consulta vacía los UPDATE pendientes y bloquea las filas (select ... for update),
+    // también las que el guardado no modificó. Requiere transacción abierta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.carrie.hazellabev2.dto.NivelStockDTO(p.id, p.stock, p.stockCritico) "
+            + "from Producto p where p.id in :ids")
+    List<NivelStockDTO> findNivelesStockParaActualizar(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.carrie.hazellabev2.dto.NivelStockDTO(p.id, p.stock, p.stockCritico) "
+            + "from Producto p where p.stock <= p.stockCritico")
+    List<NivelStockDTO> findNivelesCriticos();
+
+    // ✅ Vencimiento de lotes (índice idx_producto_vencimiento: active_status, exp_date, id)
+    @Query("select new com.carrie.hazellabev2.dto.VencimientoDTO("
+            + "p.id, p.name, p.batchCode, p.elabDate, p.expDate, p.stock) from Producto p "
+            + "where p.activeStatus = true and p.expDate >= :desde and p.expDate < :hasta "
+            + "order by p.expDate, p.id")
+    List<VencimientoDTO> findVencimientosEntre(@Param("desde") Date desde, @Param("hasta") Date hasta);
+
+    @Query("select p.id from Producto p where p.activeStatus = true and p.expDate <= :fecha order by p.expDate, p.id")
+    List<Long> findIdsVencidos(@Param("fecha") Date fecha, Limit limit);
+
+    // Carga inicial del índice de vencimientos en memoria: [id, expDate] de cada lote activo con fecha
+    @Query("select p.id, p.expDate from Producto p where p.activeStatus = true and p.expDate is not null")
+    List<Object[]> findVencimientosActivos();
+
+    // Se bloquean y se desactivan como entidades: un UPDATE masivo en HQL vaciaría la región entera de la
+    // caché de segundo nivel. La condición sobre la fecha se repite: si el lote cambió desde que se eligió, no se desactiva
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Producto p where p.id in :ids and p.activeStatus = true and p.expDate <= :fecha")
+    List<Producto> findVencidosParaDesactivar(@Param("ids") List<Long> ids, @Param("fecha") Date fecha);
+
+    // Importación masiva: productos existentes de un bloque de filas, por lote (idx_producto_lote)
+    @EntityGraph(attributePaths = "category")
+    List<Producto> findByBatchCodeIn(Collection<String> batchCodes);
+
+    // ✅ Recorrido completo del catálogo con cursor JDBC (requiere transacción abierta)
+    @Query("select p from Producto p left join fetch p.category order by p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Producto> streamAllByOrderByIdAsc();
 }
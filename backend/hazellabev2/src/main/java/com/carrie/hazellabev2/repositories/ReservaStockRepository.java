@@ -0,0 +1,38 @@
+package com.carrie.hazellabev2.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.carrie.hazellabev2.entities.ReservaStock;
+
+import jakarta.persistence.LockModeType;
+
+public interface ReservaStockRepository extends CrudRepository<ReservaStock, Long> {
+    Optional<ReservaStock> findByItemCarritoId(Long itemCarritoId);
+
+    // Con la fila bloqueada (select ... for update): dos reservas o liberaciones del mismo item
+    // se ejecutan una tras otra y la segunda ve la cantidad que dejó la primera
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ReservaStock r where r.itemCarritoId = :itemCarritoId")
+    Optional<ReservaStock> findBloqueadaByItemCarritoId(@Param("itemCarritoId") Long itemCarritoId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ReservaStock r where r.id = :id")
+    Optional<ReservaStock> findBloqueadaById(@Param("id") Long id);
+    List<ReservaStock> findByExpiraEnBeforeOrderByExpiraEnAsc(LocalDateTime fecha, Limit limit);
+    List<ReservaStock> findByExpiraEnBeforeAndIdNotInOrderByExpiraEnAsc(LocalDateTime fecha, Collection<Long> excluidas, Limit limit);
+
+    // Devuelve 0 si otra transacción ya eliminó la reserva: solo quien la elimina repone el stock
+    @Modifying
+    @Query("delete from ReservaStock r where r.id = :id")
+    int eliminarPorId(@Param("id") Long id);
+}
@@ -0,0 +1,50 @@
+package com.carrie.hazellabev2.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.entities.ReservaStock;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ReservaStockRepository;
+
+/**
+ * Un cliente solo opera sobre su propio carrito y sus reservas; los administradores, sobre cualquiera.
+ *
+ * Sin sesión (proteger-api=false, modo de transición del frontend) no hay con quién comparar y se deja
+ * pasar. Un item o reserva inexistente tampoco se rechaza aquí: el servicio responde que no existe.
+ */
+@Component
+public class AccesoCarrito {
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+
+    public void verificarUsuario(TokenService.Sesion sesion, Long usuarioId) {
+        if (sesion == null || sesion.esAdministrador()) {
+            return;
+        }
+        if (usuarioId == null || !usuarioId.equals(sesion.usuarioId())) {
+            throw new AccessDeniedException("El carrito pertenece a otro usuario.");
+        }
+    }
+
+    public void verificarItem(TokenService.Sesion sesion, Long itemCarritoId) {
+        if (sesion == null || sesion.esAdministrador()) {
+            return;
+        }
+        itemCarritoRepository.findUsuarioIdById(itemCarritoId).ifPresent(usuarioId -> verificarUsuario(sesion, usuarioId));
+    }
+
+    public void verificarReserva(TokenService.Sesion sesion, Long reservaId) {
+        if (sesion == null || sesion.esAdministrador()) {
+            return;
+        }
+        reservaStockRepository.findById(reservaId)
+                .map(ReservaStock::getItemCarritoId)
+                .ifPresent(itemCarritoId -> verificarItem(sesion, itemCarritoId));
+    }
+}
@@ -14,9 +14,14 @@ public class BlogServiceImpl implements BlogService {
     @Autowired
     private BlogRepository blogRepository;
 
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
     @Override
     public Blog crear(Blog blog) {
-        return blogRepository.save(blog);
+        Blog guardado = blogRepository.save(blog);
+        revisionCatalogo.incrementar(RevisionCatalogo.BLOGS);
+        return guardado;
     }
 
     @Override
@@ -30,7 +35,9 @@ public class BlogServiceImpl implements BlogService {
         Blog blogExistente = obtenerPorID(id);
         blogExistente.setTitle(blogActualizado.getTitle());
         blogExistente.setBody(blogActualizado.getBody());
-        return blogRepository.save(blogExistente);
+        Blog guardado = blogRepository.save(blogExistente);
+        revisionCatalogo.incrementar(RevisionCatalogo.BLOGS);
+        return guardado;
     }
 
     @Override
@@ -43,5 +50,6 @@ public class BlogServiceImpl implements BlogService {
         if (!blogRepository.existsById(id)) {
             throw new RuntimeException("Blog no encontrado");
         } blogRepository.deleteById(id);
+        revisionCatalogo.incrementar(RevisionCatalogo.BLOGS);
     }
 }
@@ -3,8 +3,13 @@ package com.carrie.hazellabev2.services;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
+import com.carrie.hazellabev2.config.CacheConfig;
 import com.carrie.hazellabev2.entities.Categoria;
 import com.carrie.hazellabev2.repositories.CategoriaRepository;
 
@@ -14,33 +19,54 @@ public class CategoriaServiceImpl implements CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
     @Override
+    @CachePut(cacheNames = CacheConfig.CATEGORIAS, key = "#result.id")
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIAS_LISTA, allEntries = true)
     public Categoria crear(Categoria categoria) {
-        return categoriaRepository.save(categoria);
+        Categoria guardada = categoriaRepository.save(categoria);
+        revisionCatalogo.incrementar(RevisionCatalogo.CATEGORIAS);
+        return guardada;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORIAS, key = "#id")
     public Categoria obtenerPorID(Long id) {
         return categoriaRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Categoría no encontrada."));
     };  
 
+    // Los productos en caché incluyen su categoría, por eso también se descartan
     @Override
+    @CachePut(cacheNames = CacheConfig.CATEGORIAS, key = "#id")
+    @CacheEvict(cacheNames = {CacheConfig.CATEGORIAS_LISTA, CacheConfig.PRODUCTOS, CacheConfig.PRODUCTOS_DESTACADOS,
+            CacheConfig.PRODUCTOS_POR_CATEGORIA, CacheConfig.PRODUCTOS_POR_ESTADO}, allEntries = true)
     public Categoria actualizar(Long id, Categoria categoriaActualizada) {
         Categoria categoriaExistente = obtenerPorID(id);
         categoriaExistente.setNombre(categoriaActualizada.getNombre());
-        return categoriaRepository.save(categoriaExistente);
+        Categoria guardada = categoriaRepository.save(categoriaExistente);
+        revisionCatalogo.incrementar(RevisionCatalogo.CATEGORIAS, RevisionCatalogo.PRODUCTOS);
+        return guardada;
     };
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORIAS_LISTA)
     public List<Categoria> listarTodo() {
         return (List<Categoria>) categoriaRepository.findAll();
     };
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CATEGORIAS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.CATEGORIAS_LISTA, CacheConfig.PRODUCTOS, CacheConfig.PRODUCTOS_DESTACADOS,
+                CacheConfig.PRODUCTOS_POR_CATEGORIA, CacheConfig.PRODUCTOS_POR_ESTADO}, allEntries = true)
+    })
     public void eliminar(Long id) {
         if (!categoriaRepository.existsById(id)) {
             throw new RuntimeException("Categoría no encontrada.");
         } categoriaRepository.deleteById(id);
+        revisionCatalogo.incrementar(RevisionCatalogo.CATEGORIAS, RevisionCatalogo.PRODUCTOS);
     };
 }
@@ -0,0 +1,14 @@
+package com.carrie.hazellabev2.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.carrie.hazellabev2.dto.ResultadoImportacionDTO;
+
+public interface ImportacionService {
+    ResultadoImportacionDTO importarCsv(InputStream entrada) throws IOException;
+    ResultadoImportacionDTO importarNdjson(InputStream entrada) throws IOException;
+    void exportarCsv(OutputStream salida) throws IOException;
+    void exportarNdjson(OutputStream salida) throws IOException;
+}
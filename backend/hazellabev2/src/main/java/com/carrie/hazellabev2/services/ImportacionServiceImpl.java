@@ -0,0 +1,499 @@
+package com.carrie.hazellabev2.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carrie.hazellabev2.dto.ErrorImportacionDTO;
+import com.carrie.hazellabev2.dto.ProductoImportacionDTO;
+import com.carrie.hazellabev2.dto.ResultadoImportacionDTO;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Importación masiva del catálogo: el archivo se lee fila a fila desde el cuerpo de la petición y las
+ * filas válidas se guardan en bloques de hazellab.importacion.lote, cada uno en su propia transacción
+ * con una sola consulta por batchCode y los INSERT/UPDATE agrupados en lotes JDBC. Un bloque que falla
+ * no deshace los anteriores: sus filas quedan en el reporte de errores.
+ */
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private MonitorStockCritico monitorStockCritico;
+
+    @Autowired
+    private RefrescoProductos refrescoProductos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${hazellab.importacion.lote:1000}")
+    private int tamanioBloque;
+
+    @Value("${hazellab.importacion.max-errores:1000}")
+    private int maxErrores;
+
+    @Value("${hazellab.vencimientos.zona:America/Santiago}")
+    private ZoneId zona;
+
+    private record Fila(long numero, ProductoImportacionDTO datos) {}
+
+    private record Bloque(List<Producto> guardados, int creados, int actualizados, List<ErrorImportacionDTO> rechazadas) {}
+
+    /* ---------------------------------- Importación ---------------------------------- */
+
+    @Override
+    public ResultadoImportacionDTO importarCsv(InputStream entrada) throws IOException {
+        LectorCsv lector = new LectorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<String> encabezado = lector.siguiente();
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo CSV está vacío.");
+        }
+        List<String> columnas = encabezado.stream().map(String::trim).toList();
+        List<String> desconocidas = columnas.stream()
+                .filter(columna -> !ProductoImportacionDTO.COLUMNAS.contains(columna))
+                .toList();
+        if (!desconocidas.isEmpty()) {
+            throw new IllegalArgumentException("Columnas desconocidas: " + String.join(", ", desconocidas)
+                    + ". Permitidas: " + String.join(", ", ProductoImportacionDTO.COLUMNAS));
+        }
+        if (!columnas.contains("batchCode")) {
+            throw new IllegalArgumentException("Falta la columna batchCode.");
+        }
+
+        Importacion importacion = new Importacion();
+        List<String> valores;
+        while ((valores = lector.siguiente()) != null) {
+            long numero = lector.getLineaRegistro();
+            if (valores.size() != columnas.size()) {
+                importacion.rechazar(numero, null, "Se esperaban " + columnas.size()
+                        + " columnas y la fila tiene " + valores.size() + ".");
+                continue;
+            }
+            // Una celda vacía es un campo ausente: no modifica el producto existente
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < columnas.size(); i++) {
+                String valor = valores.get(i).trim();
+                if (!valor.isEmpty()) {
+                    campos.put(columnas.get(i), valor);
+                }
+            }
+            try {
+                importacion.agregar(numero, objectMapper.convertValue(campos, ProductoImportacionDTO.class));
+            } catch (IllegalArgumentException e) {
+                importacion.rechazar(numero, campos.get("batchCode"), describir(e));
+            }
+        }
+        return importacion.terminar();
+    }
+
+    @Override
+    public ResultadoImportacionDTO importarNdjson(InputStream entrada) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        ObjectReader lectorJson = objectMapper.readerFor(ProductoImportacionDTO.class);
+
+        Importacion importacion = new Importacion();
+        long numero = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            // Cada línea se parsea por separado: una línea mal formada no impide leer las siguientes
+            try {
+                importacion.agregar(numero, lectorJson.readValue(linea));
+            } catch (JsonProcessingException e) {
+                importacion.rechazar(numero, null, describir(e));
+            }
+        }
+        return importacion.terminar();
+    }
+
+    // Estado de una importación en curso: bloque pendiente, categorías conocidas y resultado acumulado
+    private final class Importacion {
+
+        private final long inicio = System.nanoTime();
+        private final ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        private final List<Fila> pendientes = new ArrayList<>();
+        private final TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        private Map<String, Categoria> categorias;
+
+        void agregar(long numero, ProductoImportacionDTO datos) {
+            String error = validar(datos);
+            if (error != null) {
+                rechazar(numero, datos != null ? datos.getBatchCode() : null, error);
+                return;
+            }
+            datos.setBatchCode(datos.getBatchCode().trim());
+            pendientes.add(new Fila(numero, datos));
+            if (pendientes.size() >= tamanioBloque) {
+                guardarPendientes();
+            }
+        }
+
+        void rechazar(long numero, String batchCode, String mensaje) {
+            resultado.setConError(resultado.getConError() + 1);
+            if (resultado.getErrores().size() < maxErrores) {
+                resultado.getErrores().add(new ErrorImportacionDTO(numero, batchCode, mensaje));
+            }
+        }
+
+        ResultadoImportacionDTO terminar() {
+            if (!pendientes.isEmpty()) {
+                guardarPendientes();
+            }
+            resultado.setFilas(resultado.getCreados() + resultado.getActualizados() + resultado.getConError());
+            log.info("Importación de productos: {} filas, {} creados, {} actualizados, {} con error en {} ms",
+                    resultado.getFilas(), resultado.getCreados(), resultado.getActualizados(),
+                    resultado.getConError(), (System.nanoTime() - inicio) / 1_000_000);
+            return resultado;
+        }
+
+        private void guardarPendientes() {
+            List<Fila> filas = List.copyOf(pendientes);
+            pendientes.clear();
+            if (categorias == null) {
+                categorias = cargarCategorias();
+            }
+
+            Bloque bloque;
+            try {
+                bloque = transaccion.execute(estado -> guardarBloque(filas, categorias));
+            } catch (RuntimeException e) {
+                // El contexto de persistencia puede seguir abierto (open-in-view) con las entidades del bloque revertido
+                entityManager.clear();
+                log.warn("No se pudo guardar un bloque de {} productos importados", filas.size(), e);
+                for (Fila fila : filas) {
+                    rechazar(fila.numero(), fila.datos().getBatchCode(), "No se pudo guardar el bloque: " + e.getMessage());
+                }
+                return;
+            }
+
+            resultado.setCreados(resultado.getCreados() + bloque.creados());
+            resultado.setActualizados(resultado.getActualizados() + bloque.actualizados());
+            bloque.rechazadas().forEach(error -> rechazar(error.getFila(), error.getBatchCode(), error.getMensaje()));
+            refrescoProductos.refrescar(bloque.guardados().stream().map(Producto::getId).toList());
+        }
+    }
+
+    // Corre dentro de la transacción del bloque
+    private Bloque guardarBloque(List<Fila> filas, Map<String, Categoria> categorias) {
+        Set<String> lotes = filas.stream().map(fila -> fila.datos().getBatchCode()).collect(Collectors.toSet());
+        Map<String, List<Producto>> existentes = productoRepository.findByBatchCodeIn(lotes).stream()
+                .collect(Collectors.groupingBy(Producto::getBatchCode));
+
+        // Si el mismo lote aparece varias veces en el bloque, cada fila se aplica sobre la anterior
+        Map<String, Producto> porLote = new LinkedHashMap<>();
+        // Stock de cada lote existente según el bloque: el leído al cargarlo más los ajustes ya aplicados
+        Map<Long, Integer> stockConocido = new HashMap<>();
+        List<ErrorImportacionDTO> rechazadas = new ArrayList<>();
+        int creados = 0;
+        int actualizados = 0;
+        for (Fila fila : filas) {
+            ProductoImportacionDTO datos = fila.datos();
+            String lote = datos.getBatchCode();
+            List<Producto> previos = existentes.getOrDefault(lote, List.of());
+            if (previos.size() > 1) {
+                rechazadas.add(new ErrorImportacionDTO(fila.numero(), lote,
+                        "El lote está en " + previos.size() + " productos del catálogo; no se sabe cuál actualizar."));
+                continue;
+            }
+
+            Categoria categoria = null;
+            if (datos.getCategoria() != null && !datos.getCategoria().isBlank()) {
+                categoria = categorias.get(normalizar(datos.getCategoria()));
+                if (categoria == null) {
+                    rechazadas.add(new ErrorImportacionDTO(fila.numero(), lote,
+                            "La categoría '" + datos.getCategoria() + "' no existe."));
+                    continue;
+                }
+            }
+
+            Producto producto = porLote.get(lote);
+            boolean nuevo = producto == null && previos.isEmpty();
+            if (producto == null) {
+                producto = nuevo ? nuevoProducto() : previos.get(0);
+            }
+            // Se valida antes de tocar la entidad: una entidad administrada se escribiría igual al confirmar
+            String error = validarContra(producto, datos);
+            if (error != null) {
+                rechazadas.add(new ErrorImportacionDTO(fila.numero(), lote, error));
+                continue;
+            }
+            // En un lote existente la columna stock es el valor deseado: StockService aplica la diferencia sobre
+            // la fila bloqueada, así una reserva confirmada durante la importación no se pierde
+            if (producto.getId() != null && datos.getStock() != null) {
+                Long id = producto.getId();
+                int actual = stockConocido.getOrDefault(id, producto.getStock());
+                if (!stockService.ajustar(id, datos.getStock() - actual)) {
+                    rechazadas.add(new ErrorImportacionDTO(fila.numero(), lote,
+                            "El stock del lote cambió durante la importación y no alcanza para dejarlo en " + datos.getStock() + "."));
+                    continue;
+                }
+                stockConocido.put(id, datos.getStock());
+            }
+            aplicar(datos, producto, categoria);
+            porLote.put(lote, producto);
+            if (nuevo) {
+                creados++;
+            } else {
+                actualizados++;
+            }
+        }
+
+        List<Producto> guardados = new ArrayList<>();
+        productoRepository.saveAll(porLote.values()).forEach(guardados::add);
+        entityManager.flush();
+        // El monitor relee los niveles con las filas bloqueadas y los aplica al confirmar
+        monitorStockCritico.productosGuardados(guardados.stream().map(Producto::getId).toList());
+        // Sin esto el contexto de persistencia de la petición crecería con cada bloque
+        entityManager.clear();
+        return new Bloque(guardados, creados, actualizados, rechazadas);
+    }
+
+    /* ---------------------------------- Exportación ---------------------------------- */
+    // Mismo formato que la importación (categoría por nombre, fechas yyyy-MM-dd): el archivo exportado se puede reimportar
+
+    @Override
+    public void exportarCsv(OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escribirFilaCsv(escritor, ProductoImportacionDTO.COLUMNAS);
+        productoService.recorrerCatalogo(producto -> {
+            try {
+                escribirFilaCsv(escritor, valoresCsv(aFila(producto)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        escritor.flush();
+    }
+
+    @Override
+    public void exportarNdjson(OutputStream salida) throws IOException {
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin el espacio que Jackson pone entre valores raíz: cada línea empieza directamente con el objeto
+            generador.setRootValueSeparator(null);
+            productoService.recorrerCatalogo(producto -> {
+                try {
+                    generador.writeObject(aFila(producto));
+                    generador.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private Map<String, Categoria> cargarCategorias() {
+        Map<String, Categoria> categorias = new HashMap<>();
+        categoriaRepository.findAll().forEach(categoria -> categorias.put(normalizar(categoria.getNombre()), categoria));
+        return categorias;
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre == null ? "" : nombre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String validar(ProductoImportacionDTO datos) {
+        if (datos == null) {
+            return "La fila está vacía.";
+        }
+        if (datos.getBatchCode() == null || datos.getBatchCode().isBlank()) {
+            return "batchCode es obligatorio.";
+        }
+        if (datos.getCost() != null && datos.getCost() < 0) {
+            return "cost no puede ser negativo.";
+        }
+        if (datos.getStock() != null && datos.getStock() < 0) {
+            return "stock no puede ser negativo.";
+        }
+        if (datos.getStockCritico() != null && datos.getStockCritico() < 0) {
+            return "stockCritico no puede ser negativo.";
+        }
+        return null;
+    }
+
+    // Reglas que dependen de los valores que ya tiene el producto
+    private String validarContra(Producto producto, ProductoImportacionDTO datos) {
+        String nombre = datos.getName() != null ? datos.getName() : producto.getName();
+        if (nombre == null || nombre.isBlank()) {
+            return "name es obligatorio para un lote nuevo.";
+        }
+        LocalDate elaboracion = datos.getElabDate() != null ? datos.getElabDate() : aFecha(producto.getElabDate());
+        LocalDate vencimiento = datos.getExpDate() != null ? datos.getExpDate() : aFecha(producto.getExpDate());
+        if (elaboracion != null && vencimiento != null && vencimiento.isBefore(elaboracion)) {
+            return "expDate es anterior a elabDate.";
+        }
+        return null;
+    }
+
+    private static Producto nuevoProducto() {
+        Producto producto = new Producto();
+        producto.setActiveStatus(true);
+        producto.setDestacado(false);
+        producto.setCreationDate(LocalDateTime.now());
+        return producto;
+    }
+
+    private void aplicar(ProductoImportacionDTO datos, Producto producto, Categoria categoria) {
+        producto.setBatchCode(datos.getBatchCode());
+        asignar(datos.getName(), producto::setName);
+        asignar(datos.getDescription(), producto::setDescription);
+        asignar(datos.getChemCode(), producto::setChemCode);
+        asignar(datos.getElabDate(), fecha -> producto.setElabDate(aDate(fecha)));
+        asignar(datos.getExpDate(), fecha -> producto.setExpDate(aDate(fecha)));
+        asignar(datos.getCost(), producto::setCost);
+        // El stock de un lote ya guardado no se pisa: guardarBloque ya le aplicó la diferencia con StockService
+        if (producto.getId() == null) {
+            asignar(datos.getStock(), producto::setStock);
+        }
+        asignar(datos.getStockCritico(), producto::setStockCritico);
+        asignar(datos.getProveedor(), producto::setProveedor);
+        asignar(categoria, producto::setCategory);
+        asignar(datos.getImage(), producto::setImage);
+        asignar(datos.getActiveStatus(), producto::setActiveStatus);
+        asignar(datos.getDestacado(), producto::setDestacado);
+    }
+
+    private static <T> void asignar(T valor, Consumer<T> asignador) {
+        if (valor != null) {
+            asignador.accept(valor);
+        }
+    }
+
+    private ProductoImportacionDTO aFila(Producto producto) {
+        return new ProductoImportacionDTO(producto.getBatchCode(), producto.getName(), producto.getDescription(),
+                producto.getChemCode(), aFecha(producto.getElabDate()), aFecha(producto.getExpDate()),
+                producto.getCost(), producto.getStock(), producto.getStockCritico(), producto.getProveedor(),
+                producto.getCategory() != null ? producto.getCategory().getNombre() : null,
+                producto.getImage(), producto.getActiveStatus(), producto.getDestacado());
+    }
+
+    private static List<Object> valoresCsv(ProductoImportacionDTO fila) {
+        List<Object> valores = new ArrayList<>();
+        valores.add(fila.getBatchCode());
+        valores.add(fila.getName());
+        valores.add(fila.getDescription());
+        valores.add(fila.getChemCode());
+        valores.add(fila.getElabDate());
+        valores.add(fila.getExpDate());
+        valores.add(fila.getCost());
+        valores.add(fila.getStock());
+        valores.add(fila.getStockCritico());
+        valores.add(fila.getProveedor());
+        valores.add(fila.getCategoria());
+        valores.add(fila.getImage());
+        valores.add(fila.getActiveStatus());
+        valores.add(fila.getDestacado());
+        return valores;
+    }
+
+    private static void escribirFilaCsv(Writer escritor, List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            Object valor = valores.get(i);
+            if (valor == null) {
+                continue;
+            }
+            String texto = valor.toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                escritor.write('"');
+                escritor.write(texto.replace("\"", "\"\""));
+                escritor.write('"');
+            } else {
+                escritor.write(texto);
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    private Date aDate(LocalDate fecha) {
+        return Date.from(fecha.atStartOfDay(zona).toInstant());
+    }
+
+    // Hibernate puede devolver java.sql.Timestamp: se pasa por los milisegundos en vez de toInstant()
+    private LocalDate aFecha(Date fecha) {
+        return fecha == null ? null : Instant.ofEpochMilli(fecha.getTime()).atZone(zona).toLocalDate();
+    }
+
+    // Mensaje corto para el reporte: el campo con problemas en vez del detalle completo de Jackson
+    private static String describir(Exception e) {
+        Throwable causa = e instanceof JsonMappingException ? e : e.getCause();
+        if (causa instanceof JsonMappingException mapeo && !mapeo.getPath().isEmpty()) {
+            String campo = mapeo.getPath().get(mapeo.getPath().size() - 1).getFieldName();
+            if (campo != null) {
+                return "Valor inválido en " + campo + ".";
+            }
+        }
+        if (e instanceof JsonProcessingException json) {
+            return "JSON inválido: " + json.getOriginalMessage();
+        }
+        return "Fila con formato inválido.";
+    }
+}
@@ -0,0 +1,108 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+/**
+ * Índice en memoria de los lotes activos ordenados por fecha de vencimiento.
+ *
+ * Es un conjunto ordenado (fecha, id): los vencidos son siempre el comienzo del conjunto, así que
+ * el barrido recorre solo esos y corta en el primero que todavía no vence. Cuando no hay nada
+ * vencido el barrido termina sin consultar la base de datos.
+ */
+@Component
+public class IndiceVencimientos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceVencimientos.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private record Entrada(long venceMs, long id) {}
+
+    private final ConcurrentSkipListSet<Entrada> porFecha = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Entrada::venceMs).thenComparingLong(Entrada::id));
+    private final Map<Long, Entrada> porProducto = new ConcurrentHashMap<>();
+    private volatile boolean listo = false;
+
+    /* ---------------------------------- Construcción ---------------------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlIniciar() {
+        List<Object[]> filas = productoRepository.findVencimientosActivos();
+        synchronized (this) {
+            for (Object[] fila : filas) {
+                // Un cambio que llegó mientras se leía la base es más nuevo que la fila leída
+                Long id = (Long) fila[0];
+                if (!porProducto.containsKey(id)) {
+                    agregar(id, (Date) fila[1]);
+                }
+            }
+            listo = true;
+        }
+        log.info("Índice de vencimientos construido con {} lotes activos", porProducto.size());
+    }
+
+    // Solo se indexan lotes activos con fecha: los inactivos ya no los desactiva nadie
+    public synchronized void actualizar(Producto producto) {
+        if (producto == null || producto.getId() == null) {
+            return;
+        }
+        eliminar(producto.getId());
+        if (Boolean.TRUE.equals(producto.getActiveStatus()) && producto.getExpDate() != null) {
+            agregar(producto.getId(), producto.getExpDate());
+        }
+    }
+
+    public synchronized void eliminar(Long id) {
+        Entrada anterior = porProducto.remove(id);
+        if (anterior != null) {
+            porFecha.remove(anterior);
+        }
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public int tamanio() {
+        return porProducto.size();
+    }
+
+    /* ---------------------------------- Consultas ---------------------------------- */
+
+    // Ids con vencimiento <= fecha, de la fecha más antigua a la más nueva
+    public List<Long> vencidos(Date fecha, int limite) {
+        List<Long> ids = new ArrayList<>();
+        for (Entrada entrada : porFecha) {
+            if (entrada.venceMs() > fecha.getTime() || ids.size() >= limite) {
+                break;
+            }
+            ids.add(entrada.id());
+        }
+        return ids;
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private void agregar(Long id, Date vence) {
+        Entrada entrada = new Entrada(vence.getTime(), id);
+        porProducto.put(id, entrada);
+        porFecha.add(entrada);
+    }
+}
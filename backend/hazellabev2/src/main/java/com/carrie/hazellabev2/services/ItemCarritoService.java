@@ -2,6 +2,8 @@ package com.carrie.hazellabev2.services;
 
 import java.util.List;
 
+import com.carrie.hazellabev2.dto.CarritoVistaDTO;
+import com.carrie.hazellabev2.dto.OperacionCarritoDTO;
 import com.carrie.hazellabev2.entities.ItemCarrito;
 
 public interface ItemCarritoService {
@@ -13,4 +15,6 @@ public interface ItemCarritoService {
     /* ---------------------------------- Negocio ---------------------------------- */
     List<ItemCarrito> listarPorUsuario(Long usuarioId);
     ItemCarrito actualizarCantidad(Long id, int nuevaCantidad);
+    CarritoVistaDTO obtenerCarrito(Long usuarioId);
+    CarritoVistaDTO aplicarOperaciones(Long usuarioId, List<OperacionCarritoDTO> operaciones);
 }
@@ -1,12 +1,24 @@
 package com.carrie.hazellabev2.services;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.carrie.hazellabev2.dto.CarritoVistaDTO;
+import com.carrie.hazellabev2.dto.OperacionCarritoDTO;
 import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
 import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
 
 @Service
 
@@ -14,6 +26,18 @@ public class ItemCarritoServiceImpl implements ItemCarritoService {
     @Autowired
     private ItemCarritoRepository itemCarritoRepository;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
     @Override
     public ItemCarrito crear(ItemCarrito itemCarrito) {
         return itemCarritoRepository.save(itemCarrito);
@@ -38,10 +62,14 @@ public class ItemCarritoServiceImpl implements ItemCarritoService {
     };
 
     @Override
+    @Transactional
     public void eliminar(Long id) {
         if (!itemCarritoRepository.existsById(id)) {
             throw new RuntimeException("Item del carrito no encontrado.");
-        } itemCarritoRepository.deleteById(id);
+        }
+        // ✅ NUEVO: si el item tenía stock reservado se devuelve antes de quitarlo del carrito
+        stockService.liberarPorItem(id);
+        itemCarritoRepository.deleteById(id);
     };
 
     @Override
@@ -55,5 +83,104 @@ public class ItemCarritoServiceImpl implements ItemCarritoService {
             .orElseThrow(() -> new RuntimeException("Item no encontrado"));
         item.setQuantity(nuevaCantidad);
         return itemCarritoRepository.save(item);
-}
+    }
+
+    // ✅ NUEVO: vista del carrito en una sola consulta (items + producto + categoría)
+    @Override
+    public CarritoVistaDTO obtenerCarrito(Long usuarioId) {
+        CarritoVistaDTO carrito = CarritoVistaDTO.de(usuarioId, itemCarritoRepository.findVistaByUsuarioId(usuarioId));
+        metricasNegocio.registrarCarrito(carrito);
+        return carrito;
+    }
+
+    // ✅ NUEVO: aplica un lote de operaciones en una sola transacción; los INSERT/UPDATE/DELETE
+    // se envían agrupados al hacer flush (hibernate.jdbc.batch_size)
+    @Override
+    @Transactional
+    public CarritoVistaDTO aplicarOperaciones(Long usuarioId, List<OperacionCarritoDTO> operaciones) {
+        metricasNegocio.registrarLoteCarrito(operaciones.size());
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado."));
+
+        // Una línea por producto: si el carrito ya tenía duplicados se fusionan en la primera,
+        // que se queda también con el stock que tenían reservado
+        Map<Long, ItemCarrito> lineas = new LinkedHashMap<>();
+        List<ItemCarrito> eliminados = new ArrayList<>();
+        for (ItemCarrito item : itemCarritoRepository.findByUsuarioId(usuarioId)) {
+            ItemCarrito existente = lineas.putIfAbsent(item.getProducto().getId(), item);
+            if (existente != null) {
+                existente.setQuantity(existente.getQuantity() + item.getQuantity());
+                stockService.fusionarReserva(item.getId(), existente.getId());
+                eliminados.add(item);
+            }
+        }
+
+        Map<Long, Producto> productos = cargarProductos(operaciones, lineas);
+        for (OperacionCarritoDTO operacion : operaciones) {
+            if (operacion.getTipo() == null || operacion.getProductoId() == null) {
+                throw new RuntimeException("Operación de carrito incompleta.");
+            }
+            Long productoId = operacion.getProductoId();
+            ItemCarrito linea = lineas.get(productoId);
+            switch (operacion.getTipo()) {
+                case AGREGAR -> {
+                    if (operacion.getCantidad() <= 0) {
+                        throw new RuntimeException("La cantidad a agregar debe ser mayor a cero.");
+                    }
+                    if (linea == null) {
+                        lineas.put(productoId, new ItemCarrito(null, operacion.getCantidad(), productos.get(productoId), usuario));
+                    } else {
+                        linea.setQuantity(linea.getQuantity() + operacion.getCantidad());
+                    }
+                }
+                case FIJAR_CANTIDAD -> {
+                    if (operacion.getCantidad() <= 0) {
+                        quitarLinea(lineas, eliminados, productoId);
+                    } else if (linea == null) {
+                        lineas.put(productoId, new ItemCarrito(null, operacion.getCantidad(), productos.get(productoId), usuario));
+                    } else {
+                        linea.setQuantity(operacion.getCantidad());
+                    }
+                }
+                case ELIMINAR -> quitarLinea(lineas, eliminados, productoId);
+            }
+        }
+
+        // Las líneas quitadas devuelven su reserva de stock, igual que eliminar()
+        for (ItemCarrito item : eliminados) {
+            stockService.liberarPorItem(item.getId());
+        }
+        itemCarritoRepository.deleteAll(eliminados);
+        itemCarritoRepository.saveAll(lineas.values().stream().filter(item -> item.getId() == null).toList());
+
+        // La consulta de la vista fuerza el flush del lote antes de leer
+        return obtenerCarrito(usuarioId);
+    }
+
+    // Trae en una sola consulta los productos que el lote agrega y que aún no están en el carrito.
+    // Los que ya tienen línea reutilizan su Producto: el lote puede quitar la línea y volver a crearla
+    // (ELIMINAR y luego AGREGAR, o FIJAR_CANTIDAD 0 y luego AGREGAR)
+    private Map<Long, Producto> cargarProductos(List<OperacionCarritoDTO> operaciones, Map<Long, ItemCarrito> lineas) {
+        Set<Long> ids = new HashSet<>();
+        for (OperacionCarritoDTO operacion : operaciones) {
+            if (operacion.getTipo() != OperacionCarritoDTO.Tipo.ELIMINAR && operacion.getProductoId() != null
+                    && !lineas.containsKey(operacion.getProductoId())) {
+                ids.add(operacion.getProductoId());
+            }
+        }
+        Map<Long, Producto> productos = new LinkedHashMap<>();
+        productoRepository.findAllById(ids).forEach(producto -> productos.put(producto.getId(), producto));
+        if (productos.size() != ids.size()) {
+            throw new RuntimeException("Producto no encontrado.");
+        }
+        lineas.forEach((productoId, item) -> productos.put(productoId, item.getProducto()));
+        return productos;
+    }
+
+    private void quitarLinea(Map<Long, ItemCarrito> lineas, List<ItemCarrito> eliminados, Long productoId) {
+        ItemCarrito linea = lineas.remove(productoId);
+        if (linea != null && linea.getId() != null) {
+            eliminados.add(linea);
+        }
+    }
 }
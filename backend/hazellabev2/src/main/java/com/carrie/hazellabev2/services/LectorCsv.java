@@ -0,0 +1,92 @@
+package com.carrie.hazellabev2.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) que entrega un registro a la vez, sin cargar el archivo en memoria.
+ * Los campos van separados por coma y entre comillas dobles cuando contienen comas, comillas ("")
+ * o saltos de línea. Acepta fin de línea \n o \r\n, ignora el BOM inicial y salta las líneas vacías.
+ */
+final class LectorCsv {
+
+    private final BufferedReader entrada;
+    private long linea = 1;
+    private long lineaRegistro;
+    private boolean inicio = true;
+    private boolean fin = false;
+
+    LectorCsv(Reader entrada) {
+        this.entrada = entrada instanceof BufferedReader lector ? lector : new BufferedReader(entrada);
+    }
+
+    // Siguiente registro, o null al final del archivo
+    List<String> siguiente() throws IOException {
+        if (fin) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean conComillas = false;
+        lineaRegistro = linea;
+
+        int c;
+        while ((c = entrada.read()) != -1) {
+            if (inicio) {
+                inicio = false;
+                if (c == '\uFEFF') {
+                    continue;
+                }
+            }
+            if (entreComillas) {
+                if (c != '"') {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                    continue;
+                }
+                // "" dentro de comillas es una comilla literal; cualquier otra cosa cierra el campo
+                entrada.mark(1);
+                if (entrada.read() == '"') {
+                    campo.append('"');
+                } else {
+                    entrada.reset();
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+                conComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                linea++;
+                if (campos.isEmpty() && campo.length() == 0 && !conComillas) {
+                    lineaRegistro = linea;
+                    continue;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+        }
+
+        fin = true;
+        if (campos.isEmpty() && campo.length() == 0 && !conComillas) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Línea del archivo (desde 1) donde empieza el último registro leído
+    long getLineaRegistro() {
+        return lineaRegistro;
+    }
+}
@@ -0,0 +1,176 @@
+package com.carrie.hazellabev2.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Limita los intentos de login por email y por IP con cubetas de tokens en memoria.
+ *
+ * Se consulta antes de ir a la base de datos o a BCrypt, así un intento rechazado cuesta
+ * una lectura del mapa y un compareAndSet. La memoria está acotada con Caffeine: pasado el máximo de
+ * claves se descartan las menos usadas (cada email/IP conserva siempre su propia cubeta), y una cubeta
+ * sin accesos durante el tiempo de recarga completa expira, porque ya equivaldría a una nueva.
+ */
+@Component
+public class LimitadorLogin {
+
+    @Value("${hazellab.login.limite.email.capacidad:5}")
+    private int capacidadEmail;
+
+    @Value("${hazellab.login.limite.email.por-minuto:5}")
+    private int porMinutoEmail;
+
+    @Value("${hazellab.login.limite.ip.capacidad:20}")
+    private int capacidadIp;
+
+    @Value("${hazellab.login.limite.ip.por-minuto:60}")
+    private int porMinutoIp;
+
+    @Value("${hazellab.login.limite.max-claves:100000}")
+    private int maxClaves;
+
+    private Cubetas porEmail;
+    private Cubetas porIp;
+
+    private final LongAdder permitidos = new LongAdder();
+    private final LongAdder rechazosEmail = new LongAdder();
+    private final LongAdder rechazosIp = new LongAdder();
+
+    @PostConstruct
+    void inicializar() {
+        porEmail = new Cubetas(capacidadEmail, porMinutoEmail, maxClaves);
+        porIp = new Cubetas(capacidadIp, porMinutoIp, maxClaves);
+    }
+
+    /**
+     * Consume un intento para la IP y para el email. Devuelve 0 si se permite,
+     * o los segundos que hay que esperar antes de reintentar.
+     */
+    public long intentar(String email, String ip) {
+        long ahora = System.nanoTime();
+        long esperaIp = porIp.consumir(ip == null ? "" : ip, ahora);
+        if (esperaIp > 0) {
+            rechazosIp.increment();
+            return aSegundos(esperaIp);
+        }
+        long esperaEmail = porEmail.consumir(normalizarEmail(email), ahora);
+        if (esperaEmail > 0) {
+            rechazosEmail.increment();
+            return aSegundos(esperaEmail);
+        }
+        permitidos.increment();
+        return 0;
+    }
+
+    // Un login correcto devuelve al usuario su cupo completo
+    public void registrarExito(String email) {
+        porEmail.olvidar(normalizarEmail(email));
+    }
+
+    @Scheduled(fixedDelayString = "${hazellab.login.limite.purga-ms:60000}")
+    public void purgarInactivas() {
+        long ahora = System.nanoTime();
+        porEmail.purgar(ahora);
+        porIp.purgar(ahora);
+    }
+
+    /* ---------------------------------- Métricas ---------------------------------- */
+
+    public long getPermitidos() {
+        return permitidos.sum();
+    }
+
+    public long getRechazosPorEmail() {
+        return rechazosEmail.sum();
+    }
+
+    public long getRechazosPorIp() {
+        return rechazosIp.sum();
+    }
+
+    public long getClavesEmail() {
+        return porEmail.tamanio();
+    }
+
+    public long getClavesIp() {
+        return porIp.tamanio();
+    }
+
+    private static String normalizarEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long aSegundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    /* ---------------------------------- Cubetas ---------------------------------- */
+
+    // Estado inmutable de una cubeta: se reemplaza completo con compareAndSet, sin locks
+    record Estado(double tokens, long instante) {}
+
+    static final class Cubetas {
+        private final Cache<String, AtomicReference<Estado>> cubetas;
+        private final double capacidad;
+        private final double tokensPorNano;
+
+        Cubetas(int capacidad, int porMinuto, int maxClaves) {
+            this.capacidad = capacidad;
+            this.tokensPorNano = porMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+            // Desalojo en el hilo que escribe: el tamaño queda acotado sin depender del pool común
+            this.cubetas = Caffeine.newBuilder()
+                    .maximumSize(maxClaves)
+                    .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacidad / tokensPorNano)))
+                    .executor(Runnable::run)
+                    .build();
+        }
+
+        // Devuelve 0 si había un token disponible, o los nanosegundos hasta que lo haya
+        long consumir(String clave, long ahora) {
+            AtomicReference<Estado> cubeta = cubetas.get(clave, k -> new AtomicReference<>(new Estado(capacidad, ahora)));
+
+            while (true) {
+                Estado actual = cubeta.get();
+                double tokens = recargar(actual, ahora);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPorNano);
+                }
+                if (cubeta.compareAndSet(actual, new Estado(tokens - 1, Math.max(ahora, actual.instante())))) {
+                    return 0;
+                }
+            }
+        }
+
+        void olvidar(String clave) {
+            cubetas.invalidate(clave);
+        }
+
+        // Una cubeta que ya se recargó entera equivale a una nueva: se puede descartar
+        void purgar(long ahora) {
+            cubetas.asMap().values().removeIf(cubeta -> recargar(cubeta.get(), ahora) >= capacidad);
+            cubetas.cleanUp();
+        }
+
+        long tamanio() {
+            cubetas.cleanUp();
+            return cubetas.estimatedSize();
+        }
+
+        private double recargar(Estado estado, long ahora) {
+            long transcurrido = Math.max(0, ahora - estado.instante());
+            return Math.min(capacidad, estado.tokens() + transcurrido * tokensPorNano);
+        }
+    }
+}
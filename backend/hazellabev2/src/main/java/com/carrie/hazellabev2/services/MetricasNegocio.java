@@ -0,0 +1,67 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.dto.CarritoVistaDTO;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas propias de la aplicación. Los medidores se registran una sola vez al crear el bean,
+ * así en el camino de cada petición solo se suma a un contador ya existente, sin buscar en el
+ * registro ni armar etiquetas.
+ */
+@Component
+public class MetricasNegocio {
+
+    private final Timer verificacionPasswordValida;
+    private final Timer verificacionPasswordInvalida;
+    private final DistributionSummary lineasCarrito;
+    private final DistributionSummary unidadesCarrito;
+    private final DistributionSummary operacionesLote;
+
+    public MetricasNegocio(MeterRegistry registry) {
+        verificacionPasswordValida = timerVerificacion(registry, "valida");
+        verificacionPasswordInvalida = timerVerificacion(registry, "invalida");
+        lineasCarrito = DistributionSummary.builder("hazellab.carrito.lineas")
+                .description("Líneas del carrito al consultarlo")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100.0)
+                .register(registry);
+        unidadesCarrito = DistributionSummary.builder("hazellab.carrito.unidades")
+                .description("Unidades totales del carrito al consultarlo")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(registry);
+        operacionesLote = DistributionSummary.builder("hazellab.carrito.lote.operaciones")
+                .description("Operaciones por lote de carrito")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100.0)
+                .register(registry);
+    }
+
+    private static Timer timerVerificacion(MeterRegistry registry, String resultado) {
+        return Timer.builder("hazellab.bcrypt.verificacion")
+                .description("Tiempo de verificación de contraseñas con BCrypt (incluye la espera en el pool)")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void registrarVerificacionPassword(long nanos, boolean valida) {
+        (valida ? verificacionPasswordValida : verificacionPasswordInvalida).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarCarrito(CarritoVistaDTO carrito) {
+        lineasCarrito.record(carrito.getItems().size());
+        unidadesCarrito.record(carrito.getCantidadTotal());
+    }
+
+    public void registrarLoteCarrito(int operaciones) {
+        operacionesLote.record(operaciones);
+    }
+}
@@ -0,0 +1,189 @@
+package com.carrie.hazellabev2.services;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.carrie.hazellabev2.dto.AlertaStockDTO;
+import com.carrie.hazellabev2.dto.NivelStockDTO;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Conjunto en memoria de los productos con stock <= stockCritico.
+ *
+ * Se carga una vez al arrancar y después solo se reevalúa el producto cuyo stock cambió: quien
+ * modifica el stock avisa con stockModificado() dentro de su transacción y el cambio se aplica al
+ * confirmarla (si se revierte, el conjunto queda como estaba). Cada aviso lleva una marca tomada
+ * mientras la transacción tiene bloqueada la fila del producto (después del UPDATE de stock, o de la
+ * lectura con select ... for update en los guardados), así que dos commits del mismo producto que
+ * terminan en distinto orden no dejan el estado del más viejo.
+ *
+ * Las transiciones (ENTRO / SALIO) se entregan a los suscriptores desde un hilo propio para que
+ * un cliente lento no demore al que modificó el stock.
+ */
+@Component
+public class MonitorStockCritico {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorStockCritico.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private final Map<Long, NivelStockDTO> criticos = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ultimaMarca = new ConcurrentHashMap<>();
+    private final AtomicLong marcas = new AtomicLong();
+    private final List<Consumer<AlertaStockDTO>> suscriptores = new CopyOnWriteArrayList<>();
+    private final ExecutorService despacho = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "alertas-stock");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /* ---------------------------------- Carga inicial ---------------------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        List<NivelStockDTO> niveles = productoRepository.findNivelesCriticos();
+        synchronized (this) {
+            for (NivelStockDTO nivel : niveles) {
+                // Si ya llegó un aviso para el producto, ese es más nuevo que esta lectura
+                if (!ultimaMarca.containsKey(nivel.getProductoId())) {
+                    criticos.put(nivel.getProductoId(), nivel);
+                }
+            }
+        }
+        log.info("Monitor de stock crítico iniciado con {} productos bajo su umbral", criticos.size());
+    }
+
+    /* ---------------------------------- Avisos de cambio ---------------------------------- */
+
+    // Se llama dentro de la transacción que modificó el stock, después del UPDATE: la fila sigue bloqueada
+    public void stockModificado(Long productoId) {
+        long marca = marcas.incrementAndGet();
+        NivelStockDTO nivel = productoRepository.findNivelStockById(productoId).orElse(null);
+        alConfirmar(() -> aplicar(productoId, nivel, marca));
+    }
+
+    public void productoGuardado(Producto producto) {
+        productosGuardados(List.of(producto.getId()));
+    }
+
+    // El nivel no sale de la entidad guardada, cuyo stock pudo cambiar desde que se leyó: se relee de la
+    // base con las filas bloqueadas (la consulta vacía antes el UPDATE pendiente) y recién ahí se toma la marca.
+    // Sin transacción el guardado ya se confirmó y basta con leer la fila.
+    public void productosGuardados(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, NivelStockDTO> niveles = new HashMap<>();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            productoRepository.findNivelesStockParaActualizar(ids).forEach(nivel -> niveles.put(nivel.getProductoId(), nivel));
+        } else {
+            ids.forEach(id -> productoRepository.findNivelStockById(id).ifPresent(nivel -> niveles.put(id, nivel)));
+        }
+        long marca = marcas.incrementAndGet();
+        alConfirmar(() -> ids.forEach(id -> aplicar(id, niveles.get(id), marca)));
+    }
+
+    public void productoEliminado(Long productoId) {
+        long marca = marcas.incrementAndGet();
+        alConfirmar(() -> aplicar(productoId, null, marca));
+    }
+
+    /* ---------------------------------- Consultas y suscripción ---------------------------------- */
+
+    public Set<Long> idsCriticos() {
+        return Set.copyOf(criticos.keySet());
+    }
+
+    public List<NivelStockDTO> getCriticos() {
+        return criticos.values().stream()
+                .sorted(Comparator.comparing(NivelStockDTO::getProductoId))
+                .toList();
+    }
+
+    public int cantidadCriticos() {
+        return criticos.size();
+    }
+
+    // Devuelve la acción que cancela la suscripción
+    public Runnable suscribir(Consumer<AlertaStockDTO> suscriptor) {
+        suscriptores.add(suscriptor);
+        return () -> suscriptores.remove(suscriptor);
+    }
+
+    @PreDestroy
+    public void detener() {
+        despacho.shutdownNow();
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // nivel null: el producto ya no existe
+    private synchronized void aplicar(Long productoId, NivelStockDTO nivel, long marca) {
+        Long anterior = ultimaMarca.get(productoId);
+        if (anterior != null && anterior > marca) {
+            return;
+        }
+        ultimaMarca.put(productoId, marca);
+
+        boolean critico = nivel != null && nivel.esCritico();
+        NivelStockDTO previo = critico ? criticos.put(productoId, nivel) : criticos.remove(productoId);
+        if (critico == (previo != null)) {
+            return;
+        }
+        NivelStockDTO datos = nivel != null ? nivel : previo;
+        publicar(new AlertaStockDTO(critico ? AlertaStockDTO.ENTRO : AlertaStockDTO.SALIO,
+                productoId, nivel != null ? nivel.getStock() : 0, datos.getStockCritico(), LocalDateTime.now()));
+    }
+
+    private void publicar(AlertaStockDTO alerta) {
+        if (suscriptores.isEmpty()) {
+            return;
+        }
+        despacho.execute(() -> {
+            for (Consumer<AlertaStockDTO> suscriptor : suscriptores) {
+                try {
+                    suscriptor.accept(alerta);
+                } catch (RuntimeException e) {
+                    log.debug("No se pudo entregar la alerta de stock a un suscriptor", e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.carrie.hazellabev2.services;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON Merge Patch (RFC 7396) sobre una entidad ya cargada: solo se asignan los campos presentes
+ * en el parche y un null borra el valor. Junto con @DynamicUpdate, el UPDATE resultante lleva
+ * únicamente las columnas que cambiaron.
+ */
+final class ParcheJson {
+
+    private ParcheJson() {
+    }
+
+    // Copia del parche para que cada servicio pueda retirar los campos que trata aparte
+    static ObjectNode copiar(JsonNode parche) {
+        if (parche == null || !parche.isObject()) {
+            throw new IllegalArgumentException("El parche debe ser un objeto JSON.");
+        }
+        return ((ObjectNode) parche).deepCopy();
+    }
+
+    static void aplicar(ObjectMapper objectMapper, Object destino, ObjectNode campos, Set<String> permitidos) {
+        campos.fieldNames().forEachRemaining(campo -> {
+            if (!permitidos.contains(campo)) {
+                throw new IllegalArgumentException("El campo '" + campo + "' no existe o no se puede modificar.");
+            }
+        });
+        try {
+            // null en un campo numérico no tiene valor que "borrar": se rechaza en vez de dejarlo en 0
+            objectMapper.readerForUpdating(destino)
+                    .with(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+                    .readValue(campos);
+        } catch (JsonMappingException e) {
+            String campo = e.getPath().isEmpty() ? null : e.getPath().get(e.getPath().size() - 1).getFieldName();
+            throw new IllegalArgumentException(campo != null ? "Valor inválido en " + campo + "." : "Parche inválido.");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Parche inválido.");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.carrie.hazellabev2.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+/**
+ * Índice invertido en memoria para la búsqueda de productos.
+ *
+ * Cada palabra de name, chemCode, batchCode y description se descompone en trigramas
+ * (para búsquedas por subcadena) y en sus prefijos de 1 y 2 letras (para términos cortos).
+ * Las consultas se resuelven intersectando listas de ids y nunca tocan la base de datos.
+ */
+@Component
+public class ProductoSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoSearchIndex.class);
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final String PREFIJO = "^";
+
+    // Peso de cada campo en el ranking, en el mismo orden que Documento.campos
+    private static final int[] PESOS = {4, 3, 3, 1};
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Documento> documentos = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean listo = false;
+
+    private record Documento(Producto producto, String[][] campos, Set<String> gramas, String nombre) {}
+
+    private record Resultado(Producto producto, int terminos, int puntaje) {}
+
+    /* ---------------------------------- Construcción ---------------------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlIniciar() {
+        long inicio = System.nanoTime();
+        reconstruir(productoRepository.findAll());
+        log.info("Índice de búsqueda construido con {} productos en {} ms",
+                tamanio(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public void reconstruir(Iterable<Producto> productos) {
+        Map<Long, Documento> nuevosDocumentos = new HashMap<>();
+        Map<String, Set<Long>> nuevosPostings = new HashMap<>();
+        for (Producto producto : productos) {
+            if (producto.getId() == null) {
+                continue;
+            }
+            Documento documento = crearDocumento(producto);
+            nuevosDocumentos.put(producto.getId(), documento);
+            agregarPostings(nuevosPostings, producto.getId(), documento.gramas());
+        }
+
+        lock.writeLock().lock();
+        try {
+            documentos = nuevosDocumentos;
+            postings = nuevosPostings;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexar(Producto producto) {
+        if (producto == null || producto.getId() == null) {
+            return;
+        }
+        Documento documento = crearDocumento(producto);
+        lock.writeLock().lock();
+        try {
+            Documento anterior = documentos.put(producto.getId(), documento);
+            if (anterior != null) {
+                quitarPostings(producto.getId(), anterior.gramas());
+            }
+            agregarPostings(postings, producto.getId(), documento.gramas());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            Documento anterior = documentos.remove(id);
+            if (anterior != null) {
+                quitarPostings(id, anterior.gramas());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ---------------------------------- Búsqueda ---------------------------------- */
+
+    /**
+     * Busca productos cuyo texto contenga alguno de los términos de la consulta.
+     * Se ordena primero por cantidad de términos encontrados y luego por puntaje
+     * (coincidencia exacta de palabra > prefijo > subcadena, ponderado por campo).
+     * categoriaId y activo son filtros opcionales.
+     */
+    public List<Producto> buscar(String consulta, Long categoriaId, Boolean activo, int limite) {
+        List<String> terminos = new ArrayList<>(new LinkedHashSet<>(palabras(consulta)));
+        List<Resultado> resultados = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (terminos.isEmpty()) {
+                for (Documento documento : documentos.values()) {
+                    if (cumpleFiltros(documento.producto(), categoriaId, activo)) {
+                        resultados.add(new Resultado(documento.producto(), 0, 0));
+                    }
+                }
+            } else {
+                Map<Long, int[]> acumulado = new HashMap<>();
+                for (String termino : terminos) {
+                    for (Long id : candidatos(termino)) {
+                        Documento documento = documentos.get(id);
+                        if (documento == null || !cumpleFiltros(documento.producto(), categoriaId, activo)) {
+                            continue;
+                        }
+                        int puntaje = puntuar(documento, termino);
+                        if (puntaje > 0) {
+                            int[] total = acumulado.computeIfAbsent(id, k -> new int[2]);
+                            total[0]++;
+                            total[1] += puntaje;
+                        }
+                    }
+                }
+                acumulado.forEach((id, total) ->
+                        resultados.add(new Resultado(documentos.get(id).producto(), total[0], total[1])));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return resultados.stream()
+                .sorted(Comparator.comparingInt(Resultado::terminos).reversed()
+                        .thenComparing(Comparator.comparingInt(Resultado::puntaje).reversed())
+                        .thenComparing(r -> Objects.toString(r.producto().getName(), "")))
+                .limit(Math.max(limite, 0))
+                .map(Resultado::producto)
+                .toList();
+    }
+
+    /**
+     * Productos cuyo nombre contiene el texto, sin distinguir mayúsculas ni tildes: el contrato de
+     * los filtros LIKE por nombre. Los candidatos salen de los trigramas de las palabras de 3 o más
+     * letras y se confirman contra el nombre; un texto sin palabras así recorre los documentos.
+     * Ordenados por id, como los devolvía la consulta.
+     */
+    public List<Producto> buscarPorNombre(String nombre, Long categoriaId, Boolean activo) {
+        String buscado = normalizar(nombre);
+        List<String> terminos = palabras(nombre).stream().filter(palabra -> palabra.length() >= 3).distinct().toList();
+        List<Producto> productos = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = terminos.isEmpty() ? documentos.keySet() : null;
+            for (String termino : terminos) {
+                Set<Long> candidatos = candidatos(termino);
+                if (ids == null) {
+                    ids = new HashSet<>(candidatos);
+                } else {
+                    ids.retainAll(candidatos);
+                }
+            }
+            for (Long id : ids) {
+                Documento documento = documentos.get(id);
+                if (documento != null && documento.nombre() != null && documento.nombre().contains(buscado)
+                        && cumpleFiltros(documento.producto(), categoriaId, activo)) {
+                    productos.add(documento.producto());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        productos.sort(Comparator.comparing(Producto::getId));
+        return productos;
+    }
+
+    // Debe llamarse con el read lock tomado
+    private Set<Long> candidatos(String termino) {
+        if (termino.length() < 3) {
+            return postings.getOrDefault(PREFIJO + termino, Set.of());
+        }
+
+        // Se intersecta partiendo por la lista más corta para acotar el trabajo
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(termino)) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> interseccion = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !interseccion.isEmpty(); i++) {
+            interseccion.retainAll(listas.get(i));
+        }
+        return interseccion;
+    }
+
+    // Los trigramas pueden dar falsos positivos ("abcxbcd" contiene abc y bcd), por eso se verifica
+    private int puntuar(Documento documento, String termino) {
+        int puntaje = 0;
+        for (int i = 0; i < documento.campos().length; i++) {
+            int mejor = 0;
+            for (String palabra : documento.campos()[i]) {
+                if (palabra.equals(termino)) {
+                    mejor = 3;
+                    break;
+                } else if (palabra.startsWith(termino)) {
+                    mejor = Math.max(mejor, 2);
+                } else if (termino.length() >= 3 && palabra.contains(termino)) {
+                    mejor = Math.max(mejor, 1);
+                }
+            }
+            puntaje += mejor * PESOS[i];
+        }
+        return puntaje;
+    }
+
+    private static boolean cumpleFiltros(Producto producto, Long categoriaId, Boolean activo) {
+        if (categoriaId != null && (producto.getCategory() == null
+                || !categoriaId.equals(producto.getCategory().getId()))) {
+            return false;
+        }
+        return activo == null || activo.equals(producto.getActiveStatus());
+    }
+
+    /* ---------------------------------- Tokenización ---------------------------------- */
+
+    private static Documento crearDocumento(Producto producto) {
+        String[][] campos = {
+            palabras(producto.getName()).toArray(String[]::new),
+            palabras(producto.getChemCode()).toArray(String[]::new),
+            palabras(producto.getBatchCode()).toArray(String[]::new),
+            palabras(producto.getDescription()).toArray(String[]::new)
+        };
+
+        Set<String> gramas = new HashSet<>();
+        for (String[] campo : campos) {
+            for (String palabra : campo) {
+                gramas.add(PREFIJO + palabra.substring(0, 1));
+                if (palabra.length() >= 2) {
+                    gramas.add(PREFIJO + palabra.substring(0, 2));
+                }
+                gramas.addAll(trigramas(palabra));
+            }
+        }
+        return new Documento(producto, campos, gramas,
+                producto.getName() != null ? normalizar(producto.getName()) : null);
+    }
+
+    static List<String> palabras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(normalizar(texto))) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    // Minúsculas y sin tildes, conservando espacios y signos
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> trigramas(String palabra) {
+        List<String> trigramas = new ArrayList<>();
+        for (int i = 0; i + 3 <= palabra.length(); i++) {
+            trigramas.add(palabra.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    private static void agregarPostings(Map<String, Set<Long>> destino, Long id, Set<String> gramas) {
+        for (String grama : gramas) {
+            destino.computeIfAbsent(grama, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    // Debe llamarse con el write lock tomado
+    private void quitarPostings(Long id, Set<String> gramas) {
+        for (String grama : gramas) {
+            Set<Long> ids = postings.get(grama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(grama);
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.carrie.hazellabev2.services;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.carrie.hazellabev2.dto.ProductoPaginaDTO;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
 import com.carrie.hazellabev2.entities.Producto;
+import com.fasterxml.jackson.databind.JsonNode;
 
 public interface ProductoService {
     /* ---------------------------------- CRUD simple ---------------------------------- */
     Producto crear(Producto producto);
     Producto obtenerPorID(Long id);    
     Producto actualizar(Long id, Producto productoActualizado);
+    Producto parchar(Long id, JsonNode parche);
     List<Producto> listarTodo();
     void eliminar(Long id);
 
@@ -18,10 +23,20 @@ public interface ProductoService {
     List<Producto> listarDestacados();
     
     /* ---------------------------------- FILTROS Y BÚSQUEDA ---------------------------------- */
+    List<Producto> buscar(String consulta, Long categoriaId, Boolean activo, int limite);
     List<Producto> buscarPorNombre(String nombre);
     List<Producto> buscarPorCategoria(Long categoriaId);
     List<Producto> buscarProductosStockBajo();
     List<Producto> buscarPorEstado(Boolean activo);
     List<Producto> buscarPorNombreYCategoria(String nombre, Long categoriaId);
     List<Producto> buscarPorNombreYEstado(String nombre, Boolean activo);
+
+    /* ---------------------------------- PAGINACIÓN ---------------------------------- */
+    List<Producto> listarPagina(int pagina, int limite);
+    ProductoPaginaDTO listarDesde(Long cursor, int limite);
+    void recorrerCatalogo(Consumer<Producto> consumidor);
+
+    /* ---------------------------------- VISTA DE TARJETA ---------------------------------- */
+    List<ProductoTarjetaDTO> listarTarjetas(int pagina, int limite);
+    List<ProductoTarjetaDTO> listarTarjetasDestacadas();
 }
\ No newline at end of file
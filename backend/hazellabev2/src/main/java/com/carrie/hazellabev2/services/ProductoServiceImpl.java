@@ -1,32 +1,102 @@
 package com.carrie.hazellabev2.services;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.carrie.hazellabev2.config.CacheConfig;
+import com.carrie.hazellabev2.dto.ProductoPaginaDTO;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
+import com.carrie.hazellabev2.entities.Categoria;
 import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
 import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ProductoServiceImpl implements ProductoService {
+
+    // Campos que acepta PATCH; category va aparte porque se resuelve por id y el stock no se
+    // acepta: solo cambia con StockService, sobre la fila bloqueada
+    private static final Set<String> CAMPOS_PARCHE = Set.of("name", "batchCode", "description", "chemCode",
+            "expDate", "elabDate", "cost", "stockCritico", "proveedor", "image", "activeStatus", "destacado");
     
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoSearchIndex searchIndex;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private MonitorStockCritico monitorStockCritico;
+
+    @Autowired
+    private IndiceVencimientos indiceVencimientos;
+
+    @Autowired
+    private RefrescoProductos refrescoProductos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /* ---------------------------------- CRUD simple ---------------------------------- */
+    // Las escrituras reemplazan la entrada del producto en caché, descartan las listas
+    // (destacados, por categoría, por estado), que pueden haber cambiado de contenido,
+    // y avanzan la revisión del catálogo que usan los ETag de los listados. En las transaccionales
+    // todo eso (y los índices en memoria) espera al commit: si se revierten, nada queda publicado.
+    // Las que modifican un producto existente leen y guardan en la misma transacción: la entidad
+    // queda administrada, save() no vuelve a leerla y el UPDATE lleva solo las columnas cambiadas.
+    // Ninguna escribe el stock de un producto existente: se pisaría una reserva confirmada entre
+    // la lectura y el UPDATE. Los ajustes van por /api/stock/productos/{id}/reponer o /descontar.
+
     @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCTOS, key = "#result.id")
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTOS_DESTACADOS, CacheConfig.PRODUCTOS_POR_CATEGORIA, CacheConfig.PRODUCTOS_POR_ESTADO}, allEntries = true)
     public Producto crear(Producto producto) {
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        searchIndex.indexar(guardado);
+        monitorStockCritico.productoGuardado(guardado);
+        indiceVencimientos.actualizar(guardado);
+        revisionCatalogo.incrementar(RevisionCatalogo.PRODUCTOS);
+        return guardado;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS, key = "#id")
     public Producto obtenerPorID(Long id) {
         return productoRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Producto no encontrado."));
     }    
 
     @Override
+    @Transactional
     public Producto actualizar(Long id, Producto productoActualizado) {
         Producto productoExistente = obtenerPorID(id);
 
@@ -37,7 +107,7 @@ public class ProductoServiceImpl implements ProductoService {
         productoExistente.setExpDate(productoActualizado.getExpDate());
         productoExistente.setElabDate(productoActualizado.getElabDate());
         productoExistente.setCost(productoActualizado.getCost());
-        productoExistente.setStock(productoActualizado.getStock());
+        // El stock del cuerpo se ignora: se ajusta con StockService
         productoExistente.setCategory(productoActualizado.getCategory());
         productoExistente.setImage(productoActualizado.getImage());
         productoExistente.setActiveStatus(productoActualizado.getActiveStatus());
@@ -49,7 +119,31 @@ public class ProductoServiceImpl implements ProductoService {
         
         // creationDate NO se actualiza - es automático
         
-        return productoRepository.save(productoExistente);
+        Producto guardado = productoRepository.save(productoExistente);
+        monitorStockCritico.productoGuardado(guardado);
+        refrescoProductos.refrescar(id);
+        return guardado;
+    }
+
+    // JSON Merge Patch: solo cambian los campos presentes en el parche
+    @Override
+    @Transactional
+    public Producto parchar(Long id, JsonNode parche) {
+        Producto producto = obtenerPorID(id);
+        ObjectNode campos = ParcheJson.copiar(parche);
+        if (campos.has("stock")) {
+            throw new IllegalArgumentException("El stock se ajusta con /api/stock/productos/" + id + "/reponer o /descontar.");
+        }
+        JsonNode categoria = campos.remove("category");
+        ParcheJson.aplicar(objectMapper, producto, campos, CAMPOS_PARCHE);
+        if (categoria != null) {
+            producto.setCategory(resolverCategoria(categoria));
+        }
+
+        Producto guardado = productoRepository.save(producto);
+        monitorStockCritico.productoGuardado(guardado);
+        refrescoProductos.refrescar(id);
+        return guardado;
     }
 
     @Override
@@ -58,62 +152,187 @@ public class ProductoServiceImpl implements ProductoService {
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.PRODUCTOS_DESTACADOS, CacheConfig.PRODUCTOS_POR_CATEGORIA, CacheConfig.PRODUCTOS_POR_ESTADO}, allEntries = true)
+    })
     public void eliminar(Long id) {
         if (!productoRepository.existsById(id)) {
             throw new RuntimeException("Producto no encontrado.");
         } 
         productoRepository.deleteById(id);
+        searchIndex.eliminar(id);
+        monitorStockCritico.productoEliminado(id);
+        indiceVencimientos.eliminar(id);
+        revisionCatalogo.incrementar(RevisionCatalogo.PRODUCTOS);
     }
 
     /* ---------------------------------- Negocio ---------------------------------- */
     @Override
+    @Transactional
     public Producto desactivar(Long id) {
         Producto producto = obtenerPorID(id);
         producto.setActiveStatus(false);
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        refrescoProductos.refrescar(id);
+        return guardado;
     }
 
     @Override
+    @Transactional
     public Producto actualizarImagen(Long id, String imageUrl) {
         Producto producto = obtenerPorID(id);
         producto.setImage(imageUrl);
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        monitorStockCritico.productoGuardado(guardado);
+        refrescoProductos.refrescar(id);
+        return guardado;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS_DESTACADOS)
     public List<Producto> listarDestacados() {
         return productoRepository.findByDestacadoTrue();
     }
 
     /* ---------------------------------- FILTROS Y BÚSQUEDA ---------------------------------- */
+    // La búsqueda combinada (/buscar) y los filtros por nombre (/buscar/nombre, /buscar/avanzada) usan
+    // el índice en memoria y, mientras se construye al arrancar la aplicación, responden con las
+    // consultas LIKE. Los filtros por nombre mantienen su contrato de subcadena en el nombre.
+
+    @Override
+    public List<Producto> buscar(String consulta, Long categoriaId, Boolean activo, int limite) {
+        if (searchIndex.isListo()) {
+            return searchIndex.buscar(consulta, categoriaId, activo, limite);
+        }
+
+        List<Producto> productos;
+        if (consulta == null || consulta.isBlank()) {
+            productos = categoriaId != null ? productoRepository.findByCategoryId(categoriaId)
+                    : activo != null ? productoRepository.findByActiveStatus(activo)
+                    : listarTodo();
+        } else if (categoriaId != null) {
+            productos = productoRepository.findByNameContainingIgnoreCaseAndCategoryId(consulta, categoriaId);
+        } else if (activo != null) {
+            productos = productoRepository.findByNameContainingIgnoreCaseAndActiveStatus(consulta, activo);
+        } else {
+            productos = productoRepository.findByNameContainingIgnoreCase(consulta);
+        }
+        return productos.stream()
+                .filter(p -> categoriaId == null || (p.getCategory() != null && categoriaId.equals(p.getCategory().getId())))
+                .filter(p -> activo == null || activo.equals(p.getActiveStatus()))
+                .limit(limite)
+                .toList();
+    }
     
     @Override
     public List<Producto> buscarPorNombre(String nombre) {
+        if (searchIndex.isListo()) {
+            return searchIndex.buscarPorNombre(nombre, null, null);
+        }
         return productoRepository.findByNameContainingIgnoreCase(nombre);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, key = "#categoriaId")
     public List<Producto> buscarPorCategoria(Long categoriaId) {
         return productoRepository.findByCategoryId(categoriaId);
     }
 
+    // Los ids salen del monitor en memoria (stock <= stockCritico): solo se leen esas filas por clave primaria
     @Override
     public List<Producto> buscarProductosStockBajo() {
-        return productoRepository.findByStockLessThan(5); // Stock < 5 unidades
+        Set<Long> ids = monitorStockCritico.idsCriticos();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Producto> productos = new ArrayList<>();
+        productoRepository.findAllById(ids).forEach(productos::add);
+        productos.sort(Comparator.comparing(Producto::getId));
+        return productos;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS_POR_ESTADO, key = "#activo")
     public List<Producto> buscarPorEstado(Boolean activo) {
         return productoRepository.findByActiveStatus(activo);
     }
 
     @Override
     public List<Producto> buscarPorNombreYCategoria(String nombre, Long categoriaId) {
+        if (searchIndex.isListo()) {
+            return searchIndex.buscarPorNombre(nombre, categoriaId, null);
+        }
         return productoRepository.findByNameContainingIgnoreCaseAndCategoryId(nombre, categoriaId);
     }
 
     @Override
     public List<Producto> buscarPorNombreYEstado(String nombre, Boolean activo) {
+        if (searchIndex.isListo()) {
+            return searchIndex.buscarPorNombre(nombre, null, activo);
+        }
         return productoRepository.findByNameContainingIgnoreCaseAndActiveStatus(nombre, activo);
     }
-}
\ No newline at end of file
+
+    /* ---------------------------------- PAGINACIÓN ---------------------------------- */
+
+    @Override
+    public List<Producto> listarPagina(int pagina, int limite) {
+        return productoRepository.findAllByOrderByIdAsc(PageRequest.of(pagina, limite));
+    }
+
+    @Override
+    public ProductoPaginaDTO listarDesde(Long cursor, int limite) {
+        // Se pide un registro extra solo para saber si existe una página siguiente
+        List<Producto> productos = productoRepository.findByIdGreaterThanOrderByIdAsc(
+            cursor != null ? cursor : 0L, Limit.of(limite + 1));
+
+        Long siguiente = null;
+        if (productos.size() > limite) {
+            productos = productos.subList(0, limite);
+            siguiente = productos.get(limite - 1).getId();
+        }
+        return new ProductoPaginaDTO(productos, siguiente, limite);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerCatalogo(Consumer<Producto> consumidor) {
+        // Cada fila se libera del contexto de persistencia apenas se consume,
+        // así la memoria usada no crece con el tamaño del catálogo
+        try (Stream<Producto> productos = productoRepository.streamAllByOrderByIdAsc()) {
+            productos.forEach(producto -> {
+                consumidor.accept(producto);
+                entityManager.detach(producto);
+            });
+        }
+    }
+
+    /* ---------------------------------- VISTA DE TARJETA ---------------------------------- */
+    // Proyecciones sin entidades: no pasan por el contexto de persistencia ni por la caché de productos
+
+    @Override
+    public List<ProductoTarjetaDTO> listarTarjetas(int pagina, int limite) {
+        return productoRepository.findTarjetasByOrderByIdAsc(PageRequest.of(pagina, limite));
+    }
+
+    @Override
+    public List<ProductoTarjetaDTO> listarTarjetasDestacadas() {
+        return productoRepository.findTarjetasDestacadas();
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    // En el parche la categoría va como {"id": n} o null para quitarla
+    private Categoria resolverCategoria(JsonNode categoria) {
+        if (categoria.isNull()) {
+            return null;
+        }
+        JsonNode id = categoria.get("id");
+        if (id == null || !id.canConvertToLong()) {
+            throw new IllegalArgumentException("category debe ser null o un objeto con id.");
+        }
+        return categoriaRepository.findById(id.asLong())
+                .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada."));
+    }
+}
@@ -0,0 +1,114 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carrie.hazellabev2.config.CacheConfig;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+/**
+ * Copias derivadas de los productos: la entrada de la caché por id, los listados cacheados
+ * (destacados, por categoría, por estado), el índice de búsqueda, el de vencimientos y la revisión
+ * del catálogo. Los cambios que no pasan por las anotaciones de caché de ProductoService (edición,
+ * stock, vencimientos, importación) las refrescan aquí.
+ *
+ * Dentro de una transacción todo espera al commit: si se revierte, nada queda publicado. Los productos
+ * se releen en una transacción nueva, con el valor ya confirmado y sin depender del contexto de
+ * persistencia de quien hizo el cambio, que puede tener un stock anterior.
+ */
+@Component
+public class RefrescoProductos {
+
+    private static final List<String> LISTADOS = List.of(CacheConfig.PRODUCTOS_DESTACADOS,
+            CacheConfig.PRODUCTOS_POR_CATEGORIA, CacheConfig.PRODUCTOS_POR_ESTADO);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoSearchIndex searchIndex;
+
+    @Autowired
+    private IndiceVencimientos indiceVencimientos;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Sin transacción (llamada directa o después de confirmar) se refresca enseguida
+    public void refrescar(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copia = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refrescarAhora(copia);
+                }
+            });
+        } else {
+            refrescarAhora(copia);
+        }
+        // Se registra después: la revisión sube cuando ya no quedan listados viejos, así quien
+        // revalide con el ETag nuevo no los vuelve a cachear
+        revisionCatalogo.incrementar(RevisionCatalogo.PRODUCTOS);
+    }
+
+    public void refrescar(Long id) {
+        refrescar(List.of(id));
+    }
+
+    private void refrescarAhora(List<Long> ids) {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        lectura.setReadOnly(true);
+        Map<Long, Producto> actuales = new HashMap<>();
+        lectura.executeWithoutResult(estado ->
+                productoRepository.findAllById(ids).forEach(producto -> actuales.put(producto.getId(), producto)));
+
+        Cache productos = cacheManager.getCache(CacheConfig.PRODUCTOS);
+        for (String listado : LISTADOS) {
+            Cache cache = cacheManager.getCache(listado);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        // Un id que ya no está se quita de todas partes: se eliminó mientras tanto
+        for (Long id : ids) {
+            Producto actual = actuales.get(id);
+            if (actual != null) {
+                if (productos != null) {
+                    productos.put(id, actual);
+                }
+                searchIndex.indexar(actual);
+                indiceVencimientos.actualizar(actual);
+            } else {
+                if (productos != null) {
+                    productos.evict(id);
+                }
+                searchIndex.eliminar(id);
+                indiceVencimientos.eliminar(id);
+            }
+        }
+    }
+}
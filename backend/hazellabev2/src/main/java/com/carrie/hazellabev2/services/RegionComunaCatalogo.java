@@ -0,0 +1,212 @@
+package com.carrie.hazellabev2.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.carrie.hazellabev2.dto.ComunaSugerenciaDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Regiones y comunas de Chile cargadas una sola vez desde data/regiones-comunas.json.
+ *
+ * Todo es inmutable después del constructor: las respuestas JSON quedan serializadas en bytes
+ * con su ETag, y el autocompletado busca por prefijo con búsqueda binaria sobre un arreglo ordenado.
+ */
+@Component
+public class RegionComunaCatalogo {
+
+    private static final String RECURSO = "data/regiones-comunas.json";
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Se usa un ObjectMapper propio: el catálogo no depende del contexto de Spring (sirve igual en pruebas unitarias)
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Respuesta ya serializada junto con su ETag fuerte. */
+    public record Recurso(byte[] json, String etag) {}
+
+    private record Entrada(String clave, String comuna, String region, boolean inicio) {}
+
+    private final Map<String, List<String>> regionesComunas;
+    private final List<String> regiones;
+    private final Map<String, String> regionPorClave = new HashMap<>();
+    private final Map<String, Map<String, String>> comunasPorRegion = new HashMap<>();
+    private final Entrada[] indice;
+    private final String[] claves;
+
+    private final Recurso recursoRegionesComunas;
+    private final Recurso recursoRegiones;
+    private final Map<String, Recurso> recursoComunas = new HashMap<>();
+    private final Recurso recursoVacio;
+
+    public RegionComunaCatalogo() {
+        Map<String, List<String>> datos = leerRecurso();
+
+        Map<String, List<String>> copia = new LinkedHashMap<>();
+        datos.forEach((region, comunas) -> copia.put(region, List.copyOf(comunas)));
+        this.regionesComunas = Collections.unmodifiableMap(copia);
+        this.regiones = List.copyOf(copia.keySet());
+
+        List<Entrada> entradas = new ArrayList<>();
+        for (Map.Entry<String, List<String>> region : regionesComunas.entrySet()) {
+            regionPorClave.put(normalizar(region.getKey()), region.getKey());
+            Map<String, String> comunas = new HashMap<>();
+            for (String comuna : region.getValue()) {
+                String clave = normalizar(comuna);
+                comunas.put(clave, comuna);
+                // Se indexa cada palabra como inicio posible: "maipo" encuentra "San José de Maipo"
+                String[] palabras = clave.split(" ");
+                for (int i = 0; i < palabras.length; i++) {
+                    String sufijo = String.join(" ", Arrays.copyOfRange(palabras, i, palabras.length));
+                    entradas.add(new Entrada(sufijo, comuna, region.getKey(), i == 0));
+                }
+            }
+            comunasPorRegion.put(region.getKey(), comunas);
+            recursoComunas.put(region.getKey(), serializar(region.getValue()));
+        }
+        entradas.sort(Comparator.comparing(Entrada::clave));
+        this.indice = entradas.toArray(Entrada[]::new);
+        this.claves = entradas.stream().map(Entrada::clave).toArray(String[]::new);
+
+        this.recursoRegionesComunas = serializar(regionesComunas);
+        this.recursoRegiones = serializar(regiones);
+        this.recursoVacio = serializar(List.of());
+    }
+
+    /* ---------------------------------- Consultas ---------------------------------- */
+
+    public Map<String, List<String>> getRegionesComunas() {
+        return regionesComunas;
+    }
+
+    public List<String> getRegiones() {
+        return regiones;
+    }
+
+    public List<String> getComunas(String region) {
+        return regionesComunas.getOrDefault(region, List.of());
+    }
+
+    public Recurso getRecursoRegionesComunas() {
+        return recursoRegionesComunas;
+    }
+
+    public Recurso getRecursoRegiones() {
+        return recursoRegiones;
+    }
+
+    public Recurso getRecursoComunas(String region) {
+        return recursoComunas.getOrDefault(region, recursoVacio);
+    }
+
+    /* ---------------------------------- Validación ---------------------------------- */
+
+    // Nombre oficial de la región, sin importar mayúsculas, tildes ni espacios; null si no existe
+    public String regionOficial(String region) {
+        return region == null ? null : regionPorClave.get(normalizar(region));
+    }
+
+    // Nombre oficial de la comuna dentro de la región indicada; null si no pertenece a ella
+    public String comunaOficial(String region, String comuna) {
+        String oficial = regionOficial(region);
+        if (oficial == null || comuna == null) {
+            return null;
+        }
+        return comunasPorRegion.get(oficial).get(normalizar(comuna));
+    }
+
+    /* ---------------------------------- Autocompletado ---------------------------------- */
+
+    /**
+     * Comunas cuyo nombre (o alguna de sus palabras) comienza con el texto, ignorando tildes y mayúsculas.
+     * Primero las que coinciden desde el inicio del nombre, luego el resto, cada grupo en orden alfabético.
+     */
+    public List<ComunaSugerenciaDTO> buscarComunas(String texto, int limite) {
+        String prefijo = normalizar(texto);
+        if (prefijo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        // Primer índice cuya clave es >= prefijo; desde ahí las coincidencias son contiguas
+        int desde = Arrays.binarySearch(claves, prefijo);
+        if (desde < 0) {
+            desde = -desde - 1;
+        }
+
+        List<Entrada> inicio = new ArrayList<>();
+        List<Entrada> medio = new ArrayList<>();
+        for (int i = desde; i < indice.length && indice[i].clave().startsWith(prefijo); i++) {
+            (indice[i].inicio() ? inicio : medio).add(indice[i]);
+        }
+
+        Set<String> vistos = new HashSet<>();
+        Set<ComunaSugerenciaDTO> resultado = new LinkedHashSet<>();
+        for (List<Entrada> grupo : List.of(inicio, medio)) {
+            grupo.sort(Comparator.comparing((Entrada e) -> normalizar(e.comuna())).thenComparing(Entrada::region));
+            for (Entrada entrada : grupo) {
+                if (resultado.size() >= limite) {
+                    return List.copyOf(resultado);
+                }
+                if (vistos.add(entrada.region() + "|" + entrada.comuna())) {
+                    resultado.add(new ComunaSugerenciaDTO(entrada.comuna(), entrada.region()));
+                }
+            }
+        }
+        return List.copyOf(resultado);
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("");
+        return ESPACIOS.matcher(sinTildes.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private static Map<String, List<String>> leerRecurso() {
+        try (InputStream entrada = new ClassPathResource(RECURSO).getInputStream()) {
+            return MAPPER.readValue(entrada, new TypeReference<LinkedHashMap<String, List<String>>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + RECURSO, e);
+        }
+    }
+
+    private static Recurso serializar(Object valor) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(valor);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Recurso(json, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Número de revisión por recurso del catálogo (productos, categorías, blogs). Cada escritura lo
+ * incrementa y las lecturas lo usan como ETag débil y Last-Modified: si el cliente manda el mismo
+ * ETag se responde 304 sin consultar la base ni serializar el cuerpo.
+ *
+ * El ETag incluye el instante de arranque, así un ETag de antes de un reinicio (o de otra
+ * instancia) nunca coincide por casualidad con una revisión distinta; en ese caso solo se
+ * responde 200 completo.
+ */
+@Component
+public class RevisionCatalogo {
+
+    public static final String PRODUCTOS = "productos";
+    public static final String CATEGORIAS = "categorias";
+    public static final String BLOGS = "blogs";
+
+    private record Revision(long numero, long modificadaMs) {}
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final long inicioMs = truncarASegundos(System.currentTimeMillis());
+    private final Map<String, AtomicReference<Revision>> revisiones = new ConcurrentHashMap<>();
+
+    // Dentro de una transacción se incrementa recién después del commit: antes, una lectura
+    // concurrente obtendría los datos anteriores con el ETag nuevo
+    public void incrementar(String... recursos) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementarAhora(recursos);
+                }
+            });
+        } else {
+            incrementarAhora(recursos);
+        }
+    }
+
+    public String etag(String recurso) {
+        return etag(recurso, revision(recurso).get());
+    }
+
+    public long ultimaModificacion(String recurso) {
+        return revision(recurso).get().modificadaMs();
+    }
+
+    /**
+     * Compara If-None-Match / If-Modified-Since con la revisión actual. Si no cambió deja la
+     * respuesta en 304 y devuelve true; si cambió agrega ETag y Last-Modified a la respuesta.
+     */
+    public boolean noModificado(WebRequest request, String recurso) {
+        Revision actual = revision(recurso).get();
+        return request.checkNotModified(etag(recurso, actual), actual.modificadaMs());
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private String etag(String recurso, Revision revision) {
+        return "W/\"" + recurso + "-" + arranque + "-" + revision.numero() + "\"";
+    }
+
+    private AtomicReference<Revision> revision(String recurso) {
+        return revisiones.computeIfAbsent(recurso, k -> new AtomicReference<>(new Revision(0, inicioMs)));
+    }
+
+    // Last-Modified tiene resolución de segundos: cada revisión avanza al menos un segundo para que
+    // dos cambios seguidos no compartan fecha y un cliente con solo If-Modified-Since no reciba 304 de más
+    private void incrementarAhora(String... recursos) {
+        long ahora = System.currentTimeMillis();
+        for (String recurso : recursos) {
+            revision(recurso).updateAndGet(anterior -> new Revision(anterior.numero() + 1,
+                    Math.max(truncarASegundos(ahora), anterior.modificadaMs() + 1000)));
+        }
+    }
+
+    private static long truncarASegundos(long ms) {
+        return ms / 1000 * 1000;
+    }
+}
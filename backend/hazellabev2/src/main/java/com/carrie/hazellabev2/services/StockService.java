@@ -0,0 +1,20 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.List;
+
+import com.carrie.hazellabev2.entities.ReservaStock;
+
+public interface StockService {
+    /* ---------------------------------- Operaciones atómicas ---------------------------------- */
+    void descontar(Long productoId, int cantidad);
+    void reponer(Long productoId, int cantidad);
+    boolean ajustar(Long productoId, int diferencia);
+    /* ---------------------------------- Reservas ---------------------------------- */
+    ReservaStock reservar(Long itemCarritoId);
+    List<ReservaStock> reservarCarrito(Long usuarioId);
+    void confirmar(Long reservaId);
+    void liberar(Long reservaId);
+    void liberarPorItem(Long itemCarritoId);
+    void fusionarReserva(Long itemOrigenId, Long itemDestinoId);
+    int liberarExpiradas();
+}
@@ -0,0 +1,298 @@
+package com.carrie.hazellabev2.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.ReservaStock;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.ReservaStockRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * El stock se modifica sobre la entidad releída con su fila bloqueada (select ... for update), así dos
+ * reservas concurrentes sobre el mismo producto nunca se pisan ni dejan stock negativo, y el bloqueo
+ * dura lo que dura una transacción corta. Al ser un UPDATE de la entidad, la caché de segundo nivel
+ * invalida solo ese producto; un UPDATE masivo en HQL vaciaría la región completa.
+ */
+@Service
+public class StockServiceImpl implements StockService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockServiceImpl.class);
+    private static final int LOTE_EXPIRADAS = 500;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MonitorStockCritico monitorStockCritico;
+
+    @Autowired
+    private RefrescoProductos refrescoProductos;
+
+    @Value("${hazellab.stock.reserva-minutos:15}")
+    private long minutosReserva;
+
+    /* ---------------------------------- Operaciones atómicas ---------------------------------- */
+
+    @Override
+    @Transactional
+    public void descontar(Long productoId, int cantidad) {
+        validarCantidad(cantidad);
+        Producto producto = bloquear(productoId);
+        if (producto == null) {
+            throw new RuntimeException("Producto no encontrado.");
+        }
+        if (producto.getStock() < cantidad) {
+            throw new RuntimeException("Stock insuficiente para el producto " + productoId + ".");
+        }
+        producto.setStock(producto.getStock() - cantidad);
+        monitorStockCritico.stockModificado(productoId);
+        refrescoProductos.refrescar(productoId);
+    }
+
+    @Override
+    @Transactional
+    public void reponer(Long productoId, int cantidad) {
+        validarCantidad(cantidad);
+        Producto producto = bloquear(productoId);
+        if (producto == null) {
+            throw new RuntimeException("Producto no encontrado.");
+        }
+        producto.setStock(producto.getStock() + cantidad);
+        monitorStockCritico.stockModificado(productoId);
+        refrescoProductos.refrescar(productoId);
+    }
+
+    // Suma o resta sin lanzar excepción: false si el producto no existe o no alcanza el stock,
+    // para que quien llama (la importación) rechace su fila sin deshacer el resto de la transacción
+    @Override
+    @Transactional
+    public boolean ajustar(Long productoId, int diferencia) {
+        if (diferencia == 0) {
+            return true;
+        }
+        Producto producto = bloquear(productoId);
+        if (producto == null || producto.getStock() + diferencia < 0) {
+            return false;
+        }
+        producto.setStock(producto.getStock() + diferencia);
+        monitorStockCritico.stockModificado(productoId);
+        refrescoProductos.refrescar(productoId);
+        return true;
+    }
+
+    /* ---------------------------------- Reservas ---------------------------------- */
+
+    @Override
+    @Transactional
+    public ReservaStock reservar(Long itemCarritoId) {
+        ItemCarrito item = itemCarritoRepository.findById(itemCarritoId)
+            .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado."));
+        return reservarItem(item);
+    }
+
+    @Override
+    @Transactional
+    public List<ReservaStock> reservarCarrito(Long usuarioId) {
+        // Todas las líneas se reservan en una transacción: si alguna no tiene stock no se aparta nada.
+        // Se recorren ordenadas por producto para que dos carritos bloqueen filas en el mismo orden.
+        List<ItemCarrito> items = new ArrayList<>(itemCarritoRepository.findByUsuarioId(usuarioId));
+        items.sort(Comparator.comparing(item -> item.getProducto().getId()));
+
+        List<ReservaStock> reservas = new ArrayList<>();
+        for (ItemCarrito item : items) {
+            reservas.add(reservarItem(item));
+        }
+        return reservas;
+    }
+
+    @Override
+    @Transactional
+    public void confirmar(Long reservaId) {
+        // Al confirmar la compra el stock ya descontado queda vendido: solo se borra la reserva
+        if (reservaStockRepository.eliminarPorId(reservaId) == 0) {
+            throw new RuntimeException("Reserva no encontrada o expirada.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void liberar(Long reservaId) {
+        ReservaStock reserva = reservaStockRepository.findBloqueadaById(reservaId)
+            .orElseThrow(() -> new RuntimeException("Reserva no encontrada."));
+        liberarReserva(reserva);
+    }
+
+    @Override
+    @Transactional
+    public void liberarPorItem(Long itemCarritoId) {
+        reservaStockRepository.findBloqueadaByItemCarritoId(itemCarritoId).ifPresent(this::liberarReserva);
+    }
+
+    // Al fusionar dos líneas del mismo producto la reserva de la que desaparece pasa a la que queda:
+    // el stock ya apartado sigue apartado, sin devolverlo al inventario ni volver a descontarlo
+    @Override
+    @Transactional
+    public void fusionarReserva(Long itemOrigenId, Long itemDestinoId) {
+        // Se bloquean en orden de item para que dos fusiones cruzadas no se esperen mutuamente
+        ReservaStock origen;
+        ReservaStock destino;
+        if (itemOrigenId < itemDestinoId) {
+            origen = reservaStockRepository.findBloqueadaByItemCarritoId(itemOrigenId).orElse(null);
+            destino = reservaStockRepository.findBloqueadaByItemCarritoId(itemDestinoId).orElse(null);
+        } else {
+            destino = reservaStockRepository.findBloqueadaByItemCarritoId(itemDestinoId).orElse(null);
+            origen = reservaStockRepository.findBloqueadaByItemCarritoId(itemOrigenId).orElse(null);
+        }
+        if (origen == null) {
+            return;
+        }
+        if (destino == null) {
+            origen.setItemCarritoId(itemDestinoId);
+            reservaStockRepository.save(origen);
+            return;
+        }
+        destino.setCantidad(destino.getCantidad() + origen.getCantidad());
+        if (origen.getExpiraEn().isAfter(destino.getExpiraEn())) {
+            destino.setExpiraEn(origen.getExpiraEn());
+        }
+        reservaStockRepository.save(destino);
+        reservaStockRepository.eliminarPorId(origen.getId());
+    }
+
+    @Override
+    public int liberarExpiradas() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int liberadas = 0;
+        // Las que fallan se saltan en las lecturas siguientes: si no, la más vieja bloquearía el barrido
+        Set<Long> fallidas = new HashSet<>();
+        List<ReservaStock> expiradas;
+        do {
+            expiradas = fallidas.isEmpty()
+                ? reservaStockRepository.findByExpiraEnBeforeOrderByExpiraEnAsc(LocalDateTime.now(), Limit.of(LOTE_EXPIRADAS))
+                : reservaStockRepository.findByExpiraEnBeforeAndIdNotInOrderByExpiraEnAsc(
+                    LocalDateTime.now(), fallidas, Limit.of(LOTE_EXPIRADAS));
+            // Una transacción por reserva para no retener bloqueos de varios productos a la vez. Se relee
+            // bloqueada: si entre tanto se volvió a reservar, su cantidad y su vencimiento son otros
+            for (ReservaStock reserva : expiradas) {
+                try {
+                    if (Boolean.TRUE.equals(transaccion.execute(estado -> reservaStockRepository.findBloqueadaById(reserva.getId())
+                            .filter(actual -> actual.getExpiraEn().isBefore(LocalDateTime.now()))
+                            .map(this::liberarReserva)
+                            .orElse(false)))) {
+                        liberadas++;
+                    }
+                } catch (RuntimeException e) {
+                    fallidas.add(reserva.getId());
+                    log.warn("No se pudo liberar la reserva expirada {} del producto {}",
+                        reserva.getId(), reserva.getProductoId(), e);
+                }
+            }
+        } while (expiradas.size() == LOTE_EXPIRADAS);
+        return liberadas;
+    }
+
+    @Scheduled(fixedDelayString = "${hazellab.stock.barrido-reservas-ms:60000}")
+    public void barrerReservasExpiradas() {
+        int liberadas = liberarExpiradas();
+        if (liberadas > 0) {
+            log.info("Se liberaron {} reservas de stock expiradas", liberadas);
+        }
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private ReservaStock reservarItem(ItemCarrito item) {
+        Long productoId = item.getProducto().getId();
+        // Bloqueada: sin esto dos reservas concurrentes del mismo item calculan la misma diferencia y la
+        // descuentan dos veces (la restricción única solo cubre la primera inserción)
+        ReservaStock reserva = reservaStockRepository.findBloqueadaByItemCarritoId(item.getId())
+            .orElseGet(() -> new ReservaStock(null, productoId, item.getId(), 0, null));
+
+        // Si el item ya tenía reserva solo se aparta (o devuelve) la diferencia
+        int diferencia = item.getQuantity() - reserva.getCantidad();
+        reserva.setCantidad(item.getQuantity());
+        reserva.setExpiraEn(LocalDateTime.now().plusMinutes(minutosReserva));
+        ReservaStock guardada = reservaStockRepository.save(reserva);
+
+        // El UPDATE del stock va al final para que el bloqueo de la fila dure lo menos posible
+        if (diferencia > 0) {
+            descontar(productoId, diferencia);
+        } else if (diferencia < 0) {
+            reponer(productoId, -diferencia);
+        }
+        return guardada;
+    }
+
+    // La reserva llega leída con su fila bloqueada, así que la cantidad a reponer es la vigente
+    private boolean liberarReserva(ReservaStock reserva) {
+        if (reservaStockRepository.eliminarPorId(reserva.getId()) == 0) {
+            return false;
+        }
+        if (reserva.getCantidad() > 0) {
+            // Si el producto se eliminó no hay stock que devolver: basta con borrar la reserva
+            Producto producto = bloquear(reserva.getProductoId());
+            if (producto == null) {
+                log.warn("La reserva {} apartaba stock del producto {}, que ya no existe; se elimina sin reponer",
+                    reserva.getId(), reserva.getProductoId());
+            } else {
+                producto.setStock(producto.getStock() + reserva.getCantidad());
+                monitorStockCritico.stockModificado(reserva.getProductoId());
+                refrescoProductos.refrescar(reserva.getProductoId());
+            }
+        }
+        return true;
+    }
+
+    // Relee el producto con su fila bloqueada (select ... for update) aunque ya estuviera en el contexto de
+    // persistencia, por ejemplo como producto del item del carrito: el stock que se ajusta es el vigente.
+    // Los cambios pendientes se escriben antes porque refresh los descartaría
+    private Producto bloquear(Long productoId) {
+        Producto producto = entityManager.find(Producto.class, productoId);
+        if (producto == null) {
+            return null;
+        }
+        entityManager.flush();
+        entityManager.refresh(producto, LockModeType.PESSIMISTIC_WRITE);
+        return producto;
+    }
+
+    private void validarCantidad(int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a cero.");
+        }
+    }
+}
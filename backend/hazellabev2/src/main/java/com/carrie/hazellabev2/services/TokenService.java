@@ -0,0 +1,25 @@
+package com.carrie.hazellabev2.services;
+
+import java.util.Optional;
+
+import com.carrie.hazellabev2.entities.Usuario;
+
+public interface TokenService {
+    // Datos que viajan firmados dentro del token: con esto basta para autorizar sin ir a la base de datos
+    record Sesion(Long usuarioId, String email, String role) {
+        public boolean esAdministrador() {
+            return "admin".equals(role) || "super_admin".equals(role);
+        }
+    }
+
+    String TIPO_ACCESO = "acceso";
+    String TIPO_REFRESCO = "refresco";
+
+    /* ---------------------------------- Emisión ---------------------------------- */
+    String generarAcceso(Usuario usuario);
+    String generarRefresco(Usuario usuario);
+    long getDuracionAccesoSegundos();
+    /* ---------------------------------- Validación ---------------------------------- */
+    Optional<Sesion> validarAcceso(String token);
+    Optional<Sesion> validarRefresco(String token);
+}
@@ -0,0 +1,166 @@
+package com.carrie.hazellabev2.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.carrie.hazellabev2.entities.Usuario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tokens firmados con HMAC-SHA256 en formato JWT (header.payload.firma, Base64URL).
+ *
+ * La validación solo recalcula la firma y revisa la expiración: no consulta la base de datos
+ * ni usa BCrypt, así que autorizar una petición cuesta microsegundos.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenServiceImpl.class);
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = BASE64.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${hazellab.seguridad.token-secreto:}")
+    private String secretoConfigurado;
+
+    @Value("${hazellab.seguridad.acceso-minutos:15}")
+    private long minutosAcceso;
+
+    @Value("${hazellab.seguridad.refresco-horas:24}")
+    private long horasRefresco;
+
+    private SecretKeySpec clave;
+
+    // Mac no es thread-safe: una instancia por hilo evita sincronizar en cada petición
+    private final ThreadLocal<Mac> macPorHilo = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar HMAC-SHA256", e);
+        }
+    });
+
+    @PostConstruct
+    void inicializarClave() {
+        byte[] bytes;
+        if (secretoConfigurado == null || secretoConfigurado.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+            log.warn("hazellab.seguridad.token-secreto no está definido: se usa una clave aleatoria "
+                    + "y los tokens emitidos dejarán de valer al reiniciar");
+        } else {
+            bytes = Base64.getDecoder().decode(secretoConfigurado);
+            if (bytes.length < 32) {
+                throw new IllegalStateException("hazellab.seguridad.token-secreto debe tener al menos 256 bits");
+            }
+        }
+        clave = new SecretKeySpec(bytes, ALGORITMO);
+    }
+
+    /* ---------------------------------- Emisión ---------------------------------- */
+
+    @Override
+    public String generarAcceso(Usuario usuario) {
+        return firmar(usuario, TIPO_ACCESO, minutosAcceso * 60);
+    }
+
+    @Override
+    public String generarRefresco(Usuario usuario) {
+        return firmar(usuario, TIPO_REFRESCO, horasRefresco * 3600);
+    }
+
+    @Override
+    public long getDuracionAccesoSegundos() {
+        return minutosAcceso * 60;
+    }
+
+    private String firmar(Usuario usuario, String tipo, long duracionSegundos) {
+        long ahora = Instant.now().getEpochSecond();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", String.valueOf(usuario.getId()));
+        payload.put("email", usuario.getEmail());
+        payload.put("role", usuario.getRole());
+        payload.put("typ", tipo);
+        payload.put("iat", ahora);
+        payload.put("exp", ahora + duracionSegundos);
+
+        try {
+            String cuerpo = HEADER + "." + BASE64.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return cuerpo + "." + BASE64.encodeToString(hmac(cuerpo));
+        } catch (Exception e) {
+            throw new RuntimeException("No se pudo generar el token.", e);
+        }
+    }
+
+    /* ---------------------------------- Validación ---------------------------------- */
+
+    @Override
+    public Optional<Sesion> validarAcceso(String token) {
+        return validar(token, TIPO_ACCESO);
+    }
+
+    @Override
+    public Optional<Sesion> validarRefresco(String token) {
+        return validar(token, TIPO_REFRESCO);
+    }
+
+    private Optional<Sesion> validar(String token, String tipoEsperado) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int primerPunto = token.indexOf('.');
+        int ultimoPunto = token.lastIndexOf('.');
+        if (primerPunto < 0 || primerPunto == ultimoPunto) {
+            return Optional.empty();
+        }
+
+        try {
+            // Primero la firma: nada del payload se interpreta si no fue emitido por nosotros
+            String cuerpo = token.substring(0, ultimoPunto);
+            byte[] firma = BASE64_DECODER.decode(token.substring(ultimoPunto + 1));
+            if (!token.startsWith(HEADER + ".") || !MessageDigest.isEqual(firma, hmac(cuerpo))) {
+                return Optional.empty();
+            }
+
+            JsonNode payload = objectMapper.readTree(BASE64_DECODER.decode(token.substring(primerPunto + 1, ultimoPunto)));
+            if (!tipoEsperado.equals(payload.path("typ").asText())
+                    || payload.path("exp").asLong() <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Sesion(Long.valueOf(payload.path("sub").asText()),
+                    payload.path("email").asText(null), payload.path("role").asText(null)));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] hmac(String contenido) {
+        return macPorHilo.get().doFinal(contenido.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -3,12 +3,14 @@ package com.carrie.hazellabev2.services;
 import java.util.List;
 
 import com.carrie.hazellabev2.entities.Usuario;
+import com.fasterxml.jackson.databind.JsonNode;
 
 public interface UsuarioService {
     /* ---------------------------------- CRUD simple ---------------------------------- */
     Usuario crear(Usuario usuario);
     Usuario obtenerPorID(Long id);    
     Usuario actualizar(Long id, Usuario usuarioActualizado);
+    Usuario parchar(Long id, JsonNode parche);
     List<Usuario> listarTodo();
     void eliminar(Long id);
     /* ---------------------------------- Autenticación ---------------------------------- */
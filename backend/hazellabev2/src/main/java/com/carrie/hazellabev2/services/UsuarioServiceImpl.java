@@ -4,22 +4,40 @@ package com.carrie.hazellabev2.services;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.carrie.hazellabev2.entities.Usuario;
 import com.carrie.hazellabev2.repositories.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
+    // Campos que acepta PATCH; password va aparte porque se guarda encriptada
+    private static final Set<String> CAMPOS_PARCHE = Set.of("username", "apellidos", "email", "rut", "role",
+            "status", "fechaNacimiento", "region", "comuna", "direccion");
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RegionComunaCatalogo regionComunaCatalogo;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
     @Override
     public Usuario crear(Usuario usuario) {
         if (usuario.getPassword() == null || usuario.getPassword().isEmpty()) {
@@ -35,6 +53,9 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new RuntimeException("El correo debe ser @duoc.cl, @profesor.duoc.cl o @gmail.com");
         }
 
+        // ✅ VALIDACIÓN DE REGIÓN Y COMUNA (se guardan con su nombre oficial)
+        validarUbicacion(usuario);
+
         usuario.setRole(usuario.getRole() != null ? usuario.getRole() : "cliente");
         usuario.setStatus(usuario.getStatus() != null ? usuario.getStatus() : "activo");
         usuario.setCreatedAt(usuario.getCreatedAt() != null ? usuario.getCreatedAt() : LocalDateTime.now());
@@ -59,6 +80,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     };  
 
     @Override
+    @Transactional
     public Usuario actualizar(Long id, Usuario usuarioActualizado) {
         Usuario usuarioExistente = obtenerPorID(id);
         
@@ -80,9 +102,10 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
         
         // ✅ SOLO ACTUALIZAR PASSWORD SI SE PROPORCIONA UNA NUEVA
+        // (el formulario reenvía el hash guardado cuando no se cambia: basta compararlo, sin pasar por BCrypt)
         if (usuarioActualizado.getPassword() != null && 
             !usuarioActualizado.getPassword().isEmpty() &&
-            !passwordEncoder.matches(usuarioActualizado.getPassword(), usuarioExistente.getPassword())) {
+            !usuarioActualizado.getPassword().equals(usuarioExistente.getPassword())) {
             
             String passwordEncriptada = passwordEncoder.encode(usuarioActualizado.getPassword());
             usuarioExistente.setPassword(passwordEncriptada);
@@ -91,6 +114,34 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioRepository.save(usuarioExistente);
     };
 
+    // ✅ JSON Merge Patch: lectura y UPDATE en la misma transacción, solo con las columnas enviadas
+    @Override
+    @Transactional
+    public Usuario parchar(Long id, JsonNode parche) {
+        Usuario usuario = obtenerPorID(id);
+        ObjectNode campos = ParcheJson.copiar(parche);
+        JsonNode password = campos.remove("password");
+        ParcheJson.aplicar(objectMapper, usuario, campos, CAMPOS_PARCHE);
+
+        if (campos.has("email") && !validarEmail(usuario.getEmail())) {
+            throw new RuntimeException("El correo debe ser @duoc.cl, @profesor.duoc.cl o @gmail.com");
+        }
+        if (campos.has("rut") && (usuario.getRut() == null || usuario.getRut().isEmpty())) {
+            throw new RuntimeException("El RUT es obligatorio");
+        }
+        if (campos.has("region") || campos.has("comuna")) {
+            validarUbicacion(usuario);
+        }
+        // Solo se pasa por BCrypt cuando el parche trae una contraseña nueva
+        if (password != null) {
+            if (!password.isTextual() || password.asText().isEmpty()) {
+                throw new RuntimeException("La contraseña no puede ser nula o vacía");
+            }
+            usuario.setPassword(passwordEncoder.encode(password.asText()));
+        }
+        return usuarioRepository.save(usuario);
+    }
+
     @Override
     public List<Usuario> listarTodo() {
         return (List<Usuario>) usuarioRepository.findAll();
@@ -106,7 +157,11 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public boolean validarPassword(String passwordPlano, String passwordEncriptado) {
-        return passwordEncoder.matches(passwordPlano, passwordEncriptado);
+        // ✅ Se mide cada verificación: es lo más caro del login
+        long inicio = System.nanoTime();
+        boolean valida = passwordEncoder.matches(passwordPlano, passwordEncriptado);
+        metricasNegocio.registrarVerificacionPassword(System.nanoTime() - inicio, valida);
+        return valida;
     }
 
     // Del repository
@@ -131,6 +186,12 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new RuntimeException("Usuario inactivo.");
         }
 
+        // ✅ Rehash transparente: si el hash usa un costo distinto al vigente se regenera con la contraseña recién validada
+        if (passwordEncoder.upgradeEncoding(usuario.getPassword())) {
+            usuario.setPassword(passwordEncoder.encode(password));
+            usuario = usuarioRepository.save(usuario);
+        }
+
         return usuario;
     }
 
@@ -142,6 +203,29 @@ public class UsuarioServiceImpl implements UsuarioService {
                email.endsWith("@gmail.com");
     }
 
+    // Región y comuna son opcionales, pero si vienen deben existir y la comuna debe pertenecer a la región
+    private void validarUbicacion(Usuario usuario) {
+        boolean conRegion = usuario.getRegion() != null && !usuario.getRegion().isBlank();
+        boolean conComuna = usuario.getComuna() != null && !usuario.getComuna().isBlank();
+        if (!conRegion && !conComuna) {
+            return;
+        }
+
+        String region = regionComunaCatalogo.regionOficial(usuario.getRegion());
+        if (region == null) {
+            throw new RuntimeException("La región indicada no existe");
+        }
+        usuario.setRegion(region);
+
+        if (conComuna) {
+            String comuna = regionComunaCatalogo.comunaOficial(region, usuario.getComuna());
+            if (comuna == null) {
+                throw new RuntimeException("La comuna " + usuario.getComuna() + " no pertenece a la región " + region);
+            }
+            usuario.setComuna(comuna);
+        }
+    }
+
     // ✅ NUEVOS MÉTODOS DE BÚSQUEDA
     @Override
     public List<Usuario> buscarPorUsername(String username) {
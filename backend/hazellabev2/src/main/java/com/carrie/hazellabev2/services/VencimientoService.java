@@ -0,0 +1,12 @@
+package com.carrie.hazellabev2.services;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.carrie.hazellabev2.dto.VencimientoDTO;
+
+public interface VencimientoService {
+    Map<LocalDate, List<VencimientoDTO>> calendario(int dias);
+    int desactivarVencidos();
+}
@@ -0,0 +1,103 @@
+package com.carrie.hazellabev2.services;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carrie.hazellabev2.dto.VencimientoDTO;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+/**
+ * Los lotes vencidos se desactivan por lotes de ids, no recorriendo el catálogo: los ids
+ * salen del índice en memoria (o, mientras se construye, de idx_producto_vencimiento), así que el
+ * barrido trabaja en proporción a los lotes vencidos y no al tamaño del catálogo.
+ */
+@Service
+public class VencimientoServiceImpl implements VencimientoService {
+
+    private static final Logger log = LoggerFactory.getLogger(VencimientoServiceImpl.class);
+    private static final int LOTE_VENCIDOS = 500;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private IndiceVencimientos indiceVencimientos;
+
+    @Autowired
+    private RefrescoProductos refrescoProductos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${hazellab.vencimientos.zona:America/Santiago}")
+    private ZoneId zona;
+
+    /* ---------------------------------- Calendario ---------------------------------- */
+
+    // Lotes activos que vencen desde hoy hasta dentro de "dias" días, agrupados por fecha
+    @Override
+    public Map<LocalDate, List<VencimientoDTO>> calendario(int dias) {
+        LocalDate hoy = LocalDate.now(zona);
+        Date desde = Date.from(hoy.atStartOfDay(zona).toInstant());
+        Date hasta = Date.from(hoy.plusDays(dias + 1L).atStartOfDay(zona).toInstant());
+
+        Map<LocalDate, List<VencimientoDTO>> calendario = new LinkedHashMap<>();
+        for (VencimientoDTO lote : productoRepository.findVencimientosEntre(desde, hasta)) {
+            LocalDate fecha = lote.getExpDate().toInstant().atZone(zona).toLocalDate();
+            calendario.computeIfAbsent(fecha, k -> new ArrayList<>()).add(lote);
+        }
+        return calendario;
+    }
+
+    /* ---------------------------------- Barrido ---------------------------------- */
+
+    @Override
+    public int desactivarVencidos() {
+        Date ahora = new Date();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int desactivados = 0;
+        List<Long> ids;
+        do {
+            ids = indiceVencimientos.isListo()
+                    ? indiceVencimientos.vencidos(ahora, LOTE_VENCIDOS)
+                    : productoRepository.findIdsVencidos(ahora, Limit.of(LOTE_VENCIDOS));
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Una transacción por lote para no bloquear muchas filas a la vez
+            List<Long> lote = ids;
+            Integer actualizados = transaccion.execute(estado -> {
+                List<Producto> vencidos = productoRepository.findVencidosParaDesactivar(lote, ahora);
+                vencidos.forEach(producto -> producto.setActiveStatus(false));
+                return vencidos.size();
+            });
+            desactivados += actualizados != null ? actualizados : 0;
+            refrescoProductos.refrescar(lote);
+        } while (ids.size() == LOTE_VENCIDOS);
+        return desactivados;
+    }
+
+    @Scheduled(fixedDelayString = "${hazellab.vencimientos.barrido-ms:3600000}")
+    public void barrerVencidos() {
+        int desactivados = desactivarVencidos();
+        if (desactivados > 0) {
+            log.info("Se desactivaron {} lotes vencidos", desactivados);
+        }
+    }
+}
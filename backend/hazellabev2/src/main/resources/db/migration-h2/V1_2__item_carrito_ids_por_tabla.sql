@@ -0,0 +1,2 @@
+-- Igual que db/migration-mysql/V1_2 con la sintaxis de H2 (pruebas)
+alter table item_carrito alter column id drop identity;
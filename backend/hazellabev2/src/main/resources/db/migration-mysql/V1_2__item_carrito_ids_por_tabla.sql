@@ -0,0 +1,2 @@
+-- ItemCarrito toma sus ids por bloques de id_generador: la columna deja de ser auto_increment
+alter table item_carrito modify id bigint not null;
@@ -0,0 +1,20 @@
+-- Tablas y cambios de columnas posteriores al esquema inicial. Van en una versión propia para que
+-- también se apliquen en las bases que baseline-on-migrate marcó en la versión 1 sin ejecutarla.
+-- Lo que no tiene una sintaxis común a MySQL y H2 va en db/migration-{vendor} (V1_2).
+
+-- Contadores del generador de ids por tabla (GenerationType.TABLE)
+create table id_generador (
+    nombre varchar(255) not null,
+    siguiente bigint,
+    primary key (nombre)
+);
+
+create table reserva_stock (
+    id bigint not null auto_increment,
+    producto_id bigint not null,
+    item_carrito_id bigint,
+    cantidad integer not null,
+    expira_en datetime(6),
+    primary key (id),
+    constraint uk_reserva_stock_item unique (item_carrito_id)
+);
@@ -0,0 +1,70 @@
+-- Esquema inicial: el mismo que generaba Hibernate con ddl-auto=update antes de adoptar Flyway.
+-- Las bases que ya existían quedan marcadas en esta versión sin ejecutarla (spring.flyway.baseline-on-migrate),
+-- así que aquí no puede ir nada que esas bases no tengan: los cambios posteriores van en versiones nuevas.
+-- SQL compatible con MySQL y con H2 (pruebas); MySQL crea las tablas en InnoDB por defecto.
+
+create table categoria (
+    id bigint not null auto_increment,
+    nombre varchar(255),
+    primary key (id)
+);
+
+create table producto (
+    id bigint not null auto_increment,
+    name varchar(255),
+    batch_code varchar(255),
+    description varchar(255),
+    chem_code varchar(255),
+    exp_date datetime(6),
+    elab_date datetime(6),
+    cost integer not null,
+    stock integer not null,
+    stock_critico integer not null,
+    proveedor varchar(255),
+    categoria_id bigint,
+    image varchar(255),
+    active_status bit,
+    creation_date datetime(6),
+    destacado bit,
+    primary key (id),
+    constraint fk_producto_categoria foreign key (categoria_id) references categoria (id)
+);
+
+create table usuario (
+    id bigint not null auto_increment,
+    username varchar(255),
+    email varchar(255) not null,
+    rut varchar(255) not null,
+    password varchar(255),
+    role varchar(255),
+    status varchar(255),
+    created_at datetime(6),
+    region varchar(255),
+    comuna varchar(255),
+    apellidos varchar(255),
+    fecha_nacimiento varchar(255),
+    direccion varchar(255),
+    primary key (id),
+    constraint uk_usuario_email unique (email),
+    constraint uk_usuario_rut unique (rut)
+);
+
+create table item_carrito (
+    id bigint not null auto_increment,
+    quantity integer not null,
+    producto_id bigint,
+    usuario_id bigint,
+    primary key (id),
+    constraint fk_item_carrito_producto foreign key (producto_id) references producto (id),
+    constraint fk_item_carrito_usuario foreign key (usuario_id) references usuario (id)
+);
+
+create table blog (
+    id bigint not null auto_increment,
+    title varchar(255),
+    body text,
+    author varchar(255),
+    image varchar(255),
+    summary varchar(255),
+    primary key (id)
+);
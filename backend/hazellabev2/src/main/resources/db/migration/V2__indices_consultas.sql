@@ -0,0 +1,24 @@
+-- Un índice por cada patrón de acceso de los repositorios, para que ninguna consulta recorra la tabla
+-- completa. Las columnas de igualdad van primero y el id al final: el índice ya entrega las filas en
+-- el orden de la clave primaria y, en InnoDB, cubre las consultas que solo necesitan el id.
+-- Las búsquedas por nombre (LIKE '%texto%') no pueden usar un índice B-tree; las resuelve
+-- ProductoSearchIndex en memoria.
+
+-- ProductoRepository.findByCategoryId (reemplaza al índice que MySQL crea para la FK)
+create index idx_producto_categoria on producto (categoria_id, id);
+-- ProductoRepository.findByStockLessThan
+create index idx_producto_stock on producto (stock, id);
+-- ProductoRepository.findByActiveStatus / findByNameContainingIgnoreCaseAndActiveStatus
+create index idx_producto_activo on producto (active_status, id);
+-- ProductoRepository.findByDestacadoTrue
+create index idx_producto_destacado on producto (destacado, id);
+
+-- UsuarioRepository.findByRole / findByStatus (findByEmail y findByRut usan sus claves únicas)
+create index idx_usuario_role on usuario (role, id);
+create index idx_usuario_status on usuario (status, id);
+
+-- ItemCarritoRepository.findByUsuarioId / findVistaByUsuarioId (filtra por usuario y ordena por id)
+create index idx_item_carrito_usuario on item_carrito (usuario_id, id);
+
+-- ReservaStockRepository.findByExpiraEnBeforeOrderByExpiraEnAsc (barrido de reservas expiradas)
+create index idx_reserva_stock_expira on reserva_stock (expira_en);
@@ -0,0 +1,4 @@
+-- Vencimiento de lotes: el barrido busca activos con exp_date <= ahora y el calendario activos con
+-- exp_date en un rango. Con active_status primero ambos recorren solo el tramo pedido del índice,
+-- así el costo depende de cuántos lotes vencen y no del tamaño del catálogo.
+create index idx_producto_vencimiento on producto (active_status, exp_date, id);
@@ -0,0 +1,4 @@
+-- Importación masiva: cada bloque de filas busca sus productos por batch_code (upsert por lote).
+-- No es único porque el catálogo existente puede tener lotes repetidos o vacíos; la importación
+-- rechaza las filas cuyo lote aparece en más de un producto.
+create index idx_producto_lote on producto (batch_code);
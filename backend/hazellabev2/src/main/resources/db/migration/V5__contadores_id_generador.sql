@@ -0,0 +1,6 @@
+-- Contadores de los generadores de tabla (IdGeneradorTabla) para las entidades que dejaron IDENTITY.
+-- Corren en la migración, antes de que la aplicación acepte peticiones: un INSERT nunca toma un bloque
+-- con ids que ya existen. Con el optimizador pooled un bloque puede empezar hasta allocationSize (50)
+-- posiciones antes del valor guardado, por eso se parte del id máximo más un bloque.
+insert into id_generador (nombre, siguiente) select 'item_carrito', coalesce(max(id), 0) + 51 from item_carrito;
+insert into id_generador (nombre, siguiente) select 'producto', coalesce(max(id), 0) + 51 from producto;
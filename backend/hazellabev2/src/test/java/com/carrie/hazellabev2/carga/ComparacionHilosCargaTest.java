@@ -0,0 +1,290 @@
+package com.carrie.hazellabev2.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.carrie.hazellabev2.Hazellabev2Application;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compara el mismo escenario de navegación de catálogo y carrito con hilos de plataforma (pool de
+ * Tomcat) y con hilos virtuales (perfil virtual). Cada modo levanta su propia aplicación sobre una
+ * base H2 separada y al final se muestra una tabla con req/s, p50 y p99 por endpoint y modo.
+ *
+ * H2 en memoria responde en microsegundos, así que cada petición /api toma además una conexión del
+ * pool durante carga.espera-bd-ms (por defecto 20 ms) para simular la espera por MySQL.
+ * El modo virtual requiere Java 21; en versiones anteriores solo se mide el modo plataforma.
+ *
+ * No corre con mvn test. Ejecutar con:
+ *   mvn test -Dtest=ComparacionHilosCargaTest -DexcludedGroups=ninguno -Dcarga.usuarios=1000 -Dcarga.duracion-s=30
+ */
+@Tag("carga")
+public class ComparacionHilosCargaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparacionHilosCargaTest.class);
+
+    private static final int CANTIDAD_PRODUCTOS = 1000;
+    private static final int CANTIDAD_USUARIOS = 100;
+
+    private final int usuariosVirtuales = Integer.getInteger("carga.usuarios", 400);
+    private final int segundosCalentamiento = Integer.getInteger("carga.calentamiento-s", 5);
+    private final int segundosMedicion = Integer.getInteger("carga.duracion-s", 20);
+    private final double tasaErroresMaxima = Double.parseDouble(System.getProperty("carga.errores-maximo", "0.01"));
+
+    private HttpClient cliente;
+    private int puerto;
+    private List<Long> productoIds;
+    private List<Long> usuarioIds;
+
+    @Test
+    void plataformaVsVirtualesTest() throws Exception {
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Map<String, RegistroLatencias> resultados = new LinkedHashMap<>();
+        resultados.put("plataforma", medirModo("plataforma", false));
+        if (Runtime.version().feature() >= 21) {
+            resultados.put("virtual", medirModo("virtual", true));
+        } else {
+            log.warn("Modo virtual omitido: requiere Java 21 (JVM actual: {})", Runtime.version());
+        }
+
+        reportar(resultados);
+        resultados.forEach(this::verificarErrores);
+    }
+
+    /* ---------------------------------- Ejecución ---------------------------------- */
+
+    private RegistroLatencias medirModo(String modo, boolean virtual) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Hazellabev2Application.class, EsperaBaseDatos.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:carga_" + modo + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        // Los carritos son de 100 usuarios desde 127.0.0.1; el limitador de login no participa
+                        "hazellab.login.limite.ip.capacidad=1000000");
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+
+        try (ConfigurableApplicationContext contexto = builder.run()) {
+            puerto = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+            sembrarDatos(contexto);
+
+            log.info("[{}] Calentamiento: {} usuarios durante {} s", modo, usuariosVirtuales, segundosCalentamiento);
+            ejecutar(segundosCalentamiento);
+            log.info("[{}] Medición: {} usuarios durante {} s", modo, usuariosVirtuales, segundosMedicion);
+            return ejecutar(segundosMedicion);
+        }
+    }
+
+    private RegistroLatencias ejecutar(int segundos) throws Exception {
+        long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(usuariosVirtuales);
+        List<Future<RegistroLatencias>> tareas = new ArrayList<>();
+        for (int i = 0; i < usuariosVirtuales; i++) {
+            long usuarioId = usuarioIds.get(i % usuarioIds.size());
+            tareas.add(executor.submit(() -> usuarioVirtual(usuarioId, fin)));
+        }
+
+        RegistroLatencias total = new RegistroLatencias();
+        for (Future<RegistroLatencias> tarea : tareas) {
+            total.combinar(tarea.get());
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    // Ciclo cerrado con la mitad de navegación de catálogo y la mitad de carrito
+    private RegistroLatencias usuarioVirtual(long usuarioId, long fin) {
+        RegistroLatencias registro = new RegistroLatencias();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            switch (random.nextInt(4)) {
+                case 0 -> medir(registro, "GET /api/productos?page",
+                        get("/api/productos?page=" + random.nextInt(CANTIDAD_PRODUCTOS / 20) + "&limit=20"));
+                case 1 -> medir(registro, "GET /api/productos/{id}",
+                        get("/api/productos/" + productoIds.get(random.nextInt(productoIds.size()))));
+                case 2 -> medir(registro, "GET /api/itemscarrito/usuario/{id}/vista",
+                        get("/api/itemscarrito/usuario/" + usuarioId + "/vista"));
+                default -> {
+                    long productoId = productoIds.get((int) ((usuarioId * 10 + random.nextInt(10)) % productoIds.size()));
+                    String lote = "[{\"tipo\":\"FIJAR_CANTIDAD\",\"productoId\":" + productoId + ",\"cantidad\":" + random.nextInt(4) + "}]";
+                    medir(registro, "POST /api/itemscarrito/usuario/{id}/lote",
+                            post("/api/itemscarrito/usuario/" + usuarioId + "/lote", lote));
+                }
+            }
+        }
+        return registro;
+    }
+
+    private void medir(RegistroLatencias registro, String endpoint, HttpRequest peticion) {
+        long inicio = System.nanoTime();
+        boolean exito;
+        try {
+            HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+            exito = respuesta.statusCode() < 400;
+        } catch (Exception e) {
+            exito = false;
+        }
+        registro.registrar(endpoint, System.nanoTime() - inicio, exito);
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /* ---------------------------------- Reporte ---------------------------------- */
+
+    private void reportar(Map<String, RegistroLatencias> resultados) {
+        StringBuilder tabla = new StringBuilder(String.format("%n%-44s %-10s %8s %7s %9s %9s %9s%n",
+                "Endpoint", "Modo", "Total", "Errores", "req/s", "p50 ms", "p99 ms"));
+        resultados.forEach((modo, registro) -> {
+            int total = 0;
+            for (Map.Entry<String, RegistroLatencias.Serie> entrada : registro.getSeries().entrySet()) {
+                RegistroLatencias.Serie serie = entrada.getValue();
+                total += serie.getCantidad();
+                tabla.append(String.format("%-44s %-10s %8d %7d %9.1f %9.2f %9.2f%n",
+                        entrada.getKey(), modo, serie.getCantidad(), serie.getErrores(),
+                        (double) serie.getCantidad() / segundosMedicion,
+                        serie.percentilMs(0.50), serie.percentilMs(0.99)));
+            }
+            tabla.append(String.format("%-44s %-10s %8d %7s %9.1f%n", "TOTAL", modo, total, "",
+                    (double) total / segundosMedicion));
+        });
+        log.info("Plataforma vs hilos virtuales ({} usuarios, {} s, espera BD simulada {} ms):{}",
+                usuariosVirtuales, segundosMedicion, EsperaBaseDatos.ESPERA_MS, tabla);
+    }
+
+    private void verificarErrores(String modo, RegistroLatencias registro) {
+        for (Map.Entry<String, RegistroLatencias.Serie> entrada : registro.getSeries().entrySet()) {
+            RegistroLatencias.Serie serie = entrada.getValue();
+            assertTrue(serie.tasaErrores() <= tasaErroresMaxima,
+                    "[" + modo + "] " + entrada.getKey() + ": " + serie.getErrores() + " errores de " + serie.getCantidad());
+        }
+    }
+
+    /* ---------------------------------- Datos de prueba ---------------------------------- */
+
+    private void sembrarDatos(ConfigurableApplicationContext contexto) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Categoria> categorias = List.of(new Categoria(null, "Reactivos", null), new Categoria(null, "Material de vidrio", null));
+        contexto.getBean(CategoriaRepository.class).saveAll(categorias);
+
+        List<Producto> productos = new ArrayList<>(CANTIDAD_PRODUCTOS);
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setName("Producto de carga " + i);
+            producto.setBatchCode("CARGA" + i);
+            producto.setCost(1_000 + random.nextInt(100_000));
+            producto.setStock(1_000);
+            producto.setStockCritico(10);
+            producto.setCategory(categorias.get(i % categorias.size()));
+            producto.setActiveStatus(true);
+            producto.setCreationDate(LocalDateTime.now());
+            productos.add(producto);
+        }
+        contexto.getBean(ProductoRepository.class).saveAll(productos);
+        productoIds = productos.stream().map(Producto::getId).toList();
+
+        List<Usuario> usuarios = new ArrayList<>(CANTIDAD_USUARIOS);
+        for (int i = 0; i < CANTIDAD_USUARIOS; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setUsername("carga" + i);
+            usuario.setEmail("carga" + i + "@gmail.com");
+            usuario.setRut("carga-" + i);
+            usuario.setPassword("sin-login");
+            usuario.setStatus("activo");
+            usuarios.add(usuario);
+        }
+        contexto.getBean(UsuarioRepository.class).saveAll(usuarios);
+        usuarioIds = usuarios.stream().map(Usuario::getId).toList();
+
+        List<ItemCarrito> items = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            for (int i = 0; i < 3; i++) {
+                items.add(new ItemCarrito(null, 1 + random.nextInt(3), productos.get(random.nextInt(productos.size())), usuario));
+            }
+        }
+        contexto.getBean(ItemCarritoRepository.class).saveAll(items);
+    }
+
+    // Sin @Configuration a propósito: se registra solo como fuente de esta prueba y el escaneo de
+    // componentes de las demás pruebas no lo encuentra
+    static class EsperaBaseDatos implements WebMvcConfigurer {
+
+        static final long ESPERA_MS = Long.getLong("carga.espera-bd-ms", 20);
+
+        private final DataSource dataSource;
+
+        EsperaBaseDatos(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            if (ESPERA_MS <= 0) {
+                return;
+            }
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                        throws Exception {
+                    try (Connection conexion = dataSource.getConnection()) {
+                        Thread.sleep(ESPERA_MS);
+                    }
+                    return true;
+                }
+            }).addPathPatterns("/api/**");
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.carrie.hazellabev2.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+import com.carrie.hazellabev2.services.ProductoSearchIndex;
+
+/**
+ * Prueba de carga HTTP: levanta la aplicación completa sobre H2 (perfil test), siembra catálogo,
+ * usuarios y carritos, y lanza usuarios virtuales que mezclan navegación, búsqueda, carrito y login.
+ * Al final reporta throughput y p50/p99/p999 por endpoint y falla si hay errores o latencias fuera de umbral.
+ *
+ * No corre con mvn test. Ejecutar con:
+ *   mvn test -Dtest=PruebaCargaApiTest -DexcludedGroups=ninguno -Dcarga.usuarios=32 -Dcarga.duracion-s=60
+ * Umbrales: -Dcarga.p99-maximo-ms, -Dcarga.p99-login-maximo-ms y -Dcarga.errores-maximo (fracción, 0.01 = 1%).
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    // BCrypt con el costo mínimo de producción: el login debe pesar lo mismo que en el servidor real
+    "hazellab.bcrypt.costo=10",
+    // Todo el tráfico sale de 127.0.0.1 con pocos emails; el limitador de login no es lo que se mide
+    "hazellab.login.limite.email.capacidad=1000000",
+    "hazellab.login.limite.email.por-minuto=1000000",
+    "hazellab.login.limite.ip.capacidad=1000000",
+    "hazellab.login.limite.ip.por-minuto=1000000"
+})
+public class PruebaCargaApiTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PruebaCargaApiTest.class);
+
+    private static final String PASSWORD = "password123";
+    private static final String LOGIN = "POST /api/auth/login";
+    private static final String[] TERMINOS = {"acido", "sulf", "etanol", "pipeta", "de cobre", "grado", "nitrilo", "ml"};
+    private static final String[] BASES = {"Ácido", "Sulfato", "Cloruro", "Etanol", "Acetona", "Pipeta", "Matraz", "Probeta", "Guantes", "Jeringa"};
+    private static final String[] CALIFICADORES = {"sulfúrico", "de cobre", "de sodio", "absoluto", "grado analítico", "graduada", "de nitrilo", "500 ml"};
+
+    // Mezcla de escenarios (pesos relativos)
+    private static final int PESO_LISTAR = 25;
+    private static final int PESO_DETALLE = 20;
+    private static final int PESO_BUSCAR = 20;
+    private static final int PESO_VER_CARRITO = 15;
+    private static final int PESO_MODIFICAR_CARRITO = 10;
+    private static final int PESO_LOGIN = 10;
+
+    private final int usuariosVirtuales = Integer.getInteger("carga.usuarios", 8);
+    private final int segundosCalentamiento = Integer.getInteger("carga.calentamiento-s", 5);
+    private final int segundosMedicion = Integer.getInteger("carga.duracion-s", 20);
+    private final int cantidadProductos = Integer.getInteger("carga.productos", 2000);
+    private final double p99MaximoMs = Double.parseDouble(System.getProperty("carga.p99-maximo-ms", "1500"));
+    // El login paga BCrypt a propósito, por eso tiene su propio umbral
+    private final double p99LoginMaximoMs = Double.parseDouble(System.getProperty("carga.p99-login-maximo-ms", "5000"));
+    private final double tasaErroresMaxima = Double.parseDouble(System.getProperty("carga.errores-maximo", "0.01"));
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private ProductoSearchIndex productoSearchIndex;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private HttpClient cliente;
+    private List<Long> productoIds;
+    private List<Usuario> usuarios;
+
+    @Test
+    void escenarioMixtoTest() throws Exception {
+        sembrarDatos();
+        cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        log.info("Calentamiento: {} usuarios virtuales durante {} s", usuariosVirtuales, segundosCalentamiento);
+        ejecutar(segundosCalentamiento);
+        log.info("Medición: {} usuarios virtuales durante {} s", usuariosVirtuales, segundosMedicion);
+        RegistroLatencias registro = ejecutar(segundosMedicion);
+
+        reportar(registro);
+        verificarUmbrales(registro);
+    }
+
+    /* ---------------------------------- Ejecución ---------------------------------- */
+
+    private RegistroLatencias ejecutar(int segundos) throws Exception {
+        long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(usuariosVirtuales);
+        List<Future<RegistroLatencias>> tareas = new ArrayList<>();
+        for (int i = 0; i < usuariosVirtuales; i++) {
+            Usuario usuario = usuarios.get(i % usuarios.size());
+            tareas.add(executor.submit(() -> usuarioVirtual(usuario, fin)));
+        }
+
+        RegistroLatencias total = new RegistroLatencias();
+        for (Future<RegistroLatencias> tarea : tareas) {
+            total.combinar(tarea.get());
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    // Ciclo cerrado: cada usuario virtual lanza la siguiente petición apenas recibe la respuesta anterior
+    private RegistroLatencias usuarioVirtual(Usuario usuario, long fin) {
+        RegistroLatencias registro = new RegistroLatencias();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            int sorteo = random.nextInt(PESO_LISTAR + PESO_DETALLE + PESO_BUSCAR
+                    + PESO_VER_CARRITO + PESO_MODIFICAR_CARRITO + PESO_LOGIN);
+            if ((sorteo -= PESO_LISTAR) < 0) {
+                int paginas = Math.max(cantidadProductos / 20, 1);
+                medir(registro, "GET /api/productos?page", get("/api/productos?page=" + random.nextInt(paginas) + "&limit=20"));
+            } else if ((sorteo -= PESO_DETALLE) < 0) {
+                medir(registro, "GET /api/productos/{id}", get("/api/productos/" + productoAlAzar(random)));
+            } else if ((sorteo -= PESO_BUSCAR) < 0) {
+                String termino = TERMINOS[random.nextInt(TERMINOS.length)].replace(" ", "%20");
+                medir(registro, "GET /api/productos/buscar", get("/api/productos/buscar?q=" + termino + "&limit=20"));
+            } else if ((sorteo -= PESO_VER_CARRITO) < 0) {
+                medir(registro, "GET /api/itemscarrito/usuario/{id}/vista",
+                        get("/api/itemscarrito/usuario/" + usuario.getId() + "/vista"));
+            } else if ((sorteo -= PESO_MODIFICAR_CARRITO) < 0) {
+                // Cada usuario trabaja sobre sus propios 10 productos para que el carrito no crezca sin límite
+                long productoId = productoIds.get((int) ((usuario.getId() * 10 + random.nextInt(10)) % productoIds.size()));
+                String lote = "[{\"tipo\":\"FIJAR_CANTIDAD\",\"productoId\":" + productoId + ",\"cantidad\":" + random.nextInt(4) + "}]";
+                medir(registro, "POST /api/itemscarrito/usuario/{id}/lote",
+                        post("/api/itemscarrito/usuario/" + usuario.getId() + "/lote", lote));
+            } else {
+                String credenciales = "{\"email\":\"" + usuario.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}";
+                medir(registro, LOGIN, post("/api/auth/login", credenciales));
+            }
+        }
+        return registro;
+    }
+
+    private void medir(RegistroLatencias registro, String endpoint, HttpRequest peticion) {
+        long inicio = System.nanoTime();
+        boolean exito;
+        try {
+            HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+            exito = respuesta.statusCode() < 400;
+        } catch (Exception e) {
+            exito = false;
+        }
+        registro.registrar(endpoint, System.nanoTime() - inicio, exito);
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private long productoAlAzar(ThreadLocalRandom random) {
+        return productoIds.get(random.nextInt(productoIds.size()));
+    }
+
+    /* ---------------------------------- Reporte y umbrales ---------------------------------- */
+
+    private void reportar(RegistroLatencias registro) {
+        StringBuilder tabla = new StringBuilder(String.format("%n%-44s %8s %7s %9s %9s %9s %9s%n",
+                "Endpoint", "Total", "Errores", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        int total = 0;
+        for (Map.Entry<String, RegistroLatencias.Serie> entrada : registro.getSeries().entrySet()) {
+            RegistroLatencias.Serie serie = entrada.getValue();
+            total += serie.getCantidad();
+            tabla.append(String.format("%-44s %8d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    entrada.getKey(), serie.getCantidad(), serie.getErrores(),
+                    (double) serie.getCantidad() / segundosMedicion,
+                    serie.percentilMs(0.50), serie.percentilMs(0.99), serie.percentilMs(0.999)));
+        }
+        tabla.append(String.format("%-44s %8d %7s %9.1f%n", "TOTAL", total, "", (double) total / segundosMedicion));
+        log.info("Resultado de la prueba de carga ({} usuarios virtuales, {} s):{}", usuariosVirtuales, segundosMedicion, tabla);
+    }
+
+    private void verificarUmbrales(RegistroLatencias registro) {
+        for (Map.Entry<String, RegistroLatencias.Serie> entrada : registro.getSeries().entrySet()) {
+            RegistroLatencias.Serie serie = entrada.getValue();
+            assertTrue(serie.tasaErrores() <= tasaErroresMaxima,
+                    entrada.getKey() + ": " + serie.getErrores() + " errores de " + serie.getCantidad());
+            double umbral = LOGIN.equals(entrada.getKey()) ? p99LoginMaximoMs : p99MaximoMs;
+            assertTrue(serie.percentilMs(0.99) <= umbral,
+                    entrada.getKey() + ": p99 de " + serie.percentilMs(0.99) + " ms supera " + umbral + " ms");
+        }
+    }
+
+    /* ---------------------------------- Datos de prueba ---------------------------------- */
+
+    private void sembrarDatos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Categoria> categorias = List.of(
+                new Categoria(null, "Reactivos", null),
+                new Categoria(null, "Material de vidrio", null),
+                new Categoria(null, "Insumos médicos", null));
+        categoriaRepository.saveAll(categorias);
+
+        List<Producto> productos = new ArrayList<>(cantidadProductos);
+        for (int i = 0; i < cantidadProductos; i++) {
+            Producto producto = new Producto();
+            producto.setName(BASES[random.nextInt(BASES.length)] + " " + CALIFICADORES[random.nextInt(CALIFICADORES.length)]);
+            producto.setBatchCode("CARGA" + i);
+            producto.setChemCode("CHEM" + random.nextInt(100_000));
+            producto.setDescription("Producto de laboratorio para pruebas de carga, presentación estándar");
+            producto.setCost(1_000 + random.nextInt(100_000));
+            producto.setStock(1_000);
+            producto.setStockCritico(10);
+            producto.setProveedor("Proveedor LabTech S.A.");
+            producto.setCategory(categorias.get(i % categorias.size()));
+            producto.setActiveStatus(true);
+            producto.setCreationDate(LocalDateTime.now());
+            productos.add(producto);
+        }
+        productoRepository.saveAll(productos);
+        productoIds = productos.stream().map(Producto::getId).toList();
+        // El índice se construyó al iniciar con la base vacía
+        productoSearchIndex.reconstruir(productoRepository.findAll());
+
+        // Un solo hash para todos: la contraseña es la misma y así la siembra no demora
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Usuario> nuevos = new ArrayList<>();
+        for (int i = 0; i < Math.max(usuariosVirtuales, 50); i++) {
+            Usuario usuario = new Usuario();
+            usuario.setUsername("carga" + i);
+            usuario.setEmail("carga" + i + "@gmail.com");
+            usuario.setRut("carga-" + i);
+            usuario.setPassword(hash);
+            // El login de /api/auth solo acepta administradores
+            usuario.setRole("admin");
+            usuario.setStatus("activo");
+            nuevos.add(usuario);
+        }
+        usuarioRepository.saveAll(nuevos);
+        usuarios = nuevos;
+
+        List<ItemCarrito> items = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            for (int i = 0; i < 3; i++) {
+                Producto producto = productos.get(random.nextInt(productos.size()));
+                items.add(new ItemCarrito(null, 1 + random.nextInt(3), producto, usuario));
+            }
+        }
+        itemCarritoRepository.saveAll(items);
+    }
+}
@@ -0,0 +1,77 @@
+package com.carrie.hazellabev2.carga;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencias por endpoint de un usuario virtual. Cada hilo tiene su propio registro (sin
+ * sincronización mientras mide) y al final se combinan en uno solo para calcular percentiles.
+ */
+class RegistroLatencias {
+
+    private final Map<String, Serie> series = new TreeMap<>();
+
+    void registrar(String endpoint, long nanos, boolean exito) {
+        series.computeIfAbsent(endpoint, k -> new Serie()).agregar(nanos, exito);
+    }
+
+    void combinar(RegistroLatencias otro) {
+        otro.series.forEach((endpoint, serie) ->
+                series.computeIfAbsent(endpoint, k -> new Serie()).agregar(serie));
+    }
+
+    Map<String, Serie> getSeries() {
+        return series;
+    }
+
+    static class Serie {
+        private long[] nanos = new long[1024];
+        private int cantidad;
+        private int errores;
+        private boolean ordenada;
+
+        private void agregar(long valor, boolean exito) {
+            if (cantidad == nanos.length) {
+                nanos = Arrays.copyOf(nanos, cantidad * 2);
+            }
+            nanos[cantidad++] = valor;
+            if (!exito) {
+                errores++;
+            }
+            ordenada = false;
+        }
+
+        private void agregar(Serie otra) {
+            for (int i = 0; i < otra.cantidad; i++) {
+                agregar(otra.nanos[i], true);
+            }
+            errores += otra.errores;
+        }
+
+        int getCantidad() {
+            return cantidad;
+        }
+
+        int getErrores() {
+            return errores;
+        }
+
+        double tasaErrores() {
+            return cantidad == 0 ? 0 : (double) errores / cantidad;
+        }
+
+        // Percentil por rango más cercano, en milisegundos (p entre 0 y 1)
+        double percentilMs(double p) {
+            if (cantidad == 0) {
+                return 0;
+            }
+            if (!ordenada) {
+                Arrays.sort(nanos, 0, cantidad);
+                ordenada = true;
+            }
+            int indice = (int) Math.ceil(p * cantidad) - 1;
+            return nanos[Math.min(Math.max(indice, 0), cantidad - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.carrie.hazellabev2.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+
+/**
+ * Logins por segundo (matches de BCrypt) con distintos tamaños de pool frente a una ráfaga de 64 clientes.
+ * No corre con mvn test; ejecutar con:
+ * mvn test -Dtest=BCryptPoolPasswordEncoderBenchmarkTest -DexcludedGroups=ninguno -Dbcrypt.costo=10
+ */
+@Tag("benchmark")
+public class BCryptPoolPasswordEncoderBenchmarkTest {
+
+    private static final int CLIENTES = 64;
+    private static final int LOGINS_POR_CLIENTE = 8;
+
+    @Test
+    public void loginsPorSegundoSegunTamanioPool() throws Exception {
+        int costo = Integer.getInteger("bcrypt.costo", 10);
+        String hash = new BCryptPasswordEncoder(costo).encode("password123");
+        int nucleos = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("BCrypt costo %d, %d núcleos, %d clientes x %d logins%n",
+                costo, nucleos, CLIENTES, LOGINS_POR_CLIENTE);
+        System.out.printf("%6s %6s %12s %10s %10s%n", "hilos", "cola", "logins/s", "exitosos", "rechazos");
+        for (int hilos : IntStream.of(1, 2, nucleos / 2, nucleos, nucleos * 2).filter(h -> h > 0).distinct().sorted().toArray()) {
+            for (int cola : new int[] {16, 256}) {
+                medir(hilos, cola, costo, hash);
+            }
+        }
+    }
+
+    private void medir(int hilos, int cola, int costo, String hash) throws Exception {
+        BCryptPoolPasswordEncoder encoder = new BCryptPoolPasswordEncoder(hilos, cola, 60_000, costo);
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        AtomicInteger exitosos = new AtomicInteger();
+        AtomicInteger rechazos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < CLIENTES; i++) {
+                tareas.add(clientes.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < LOGINS_POR_CLIENTE; j++) {
+                        try {
+                            encoder.matches("password123", hash);
+                            exitosos.incrementAndGet();
+                        } catch (ServicioSaturadoException e) {
+                            rechazos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            System.out.printf("%6d %6d %12.1f %10d %10d%n",
+                    hilos, cola, exitosos.get() / segundos, exitosos.get(), rechazos.get());
+        } finally {
+            clientes.shutdownNow();
+            encoder.destroy();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.carrie.hazellabev2.exceptions.ServicioSaturadoException;
+
+public class BCryptPoolPasswordEncoderTest {
+
+    private BCryptPoolPasswordEncoder encoder;
+    private ExecutorService clientes;
+
+    @AfterEach
+    void cerrar() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+        if (clientes != null) {
+            clientes.shutdownNow();
+        }
+    }
+
+    @Test
+    public void encodeYMatchesTest() {
+        encoder = new BCryptPoolPasswordEncoder(2, 4, 5000, 4);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("otraPassword", hash));
+    }
+
+    @Test
+    public void colaLlenaRechazaDeInmediatoTest() throws Exception {
+        // Un hilo y una posición en cola: la tercera petición simultánea debe rechazarse sin esperar
+        encoder = new BCryptPoolPasswordEncoder(1, 1, 60_000, 14);
+        clientes = Executors.newFixedThreadPool(2);
+        clientes.submit(() -> encoder.encode("primera"));
+        clientes.submit(() -> encoder.encode("segunda"));
+        while (encoder.getHilosActivos() < 1 || encoder.getTareasEnCola() < 1) {
+            Thread.sleep(5);
+        }
+
+        long inicio = System.nanoTime();
+        assertThrows(ServicioSaturadoException.class, () -> encoder.encode("tercera"));
+        assertTrue((System.nanoTime() - inicio) / 1_000_000 < 100);
+    }
+
+    @Test
+    public void esperaExcedidaLanzaSaturadoTest() {
+        encoder = new BCryptPoolPasswordEncoder(1, 1, 1, 14);
+
+        assertThrows(ServicioSaturadoException.class, () -> encoder.encode("lenta"));
+    }
+
+    @Test
+    public void upgradeEncodingSoloConCostoDistintoTest() {
+        encoder = new BCryptPoolPasswordEncoder(1, 4, 5000, 4);
+        String hashCosto4 = new BCryptPasswordEncoder(4).encode("password123");
+        String hashCosto5 = new BCryptPasswordEncoder(5).encode("password123");
+
+        // Mientras el costo no sea definitivo (calibración pendiente) no se rehashea
+        assertFalse(encoder.upgradeEncoding(hashCosto4));
+
+        encoder.fijarCosto(5);
+        assertTrue(encoder.upgradeEncoding(hashCosto4));
+        assertFalse(encoder.upgradeEncoding(hashCosto5));
+        assertFalse(encoder.upgradeEncoding("textoPlano"));
+    }
+
+    @Test
+    public void calibrarRespetaLimitesTest() {
+        encoder = new BCryptPoolPasswordEncoder(1, 4, 5000, 4);
+
+        assertEquals(4, encoder.calibrar(0, 4, 6));
+        assertEquals(6, encoder.calibrar(60_000, 4, 6));
+        assertEquals(6, encoder.getCosto());
+    }
+}
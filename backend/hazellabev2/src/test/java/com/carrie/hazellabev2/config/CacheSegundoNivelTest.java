@@ -0,0 +1,160 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.services.IndiceVencimientos;
+import com.carrie.hazellabev2.services.MonitorStockCritico;
+import com.carrie.hazellabev2.services.ProductoSearchIndex;
+import com.carrie.hazellabev2.services.RefrescoProductos;
+import com.carrie.hazellabev2.services.RevisionCatalogo;
+import com.carrie.hazellabev2.services.StockService;
+import com.carrie.hazellabev2.services.StockServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Sin la transacción de prueba: las entidades entran al caché de segundo nivel recién al confirmar
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ContadorConsultasSql.class, StockServiceImpl.class, RevisionCatalogo.class, RefrescoProductos.class, IndiceVencimientos.class, MonitorStockCritico.class,
+        ProductoSearchIndex.class, CacheSegundoNivelTest.CacheTestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheSegundoNivelTest {
+
+    @TestConfiguration
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private javax.cache.CacheManager cacheSegundoNivel;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    @AfterEach
+    void limpiar() {
+        productoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void productoYCategoriaSeLeenDesdeMemoriaTest() {
+        Categoria categoria = categoriaRepository.save(new Categoria(null, "Reactivos", null));
+        Producto producto = productoRepository.save(producto("Ácido acético", categoria));
+        entityManagerFactory.getCache().evictAll();
+
+        assertTrue(contarConsultas(() -> productoRepository.findById(producto.getId())) > 0);
+
+        Producto desdeCache = ejecutar(() -> productoRepository.findById(producto.getId()).orElseThrow());
+        assertEquals(0, ultimaCuenta);
+        assertEquals("Reactivos", desdeCache.getCategory().getNombre());
+
+        Cache<?, ?> region = cacheSegundoNivel.getCache(CacheSegundoNivelConfig.REGION_CATEGORIAS).unwrap(Cache.class);
+        assertTrue(region.stats().hitCount() > 0);
+    }
+
+    @Test
+    void consultaDeCategoriasSeInvalidaAlEscribirTest() {
+        categoriaRepository.save(new Categoria(null, "Vidriería", null));
+
+        contarConsultas(() -> categoriaRepository.findAll());
+        assertEquals(0, contarConsultas(() -> categoriaRepository.findAll()));
+
+        categoriaRepository.save(new Categoria(null, "Solventes", null));
+
+        List<Categoria> categorias = ejecutar(() -> (List<Categoria>) categoriaRepository.findAll());
+        assertTrue(ultimaCuenta > 0);
+        assertEquals(2, categorias.size());
+    }
+
+    @Test
+    void cambioDeStockInvalidaSoloEseProductoTest() {
+        Producto producto = productoRepository.save(producto("Etanol", null));
+        Producto otro = productoRepository.save(producto("Metanol", null));
+        productoRepository.findById(producto.getId());
+        productoRepository.findById(otro.getId());
+
+        stockService.descontar(producto.getId(), 3);
+
+        assertEquals(7, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        // Un UPDATE masivo en HQL habría vaciado la región completa
+        assertTrue(entityManagerFactory.getCache().contains(Producto.class, otro.getId()));
+        assertEquals(0, contarConsultas(() -> productoRepository.findById(otro.getId())));
+    }
+
+    @Test
+    void consultaDerivadaDeProductosSeCacheaTest() {
+        productoRepository.save(producto("Acetona", null));
+
+        contarConsultas(() -> productoRepository.findByActiveStatus(true));
+        assertEquals(0, contarConsultas(() -> productoRepository.findByActiveStatus(true)));
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private int ultimaCuenta;
+
+    private <T> T ejecutar(Supplier<T> accion) {
+        ContadorConsultasSql.iniciar();
+        try {
+            return accion.get();
+        } finally {
+            ultimaCuenta = ContadorConsultasSql.terminar().getTotal();
+        }
+    }
+
+    private int contarConsultas(Runnable accion) {
+        ejecutar(() -> {
+            accion.run();
+            return null;
+        });
+        return ultimaCuenta;
+    }
+
+    private static Producto producto(String nombre, Categoria categoria) {
+        Producto producto = new Producto();
+        producto.setName(nombre);
+        producto.setStock(10);
+        producto.setActiveStatus(true);
+        producto.setCategory(categoria);
+        return producto;
+    }
+}
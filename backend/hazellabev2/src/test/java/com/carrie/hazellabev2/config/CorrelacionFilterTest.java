@@ -0,0 +1,61 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+
+public class CorrelacionFilterTest {
+
+    private final CorrelacionFilter filter = new CorrelacionFilter();
+
+    @Test
+    public void reutilizaElIdRecibidoTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+        request.addHeader(CorrelacionFilter.HEADER, "proxy-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String enMdc = filtrar(request, response);
+
+        assertEquals("proxy-123", enMdc);
+        assertEquals("proxy-123", response.getHeader(CorrelacionFilter.HEADER));
+        assertNull(MDC.get(CorrelacionFilter.MDC_REQUEST_ID));
+    }
+
+    @Test
+    public void generaIdSiFaltaOEsInvalidoTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+        request.addHeader(CorrelacionFilter.HEADER, "id con espacios\ny salto de línea");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String enMdc = filtrar(request, response);
+
+        assertTrue(enMdc.matches("[0-9a-f]{16}"));
+        assertEquals(enMdc, response.getHeader(CorrelacionFilter.HEADER));
+
+        String otro = filtrar(new MockHttpServletRequest("GET", "/api/productos"), new MockHttpServletResponse());
+        assertNotEquals(enMdc, otro);
+    }
+
+    // Devuelve el requestId que vio el resto de la cadena
+    private String filtrar(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> visto = new AtomicReference<>();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse res) {
+                visto.set(MDC.get(CorrelacionFilter.MDC_REQUEST_ID));
+            }
+        }));
+        return visto.get();
+    }
+}
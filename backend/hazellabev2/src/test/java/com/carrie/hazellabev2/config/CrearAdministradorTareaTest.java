@@ -0,0 +1,84 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CrearAdministradorTareaTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private CrearAdministradorTarea tarea;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(tarea, "email", "admin@duoc.cl");
+        ReflectionTestUtils.setField(tarea, "password", "clave-segura");
+        ReflectionTestUtils.setField(tarea, "rut", "11111111-1");
+    }
+
+    @Test
+    public void creaAdministradorSiNoExisteTest() {
+        when(usuarioRepository.findByEmail("admin@duoc.cl")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("clave-segura")).thenReturn("hash");
+
+        tarea.run(new DefaultApplicationArguments());
+
+        ArgumentCaptor<Usuario> guardado = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioRepository).save(guardado.capture());
+        assertEquals("hash", guardado.getValue().getPassword());
+        assertEquals("super_admin", guardado.getValue().getRole());
+        assertEquals("activo", guardado.getValue().getStatus());
+        assertEquals("11111111-1", guardado.getValue().getRut());
+    }
+
+    @Test
+    public void restablecePasswordSiYaExisteTest() {
+        Usuario existente = new Usuario();
+        existente.setId(7L);
+        existente.setEmail("admin@duoc.cl");
+        existente.setPassword("hash-viejo");
+        existente.setRole("cliente");
+        when(usuarioRepository.findByEmail("admin@duoc.cl")).thenReturn(Optional.of(existente));
+        when(passwordEncoder.encode("clave-segura")).thenReturn("hash-nuevo");
+
+        tarea.run(new DefaultApplicationArguments());
+
+        verify(usuarioRepository).save(existente);
+        assertEquals("hash-nuevo", existente.getPassword());
+        assertEquals("super_admin", existente.getRole());
+    }
+
+    @Test
+    public void sinPasswordNoHaceNadaTest() {
+        ReflectionTestUtils.setField(tarea, "password", "");
+
+        assertThrows(IllegalArgumentException.class, () -> tarea.run(new DefaultApplicationArguments()));
+        verify(usuarioRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,30 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import com.carrie.hazellabev2.services.LimitadorLogin;
+import com.carrie.hazellabev2.services.MetricasNegocio;
+import com.carrie.hazellabev2.services.ProductoServiceImpl;
+import com.carrie.hazellabev2.services.StockServiceImpl;
+
+public class InicioConfigTest {
+
+    private final LazyInitializationExcludeFilter filtro = InicioConfig.inicioAnticipado();
+
+    @Test
+    public void beansConTareasProgramadasNoSonPerezososTest() {
+        assertTrue(filtro.isExcluded("stockServiceImpl", null, StockServiceImpl.class));
+        assertTrue(filtro.isExcluded("limitadorLogin", null, LimitadorLogin.class));
+        assertTrue(filtro.isExcluded("metricasNegocio", null, MetricasNegocio.class));
+    }
+
+    @Test
+    public void restoDeBeansSonPerezososTest() {
+        assertFalse(filtro.isExcluded("productoServiceImpl", null, ProductoServiceImpl.class));
+        assertFalse(filtro.isExcluded("crearAdministradorTarea", null, CrearAdministradorTarea.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class LimiteConcurrenciaFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LimiteConcurrenciaFilter filter = new LimiteConcurrenciaFilter(1, 50, registry);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void cerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void sinCupoRespondeServicioNoDisponibleTest() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<Integer> lenta = executor.submit(() -> filtrar("/api/productos", () -> {
+            dentro.countDown();
+            liberar.await();
+        }));
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        assertEquals(503, filtrar("/api/productos", () -> { }));
+        assertEquals(1.0, registry.get("hazellab.concurrencia.rechazos").counter().count());
+        assertEquals(1.0, registry.get("hazellab.concurrencia.en.curso").gauge().value());
+
+        liberar.countDown();
+        assertEquals(200, lenta.get(5, TimeUnit.SECONDS));
+        // Al terminar la petición lenta el cupo vuelve a estar libre
+        assertEquals(200, filtrar("/api/productos", () -> { }));
+    }
+
+    @Test
+    public void rutasFueraDeApiNoUsanCupoTest() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        executor.submit(() -> filtrar("/api/carrito", () -> {
+            dentro.countDown();
+            liberar.await();
+        }));
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        assertEquals(200, filtrar("/actuator/health", () -> { }));
+        liberar.countDown();
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private interface Trabajo {
+        void ejecutar() throws Exception;
+    }
+
+    private int filtrar(String uri, Trabajo trabajo) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                try {
+                    trabajo.ejecutar();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }));
+        return response.getStatus();
+    }
+}
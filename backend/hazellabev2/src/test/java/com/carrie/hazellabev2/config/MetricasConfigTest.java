@@ -0,0 +1,42 @@
+package com.carrie.hazellabev2.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void prometheusExponeMetricasDeLaAplicacionTest() throws Exception {
+        // Una petición previa para que exista la serie de http.server.requests
+        mockMvc.perform(get("/api/ubicacion/regiones")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/ubicacion/regiones\"")))
+                .andExpect(content().string(not(containsString("uri=\"/actuator/prometheus\""))))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hazellab_bcrypt_verificacion_seconds_count")))
+                .andExpect(content().string(containsString("hazellab_carrito_lineas_count")))
+                .andExpect(content().string(containsString("hazellab_login_limitador_intentos_total")))
+                .andExpect(content().string(containsString("hazellab_busqueda_productos")));
+    }
+}
@@ -0,0 +1,80 @@
+package com.carrie.hazellabev2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReservaConexionesDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection real = mock(Connection.class);
+    private final ExecutorService otroHilo = Executors.newSingleThreadExecutor();
+    private ReservaConexionesDataSource dataSource;
+
+    @BeforeEach
+    void configurar() throws Exception {
+        when(pool.getConnection()).thenReturn(real);
+        dataSource = new ReservaConexionesDataSource(pool, 1, 50);
+    }
+
+    @AfterEach
+    void cerrar() {
+        otroHilo.shutdownNow();
+    }
+
+    @Test
+    public void conexionAnidadaNoEsperaPermisoTest() throws Exception {
+        try (Connection primera = dataSource.getConnection()) {
+            // Con el único permiso tomado, el mismo hilo obtiene igual su conexión anidada
+            try (Connection anidada = dataSource.getConnection()) {
+                assertEquals(1, dataSource.getPermisosEnUso());
+            }
+            assertEquals(1, dataSource.getPermisosEnUso());
+        }
+        assertEquals(0, dataSource.getPermisosEnUso());
+    }
+
+    @Test
+    public void otroHiloEsperaYFallaSinPermisoTest() throws Exception {
+        Connection primera = dataSource.getConnection();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> otroHilo.submit(() -> dataSource.getConnection()).get(5, TimeUnit.SECONDS));
+        assertEquals(SQLTransientConnectionException.class, error.getCause().getClass());
+
+        primera.close();
+        otroHilo.submit(() -> {
+            dataSource.getConnection().close();
+            return null;
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(0, dataSource.getPermisosEnUso());
+    }
+
+    @Test
+    public void cerrarDosVecesDevuelveUnSoloPermisoTest() throws Exception {
+        Connection conexion = dataSource.getConnection();
+
+        conexion.close();
+        conexion.close();
+
+        assertEquals(0, dataSource.getPermisosEnUso());
+        assertEquals(1, dataSource.getPermisosMaximos());
+        verify(real, times(2)).close();
+    }
+}
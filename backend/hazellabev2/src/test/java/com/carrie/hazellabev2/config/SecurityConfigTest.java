@@ -0,0 +1,162 @@
+package com.carrie.hazellabev2.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+import com.carrie.hazellabev2.services.TokenService;
+
+/**
+ * Reglas de acceso con la API protegida: un token de cliente no administra catálogo ni usuarios
+ * y solo opera sobre su propio carrito.
+ */
+@SpringBootTest(properties = "hazellab.seguridad.proteger-api=true")
+@AutoConfigureMockMvc
+public class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    private String tokenCliente;
+    private String tokenAdmin;
+
+    @BeforeEach
+    void init() {
+        tokenCliente = "Bearer " + tokenService.generarAcceso(new Usuario(2L, "cliente", "cliente@duoc.cl", "11111111-1",
+                null, "cliente", "activo", LocalDateTime.now(), null, null, null, null, null, null));
+        tokenAdmin = "Bearer " + tokenService.generarAcceso(new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9",
+                null, "admin", "activo", LocalDateTime.now(), null, null, null, null, null, null));
+    }
+
+    @Test
+    public void clienteNoAdministraUsuariosTest() throws Exception {
+        mockMvc.perform(get("/api/usuarios").header(HttpHeaders.AUTHORIZATION, tokenCliente))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/usuarios/2").header(HttpHeaders.AUTHORIZATION, tokenCliente)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"super_admin\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/usuarios/2").header(HttpHeaders.AUTHORIZATION, tokenCliente)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"super_admin\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/usuarios/1").header(HttpHeaders.AUTHORIZATION, tokenCliente))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void clienteNoModificaCatalogoTest() throws Exception {
+        mockMvc.perform(put("/api/productos/1").header(HttpHeaders.AUTHORIZATION, tokenCliente)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nombre\":\"x\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/productos/1").header(HttpHeaders.AUTHORIZATION, tokenCliente))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/categorias").header(HttpHeaders.AUTHORIZATION, tokenCliente)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nombre\":\"x\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void exportacionSoloAdministradoresTest() throws Exception {
+        mockMvc.perform(get("/api/productos/exportar"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/productos/exportar").header(HttpHeaders.AUTHORIZATION, tokenCliente))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/productos/exportar").header(HttpHeaders.AUTHORIZATION, tokenAdmin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void streamDelCatalogoSoloAdministradoresTest() throws Exception {
+        mockMvc.perform(get("/api/productos/stream").header(HttpHeaders.AUTHORIZATION, tokenCliente))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/productos/stream").header(HttpHeaders.AUTHORIZATION, tokenAdmin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void clienteSoloOperaSobreSuCarritoTest() throws Exception {
+        Usuario duenio = crearUsuario("duenio");
+        Usuario otro = crearUsuario("otro");
+        Producto producto = new Producto();
+        producto.setName("Pipeta de seguridad");
+        producto.setStock(10);
+        producto.setActiveStatus(true);
+        producto = productoRepository.save(producto);
+        ItemCarrito item = itemCarritoRepository.save(new ItemCarrito(null, 1, producto, duenio));
+        String tokenDuenio = "Bearer " + tokenService.generarAcceso(duenio);
+        String tokenOtro = "Bearer " + tokenService.generarAcceso(otro);
+
+        try {
+            mockMvc.perform(get("/api/itemscarrito").header(HttpHeaders.AUTHORIZATION, tokenOtro))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get("/api/itemscarrito/usuario/" + duenio.getId()).header(HttpHeaders.AUTHORIZATION, tokenOtro))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post("/api/itemscarrito/usuario/" + duenio.getId() + "/lote").header(HttpHeaders.AUTHORIZATION, tokenOtro)
+                    .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(delete("/api/itemscarrito/" + item.getId()).header(HttpHeaders.AUTHORIZATION, tokenOtro))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post("/api/stock/reservas/item/" + item.getId()).header(HttpHeaders.AUTHORIZATION, tokenOtro))
+                    .andExpect(status().isForbidden());
+
+            mockMvc.perform(get("/api/itemscarrito/usuario/" + duenio.getId()).header(HttpHeaders.AUTHORIZATION, tokenDuenio))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/itemscarrito/usuario/" + duenio.getId()).header(HttpHeaders.AUTHORIZATION, tokenAdmin))
+                    .andExpect(status().isOk());
+        } finally {
+            itemCarritoRepository.deleteById(item.getId());
+            productoRepository.deleteById(producto.getId());
+            usuarioRepository.deleteById(duenio.getId());
+            usuarioRepository.deleteById(otro.getId());
+        }
+    }
+
+    @Test
+    public void catalogoSiguePublicoTest() throws Exception {
+        mockMvc.perform(get("/api/productos"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categorias"))
+                .andExpect(status().isOk());
+    }
+
+    private Usuario crearUsuario(String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(nombre);
+        usuario.setEmail(nombre + System.nanoTime() + "@duoc.cl");
+        usuario.setRut(String.valueOf(System.nanoTime()));
+        usuario.setPassword("secreto");
+        usuario.setRole("cliente");
+        return usuarioRepository.save(usuario);
+    }
+}
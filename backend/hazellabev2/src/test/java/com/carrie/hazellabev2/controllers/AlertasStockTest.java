@@ -0,0 +1,87 @@
+package com.carrie.hazellabev2.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.services.ProductoService;
+import com.carrie.hazellabev2.services.StockService;
+
+/**
+ * Alertas de stock crítico por Server-Sent Events: estado inicial al conectarse y un evento por
+ * cada producto que cruza su umbral.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AlertasStockTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private Producto producto;
+
+    @AfterEach
+    public void limpiar() {
+        if (producto != null) {
+            productoService.eliminar(producto.getId());
+        }
+    }
+
+    @Test
+    public void suscriptorRecibeEstadoInicialYTransicionesTest() throws Exception {
+        MvcResult suscripcion = mockMvc.perform(get("/api/stock/alertas"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        esperarEvento(suscripcion, "event:criticos");
+
+        Producto nuevo = new Producto();
+        nuevo.setName("Ácido sulfúrico");
+        nuevo.setStock(12);
+        nuevo.setStockCritico(10);
+        nuevo.setActiveStatus(true);
+        producto = productoService.crear(nuevo);
+
+        stockService.descontar(producto.getId(), 2);
+        esperarEvento(suscripcion, "event:entro");
+        // El nombre del evento y sus datos se escriben por separado: se espera también el JSON
+        esperarEvento(suscripcion, "\"productoId\":" + producto.getId());
+
+        mockMvc.perform(get("/api/productos/stock-bajo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + producto.getId() + ")]").exists());
+
+        stockService.reponer(producto.getId(), 5);
+        esperarEvento(suscripcion, "event:salio");
+    }
+
+    private static void esperarEvento(MvcResult suscripcion, String evento) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!suscripcion.getResponse().getContentAsString().contains(evento)
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(suscripcion.getResponse().getContentAsString().contains(evento),
+                "No llegó " + evento + ": " + suscripcion.getResponse().getContentAsString());
+    }
+}
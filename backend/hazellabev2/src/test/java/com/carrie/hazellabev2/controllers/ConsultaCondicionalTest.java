@@ -0,0 +1,169 @@
+package com.carrie.hazellabev2.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.carrie.hazellabev2.config.ConsultasSqlFilter;
+import com.carrie.hazellabev2.entities.Blog;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.BlogRepository;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.services.BlogService;
+import com.carrie.hazellabev2.services.CategoriaService;
+import com.carrie.hazellabev2.services.StockService;
+
+/**
+ * GET condicional (ETag débil por revisión del catálogo) y compresión de los listados públicos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public class ConsultaCondicionalTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private StockService stockService;
+
+    private Producto producto;
+
+    @BeforeEach
+    public void sembrar() {
+        Categoria categoria = categoriaRepository.save(new Categoria(null, "Reactivos", null));
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Producto nuevo = new Producto();
+            nuevo.setName("Reactivo de laboratorio con descripción larga número " + i);
+            nuevo.setDescription("Producto de prueba para verificar la compresión de los listados del catálogo");
+            nuevo.setStock(10);
+            nuevo.setActiveStatus(true);
+            nuevo.setDestacado(i % 2 == 0);
+            nuevo.setCategory(categoria);
+            productos.add(nuevo);
+        }
+        productoRepository.saveAll(productos);
+        producto = productos.get(0);
+    }
+
+    @AfterEach
+    public void limpiar() {
+        productoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        blogRepository.deleteAll();
+    }
+
+    @Test
+    public void listadoSinCambiosRespondeNoModificadoSinConsultarTest() throws Exception {
+        MvcResult primera = mockMvc.perform(get("/api/productos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MvcResult segunda = mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andReturn();
+        assertEquals(0, segunda.getRequest().getAttribute(ConsultasSqlFilter.ATRIBUTO_CONSULTAS));
+
+        // El ETag no depende de la página pedida: basta con la revisión del catálogo
+        mockMvc.perform(get("/api/productos/destacados").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void cambioDeStockInvalidaElEtagTest() throws Exception {
+        String etag = etag("/api/productos?page=0&limit=20");
+
+        stockService.descontar(producto.getId(), 1);
+
+        String nuevo = mockMvc.perform(get("/api/productos?page=0&limit=20").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nuevo);
+    }
+
+    @Test
+    public void categoriasYBlogsUsanSuPropiaRevisionTest() throws Exception {
+        String etagCategorias = etag("/api/categorias");
+        String etagBlogs = etag("/api/blogs");
+
+        blogService.crear(new Blog(null, "Normas de bioseguridad", "Contenido", "Resumen", "Autor", null));
+
+        mockMvc.perform(get("/api/categorias").header(HttpHeaders.IF_NONE_MATCH, etagCategorias))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/blogs").header(HttpHeaders.IF_NONE_MATCH, etagBlogs))
+                .andExpect(status().isOk());
+
+        // Renombrar una categoría cambia el JSON de los productos que la incluyen
+        String etagProductos = etag("/api/productos");
+        Categoria categoria = categoriaRepository.findAll().iterator().next();
+        categoriaService.actualizar(categoria.getId(), new Categoria(null, "Reactivos analíticos", null));
+        mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, etagProductos))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void listadoGrandeSeComprimeTest() throws Exception {
+        HttpClient cliente = HttpClient.newHttpClient();
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/productos"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build();
+
+        HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, respuesta.statusCode());
+        assertEquals("gzip", respuesta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,135 @@
+package com.carrie.hazellabev2.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.carrie.hazellabev2.config.ConsultasSqlFilter;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+/**
+ * Presupuesto de consultas SQL por endpoint: la cantidad de consultas no debe crecer con la
+ * cantidad de filas. Si un cambio introduce un N+1 estas pruebas fallan con el total medido.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PresupuestoConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    public void sembrar() {
+        List<Categoria> categorias = List.of(
+                new Categoria(null, "Reactivos", null),
+                new Categoria(null, "Material de vidrio", null),
+                new Categoria(null, "Equipos", null));
+        categoriaRepository.saveAll(categorias);
+
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Producto producto = new Producto();
+            producto.setName("Producto " + i);
+            producto.setStock(10);
+            producto.setActiveStatus(true);
+            producto.setCategory(categorias.get(i % categorias.size()));
+            productos.add(producto);
+        }
+        productoRepository.saveAll(productos);
+
+        usuario = new Usuario();
+        usuario.setEmail("presupuesto@gmail.com");
+        usuario.setRut("presupuesto-1");
+        usuario.setPassword("secreto");
+        usuarioRepository.save(usuario);
+
+        List<ItemCarrito> items = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            items.add(new ItemCarrito(null, 1 + i, productos.get(i * 2), usuario));
+        }
+        itemCarritoRepository.saveAll(items);
+
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @AfterEach
+    public void limpiar() {
+        itemCarritoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        productoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+    }
+
+    @Test
+    public void carritoPorUsuarioUsaUnaConsultaTest() throws Exception {
+        assertEquals(1, consultas("/api/itemscarrito/usuario/" + usuario.getId()));
+    }
+
+    @Test
+    public void vistaDelCarritoUsaUnaConsultaTest() throws Exception {
+        assertEquals(1, consultas("/api/itemscarrito/usuario/" + usuario.getId() + "/vista"));
+    }
+
+    @Test
+    public void paginaDeProductosNoDependeDeLasFilasTest() throws Exception {
+        int conPocas = consultas("/api/productos?page=0&limit=3");
+        int conMuchas = consultas("/api/productos?page=0&limit=12");
+
+        assertEquals(conPocas, conMuchas);
+        assertEquals(1, conMuchas);
+    }
+
+    @Test
+    public void listadoCompletoDeProductosUsaUnaConsultaTest() throws Exception {
+        // La categoría viene en el mismo SELECT, no una consulta por cada categoría distinta
+        assertEquals(1, consultas("/api/productos"));
+    }
+
+    @Test
+    public void productosPorCategoriaUsaUnaConsultaTest() throws Exception {
+        Long categoriaId = productoRepository.findAll().iterator().next().getCategory().getId();
+        assertEquals(1, consultas("/api/productos/buscar/categoria?categoriaId=" + categoriaId));
+    }
+
+    private int consultas(String url) throws Exception {
+        MvcResult resultado = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        return (Integer) resultado.getRequest().getAttribute(ConsultasSqlFilter.ATRIBUTO_CONSULTAS);
+    }
+}
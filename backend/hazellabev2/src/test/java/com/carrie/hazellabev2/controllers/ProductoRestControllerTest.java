@@ -1,12 +1,20 @@
 package com.carrie.hazellabev2.controllers;
 
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -19,9 +27,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.carrie.hazellabev2.dto.ErrorImportacionDTO;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
+import com.carrie.hazellabev2.dto.ResultadoImportacionDTO;
 import com.carrie.hazellabev2.entities.Categoria;
 import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.services.ImportacionService;
 import com.carrie.hazellabev2.services.ProductoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -38,6 +51,9 @@ public class ProductoRestControllerTest {
     @MockBean
     private ProductoService productoService;
 
+    @MockBean
+    private ImportacionService importacionService;
+
     /* =========================================================
        🧪 TEST: Listar productos
     ========================================================= */
@@ -239,13 +255,134 @@ public class ProductoRestControllerTest {
                 3000, 40, 10, "Distribuidora Alcoholes Ltda.", cat,
                 "nueva-imagen.jpg", true, LocalDateTime.now(), false);
 
-        when(productoService.obtenerPorID(id)).thenReturn(producto);
-        when(productoService.actualizar(org.mockito.ArgumentMatchers.eq(id),
-                org.mockito.ArgumentMatchers.any(Producto.class))).thenReturn(producto);
+        when(productoService.actualizarImagen(id, "http://imagenes.com/img.jpg")).thenReturn(producto);
 
         mockMvc.perform(post("/api/productos/{id}/upload-image", id)
                 .param("imageUrl", "http://imagenes.com/img.jpg")
                 .contentType(MediaType.MULTIPART_FORM_DATA))
                 .andExpect(status().isOk());
     }
+
+    /* =========================================================
+       🧪 TEST: Vista de tarjeta y campos dispersos (fields)
+    ========================================================= */
+    @Test
+    public void listarTarjetasTest() throws Exception {
+        when(productoService.listarTarjetas(0, 50)).thenReturn(List.of(
+                new ProductoTarjetaDTO(1L, "Etanol", 3000, "imagen2.jpg", 3, 5, "Químicos")));
+
+        mockMvc.perform(get("/api/productos/tarjetas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Etanol"))
+                .andExpect(jsonPath("$[0].categoria").value("Químicos"))
+                .andExpect(jsonPath("$[0].estadoStock").value(ProductoTarjetaDTO.STOCK_BAJO))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    public void listarTarjetasConCamposTest() throws Exception {
+        when(productoService.listarTarjetasDestacadas()).thenReturn(List.of(
+                new ProductoTarjetaDTO(1L, "Etanol", 3000, "imagen2.jpg", 40, 10, "Químicos")));
+
+        mockMvc.perform(get("/api/productos/tarjetas")
+                .param("destacados", "true")
+                .param("fields", "id, name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Etanol"))
+                .andExpect(jsonPath("$[0].cost").doesNotExist())
+                .andExpect(jsonPath("$[0].image").doesNotExist());
+    }
+
+    @Test
+    public void listarTarjetasCampoInvalidoTest() throws Exception {
+        mockMvc.perform(get("/api/productos/tarjetas").param("fields", "id,description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /* =========================================================
+       🧪 TEST: Importación y exportación masiva
+    ========================================================= */
+    @Test
+    public void importarCsvTest() throws Exception {
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        resultado.setFilas(2);
+        resultado.setCreados(1);
+        resultado.setConError(1);
+        resultado.getErrores().add(new ErrorImportacionDTO(3, "L-2", "name es obligatorio para un lote nuevo."));
+        when(importacionService.importarCsv(any())).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/productos/importar")
+                .contentType("text/csv")
+                .content("batchCode,name\nL-1,Etanol\nL-2,\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.errores[0].fila").value(3));
+    }
+
+    @Test
+    public void importarCsvEncabezadoInvalidoTest() throws Exception {
+        when(importacionService.importarCsv(any())).thenThrow(new IllegalArgumentException("Columnas desconocidas: precio"));
+
+        mockMvc.perform(post("/api/productos/importar")
+                .contentType("text/csv")
+                .content("batchCode,precio\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportarFormatoInvalidoTest() throws Exception {
+        // Sin despacho asíncrono: el 400 se responde antes de empezar a transmitir
+        mockMvc.perform(get("/api/productos/exportar").param("formato", "xlsx"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Formato no soportado: xlsx. Use csv o ndjson."));
+    }
+
+    @Test
+    public void exportarCsvTransmiteCatalogoTest() throws Exception {
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(0);
+            salida.write("nombre,codigo\nEtanol,ETH002\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(importacionService).exportarCsv(any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/productos/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().string("nombre,codigo\nEtanol,ETH002\n"));
+    }
+
+    /* =========================================================
+       🧪 TEST: Actualización parcial (PATCH, JSON Merge Patch)
+    ========================================================= */
+    @Test
+    public void parcharProductoTest() throws Exception {
+        Categoria cat = new Categoria(1L, "Químicos", null);
+        Producto producto = new Producto(1L, "Etanol", "Lote002", "Alcohol", "ETH002",
+                Date.valueOf("2027-06-30"), Date.valueOf("2024-02-01"),
+                3000, 12, 10, "Distribuidora Alcoholes Ltda.", cat,
+                "imagen2.jpg", true, LocalDateTime.now(), false);
+        when(productoService.parchar(eq(1L), any())).thenReturn(producto);
+
+        mockMvc.perform(patch("/api/productos/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .content("{\"stockCritico\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockCritico").value(10));
+    }
+
+    @Test
+    public void parcharProductoCampoInvalidoTest() throws Exception {
+        when(productoService.parchar(eq(1L), any()))
+                .thenThrow(new IllegalArgumentException("El campo 'id' no existe o no se puede modificar."));
+
+        mockMvc.perform(patch("/api/productos/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .content("{\"id\": 9}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,67 @@
+package com.carrie.hazellabev2.controllers;
+
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.carrie.hazellabev2.services.StockService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StockRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockService stockService;
+
+    /* =========================================================
+       🧪 TEST: Liberar reserva inexistente
+    ========================================================= */
+    @Test
+    public void liberarReservaInexistenteTest() throws Exception {
+        doThrow(new RuntimeException("Reserva no encontrada.")).when(stockService).liberar(99L);
+
+        mockMvc.perform(delete("/api/stock/reservas/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Reserva no encontrada."));
+    }
+
+    /* =========================================================
+       🧪 TEST: Reponer con cantidad inválida o producto inexistente
+    ========================================================= */
+    @Test
+    public void reponerCantidadInvalidaTest() throws Exception {
+        doThrow(new IllegalArgumentException("La cantidad debe ser mayor a cero.")).when(stockService).reponer(1L, 0);
+
+        mockMvc.perform(post("/api/stock/productos/1/reponer").param("cantidad", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("La cantidad debe ser mayor a cero."));
+    }
+
+    @Test
+    public void reponerProductoInexistenteTest() throws Exception {
+        doThrow(new RuntimeException("Producto no encontrado.")).when(stockService).reponer(99L, 5);
+
+        mockMvc.perform(post("/api/stock/productos/99/reponer").param("cantidad", "5"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void descontarCantidadInvalidaTest() throws Exception {
+        doThrow(new IllegalArgumentException("La cantidad debe ser mayor a cero.")).when(stockService).descontar(1L, -2);
+
+        mockMvc.perform(post("/api/stock/productos/1/descontar").param("cantidad", "-2"))
+                .andExpect(status().isBadRequest());
+    }
+}
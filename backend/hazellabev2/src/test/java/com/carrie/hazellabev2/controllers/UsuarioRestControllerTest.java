@@ -1,14 +1,17 @@
 package com.carrie.hazellabev2.controllers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -16,14 +19,17 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.services.TokenService;
 import com.carrie.hazellabev2.services.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -40,6 +46,9 @@ public class UsuarioRestControllerTest {
     @MockitoBean
     private UsuarioService usuarioService;
 
+    @Autowired
+    private TokenService tokenService;
+
     private List<Usuario> usuariosLista;
 
     @Test
@@ -128,6 +137,45 @@ public class UsuarioRestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void registroPublicoIgnoraElRolEnviadoTest() throws Exception {
+        Usuario intruso = new Usuario(
+            null, "intruso", "intruso@duoc.cl", "12345678-9", "password123",
+            "super_admin", "activo", null, null, null, null, null, null, null
+        );
+        when(usuarioService.crear(any(Usuario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        mockMvc.perform(post("/api/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(intruso)))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Usuario> creado = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioService).crear(creado.capture());
+        assertEquals("cliente", creado.getValue().getRole());
+    }
+
+    @Test
+    public void administradorEligeElRolAlCrearTest() throws Exception {
+        Usuario admin = new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9", null,
+            "super_admin", "activo", LocalDateTime.now(), null, null, null, null, null, null);
+        Usuario vendedor = new Usuario(
+            null, "vendedor", "vendedor@duoc.cl", "98765432-1", "password123",
+            "vendedor", "activo", null, null, null, null, null, null, null
+        );
+        when(usuarioService.crear(any(Usuario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        mockMvc.perform(post("/api/usuarios")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.generarAcceso(admin))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(vendedor)))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Usuario> creado = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioService).crear(creado.capture());
+        assertEquals("vendedor", creado.getValue().getRole());
+    }
+
     @Test
     public void crearUsuarioSinRutTest() throws Exception {
         // Nuevo test: validar creación sin RUT
@@ -257,7 +305,8 @@ public class UsuarioRestControllerTest {
         mockMvc.perform(put("/api/usuarios/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(usuario)))
-                .andExpect(status().isInternalServerError());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Usuario no encontrado."));
     }
 
     @Test
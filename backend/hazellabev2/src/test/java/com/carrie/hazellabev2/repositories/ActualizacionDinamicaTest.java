@@ -0,0 +1,74 @@
+package com.carrie.hazellabev2.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.carrie.hazellabev2.config.ContadorConsultasSql;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+
+/**
+ * Con @DynamicUpdate el UPDATE de Producto y Usuario lleva solo las columnas que cambiaron.
+ */
+@DataJpaTest
+@Import(ContadorConsultasSql.class)
+public class ActualizacionDinamicaTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    public void productoActualizaSoloLaColumnaModificadaTest() {
+        Producto producto = new Producto();
+        producto.setName("Acetona");
+        producto.setStock(10);
+        producto.setImage("acetona.jpg");
+        producto = productoRepository.save(producto);
+        entityManager.flush();
+
+        producto.setImage("acetona-v2.jpg");
+        List<String> sentencias = sentenciasAlConfirmar();
+
+        assertEquals(List.of("update producto set image=? where id=?"), sentencias);
+    }
+
+    @Test
+    public void usuarioActualizaSoloLasColumnasModificadasTest() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail("dinamico" + System.nanoTime() + "@duoc.cl");
+        usuario.setRut(String.valueOf(System.nanoTime()));
+        usuario.setPassword("hash");
+        usuario = usuarioRepository.save(usuario);
+        entityManager.flush();
+
+        usuario.setDireccion("Pasaje 12");
+        usuario.setComuna("Concepción");
+        List<String> sentencias = sentenciasAlConfirmar();
+
+        assertEquals(List.of("update usuario set comuna=?,direccion=? where id=?"), sentencias);
+    }
+
+    private List<String> sentenciasAlConfirmar() {
+        ContadorConsultasSql.Registro registro;
+        ContadorConsultasSql.iniciar();
+        try {
+            entityManager.flush();
+        } finally {
+            registro = ContadorConsultasSql.terminar();
+        }
+        return registro.getSentencias().stream().map(String::toLowerCase).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.carrie.hazellabev2.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.carrie.hazellabev2.config.ContadorConsultasSql;
+
+/**
+ * Ejecuta cada finder de los repositorios, captura el SQL que genera Hibernate y le pide a H2 el
+ * plan (EXPLAIN) sobre el esquema de las migraciones. Si alguna consulta recorre una tabla completa
+ * (tableScan) es que falta un índice en db/migration para ese patrón de acceso.
+ */
+@DataJpaTest
+@Import(ContadorConsultasSql.class)
+public class IndicesConsultasTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* ---------------------------------- Productos ---------------------------------- */
+
+    @Test
+    public void productosPorCategoriaUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> productoRepository.findByCategoryId(1L), 1L);
+    }
+
+    @Test
+    public void productosStockBajoUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> productoRepository.findByStockLessThan(5), 5);
+    }
+
+    @Test
+    public void productosActivosUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> productoRepository.findByActiveStatus(true), true);
+    }
+
+    @Test
+    public void productosDestacadosUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> productoRepository.findByDestacadoTrue());
+        assertSinRecorridoCompleto(() -> productoRepository.findTarjetasDestacadas());
+    }
+
+    @Test
+    public void vencimientosUsaIndiceTest() {
+        Date ahora = new Date();
+        Date enUnMes = new Date(ahora.getTime() + 30L * 24 * 60 * 60 * 1000);
+        assertSinRecorridoCompleto(() -> productoRepository.findVencimientosEntre(ahora, enUnMes), ahora, enUnMes);
+        assertSinRecorridoCompleto(() -> productoRepository.findIdsVencidos(ahora, Limit.of(500)), ahora, 500);
+    }
+
+    /* ---------------------------------- Usuarios ---------------------------------- */
+
+    @Test
+    public void usuariosPorRolUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> usuarioRepository.findByRole("admin"), "admin");
+    }
+
+    @Test
+    public void usuariosPorEstadoUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> usuarioRepository.findByStatus("activo"), "activo");
+    }
+
+    @Test
+    public void usuarioPorEmailUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> usuarioRepository.findByEmail("a@duoc.cl"), "a@duoc.cl");
+    }
+
+    /* ---------------------------------- Carrito y reservas ---------------------------------- */
+
+    @Test
+    public void carritoPorUsuarioUsaIndiceTest() {
+        assertSinRecorridoCompleto(() -> itemCarritoRepository.findByUsuarioId(1L), 1L);
+        assertSinRecorridoCompleto(() -> itemCarritoRepository.findVistaByUsuarioId(1L), 1L);
+    }
+
+    @Test
+    public void reservasExpiradasUsaIndiceTest() {
+        LocalDateTime ahora = LocalDateTime.now();
+        assertSinRecorridoCompleto(
+                () -> reservaStockRepository.findByExpiraEnBeforeOrderByExpiraEnAsc(ahora, Limit.of(10)), ahora, 10);
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private void assertSinRecorridoCompleto(Runnable finder, Object... parametros) {
+        ContadorConsultasSql.iniciar();
+        Set<String> sentencias;
+        try {
+            finder.run();
+        } finally {
+            sentencias = ContadorConsultasSql.terminar().getSentencias();
+        }
+        assertFalse(sentencias.isEmpty(), "El finder no ejecutó ninguna consulta");
+
+        for (String sql : sentencias) {
+            List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class, parametros);
+            String texto = String.join("\n", plan);
+            assertFalse(texto.contains("tableScan"), "Recorrido completo de tabla:\n" + texto);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.carrie.hazellabev2.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.carrie.hazellabev2.config.IdGeneradorTabla;
+
+/**
+ * Una base creada con ddl-auto=update antes de adoptar Flyway no ejecuta V1: baseline-on-migrate la
+ * marca en la versión 1 y solo corren las siguientes. Esas versiones tienen que bastar para llegar
+ * al esquema actual.
+ */
+public class MigracionesFlywayTest {
+
+    @Test
+    public void baseExistenteLlegaAlEsquemaActualTest() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:hazellab_anterior;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // La base anterior tiene exactamente el esquema de V1 y datos
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__esquema_inicial.sql")).execute(dataSource);
+        jdbcTemplate.update("insert into usuario (id, email, rut) values (3, 'cliente@hazellab.cl', '1-9')");
+        jdbcTemplate.update("insert into producto (id, name, cost, stock, stock_critico) values (120, 'Pipeta', 0, 5, 1)");
+        jdbcTemplate.update("insert into item_carrito (id, quantity, producto_id, usuario_id) values (7, 2, 120, 3)");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/migration-h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from reserva_stock", Integer.class));
+        assertEquals(List.of("1 BASELINE", "1.1 SQL", "1.2 SQL", "2 SQL", "3 SQL", "4 SQL", "5 SQL"), jdbcTemplate.queryForList(
+                "select concat(\"version\", ' ', \"type\") from \"flyway_schema_history\""
+                + " where \"version\" is not null order by \"installed_rank\"", String.class));
+        // La fila existente se conserva y la columna ya no genera ids por su cuenta
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from item_carrito where id = 7", Integer.class));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into item_carrito (quantity, producto_id, usuario_id) values (1, 120, 3)"));
+        // Los contadores de ids quedan un bloque por encima de los ids existentes
+        assertEquals(7 + IdGeneradorTabla.BLOQUE + 1, jdbcTemplate.queryForObject(
+                "select siguiente from id_generador where nombre = 'item_carrito'", Long.class));
+        assertEquals(120 + IdGeneradorTabla.BLOQUE + 1, jdbcTemplate.queryForObject(
+                "select siguiente from id_generador where nombre = 'producto'", Long.class));
+    }
+}
@@ -0,0 +1,86 @@
+package com.carrie.hazellabev2.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import com.carrie.hazellabev2.config.ContadorConsultasSql;
+import com.carrie.hazellabev2.dto.ProductoTarjetaDTO;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+
+/**
+ * La vista de tarjeta se resuelve en un único SELECT con solo las columnas de la tarjeta.
+ */
+@DataJpaTest
+@Import(ContadorConsultasSql.class)
+public class ProductoTarjetaProyeccionTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    public void tarjetasTraenCategoriaYEstadoDeStockEnUnaConsultaTest() {
+        Categoria categoria = categoriaRepository.save(new Categoria(null, "Solventes", null));
+        // La base H2 se comparte con otras pruebas: solo se miran los productos creados aquí
+        List<Long> ids = List.of(
+                guardar("Acetona", 0, 0, categoria, false),
+                guardar("Etanol", 4, 4, categoria, true),
+                guardar("Tolueno", 12, 10, null, false),
+                guardar("Hexano", 30, 10, categoria, true));
+        // Con ids de tabla los INSERT quedan pendientes hasta el flush: no deben contarse como parte de la consulta
+        entityManager.flush();
+
+        ContadorConsultasSql.iniciar();
+        List<ProductoTarjetaDTO> tarjetas;
+        ContadorConsultasSql.Registro registro;
+        try {
+            tarjetas = productoRepository.findTarjetasByOrderByIdAsc(PageRequest.of(0, 1000));
+        } finally {
+            registro = ContadorConsultasSql.terminar();
+        }
+
+        assertEquals(1, registro.getSentencias().size());
+        String sql = registro.getSentencias().iterator().next().toLowerCase();
+        assertFalse(sql.contains("description"), "La proyección no debe leer columnas del detalle: " + sql);
+
+        tarjetas = tarjetas.stream().filter(tarjeta -> ids.contains(tarjeta.getId())).toList();
+        assertEquals(4, tarjetas.size());
+        assertEquals(ProductoTarjetaDTO.AGOTADO, tarjetas.get(0).getEstadoStock());
+        assertEquals(ProductoTarjetaDTO.STOCK_BAJO, tarjetas.get(1).getEstadoStock());
+        assertEquals(ProductoTarjetaDTO.DISPONIBLE, tarjetas.get(2).getEstadoStock());
+        assertNull(tarjetas.get(2).getCategoria());
+        assertEquals("Solventes", tarjetas.get(3).getCategoria());
+
+        assertEquals(2, productoRepository.findTarjetasDestacadas().stream()
+                .filter(tarjeta -> ids.contains(tarjeta.getId())).count());
+    }
+
+    private Long guardar(String nombre, int stock, int stockCritico, Categoria categoria, boolean destacado) {
+        Producto producto = new Producto();
+        producto.setName(nombre);
+        producto.setDescription("Solvente de laboratorio");
+        producto.setCost(1000);
+        producto.setStock(stock);
+        producto.setStockCritico(stockCritico);
+        producto.setCategory(categoria);
+        producto.setActiveStatus(true);
+        producto.setDestacado(destacado);
+        return productoRepository.save(producto).getId();
+    }
+}
@@ -0,0 +1,227 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.carrie.hazellabev2.dto.ErrorImportacionDTO;
+import com.carrie.hazellabev2.dto.ResultadoImportacionDTO;
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+// Sin la transacción de prueba: cada bloque de la importación confirma la suya. Bloques de 2 filas
+// para que las pruebas crucen varios
+@DataJpaTest(properties = "hazellab.importacion.lote=2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ImportacionServiceImpl.class, ProductoServiceImpl.class, StockServiceImpl.class, ProductoSearchIndex.class, MonitorStockCritico.class,
+        IndiceVencimientos.class, RevisionCatalogo.class, RefrescoProductos.class, ImportacionServiceImplTest.CacheTestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ImportacionServiceImplTest {
+
+    private static final String CATEGORIA = "Reactivos de importación";
+
+    @TestConfiguration
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ProductoSearchIndex searchIndex;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void preparar() {
+        limpiar();
+        categoria = categoriaRepository.save(new Categoria(null, CATEGORIA, null));
+    }
+
+    @AfterEach
+    void limpiar() {
+        productoRepository.deleteAll();
+        categoriaRepository.findAll().forEach(existente -> {
+            if (CATEGORIA.equals(existente.getNombre())) {
+                categoriaRepository.delete(existente);
+            }
+        });
+    }
+
+    @Test
+    void csvCreaYLuegoActualizaPorLoteTest() throws Exception {
+        ResultadoImportacionDTO creacion = importacionService.importarCsv(entrada(
+                "batchCode,name,description,stock,categoria,expDate\r\n"
+                + "L-001,Ácido sulfúrico,\"Corrosivo, 1 L\",10,reactivos de IMPORTACIÓN,2030-01-15\r\n"
+                + "L-002,Etanol,\"Dice \"\"96%\"\"\nen la etiqueta\",5,,\r\n"
+                + "\r\n"
+                + "L-003,Acetona,,7,,\r\n"));
+
+        assertEquals(3, creacion.getCreados());
+        assertEquals(0, creacion.getConError());
+        Producto acido = unico("L-001");
+        assertEquals("Corrosivo, 1 L", acido.getDescription());
+        assertEquals(categoria.getId(), acido.getCategory().getId());
+        assertEquals(Boolean.TRUE, acido.getActiveStatus());
+        assertEquals("Dice \"96%\"\nen la etiqueta", unico("L-002").getDescription());
+
+        // Una celda vacía no borra el valor existente
+        ResultadoImportacionDTO actualizacion = importacionService.importarCsv(entrada(
+                "batchCode,stock,description\nL-001,3,\nL-004,1,\n"));
+
+        assertEquals(1, actualizacion.getActualizados());
+        assertEquals(1, actualizacion.getConError());
+        assertEquals(new ErrorImportacionDTO(3, "L-004", "name es obligatorio para un lote nuevo."),
+                actualizacion.getErrores().get(0));
+        acido = unico("L-001");
+        assertEquals(3, acido.getStock()); // Se descuenta la diferencia con StockService, sin pisar la fila
+        assertEquals("Corrosivo, 1 L", acido.getDescription());
+        assertEquals(categoria.getId(), acido.getCategory().getId());
+        assertEquals(3, productoRepository.count());
+        assertEquals(1, searchIndex.buscar("acetona", null, null, 10).size());
+    }
+
+    @Test
+    void ndjsonReportaErroresPorFilaSinDetenerseTest() throws Exception {
+        ResultadoImportacionDTO resultado = importacionService.importarNdjson(entrada(
+                "{\"batchCode\":\"N-1\",\"name\":\"Pipeta\",\"stock\":4,\"categoria\":\"" + CATEGORIA + "\"}\n"
+                + "{\"batchCode\":\"N-2\",\"name\":\n"
+                + "{\"name\":\"Sin lote\"}\n"
+                + "\n"
+                + "{\"batchCode\":\"N-3\",\"name\":\"Bureta\",\"categoria\":\"Inexistente\"}\n"
+                + "{\"batchCode\":\"N-4\",\"name\":\"Matraz\",\"stock\":-1}\n"
+                + "{\"batchCode\":\"N-5\",\"name\":\"Crisol\",\"elabDate\":\"2026-05-01\",\"expDate\":\"2026-04-01\"}\n"
+                + "{\"batchCode\":\"N-6\",\"name\":\"Probeta\",\"cost\":\"caro\"}\n"
+                + "{\"batchCode\":\"N-1\",\"stock\":9}\n"));
+
+        assertEquals(8, resultado.getFilas());
+        assertEquals(1, resultado.getCreados());
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(6, resultado.getConError());
+        assertEquals(List.of(2L, 3L, 5L, 6L, 7L, 8L),
+                resultado.getErrores().stream().map(ErrorImportacionDTO::getFila).sorted().toList());
+        assertEquals("Valor inválido en cost.", resultado.getErrores().stream()
+                .filter(error -> error.getFila() == 8).findFirst().get().getMensaje());
+        // La fila 8 cae en otro bloque, con N-1 ya guardado: su stock se repone por la diferencia
+        assertEquals(9, unico("N-1").getStock());
+        assertEquals(1, productoRepository.count());
+    }
+
+    @Test
+    void loteRepetidoEnElCatalogoSeRechazaTest() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            Producto duplicado = new Producto();
+            duplicado.setName("Duplicado " + i);
+            duplicado.setBatchCode("D-1");
+            productoRepository.save(duplicado);
+        }
+
+        ResultadoImportacionDTO resultado = importacionService.importarCsv(entrada("batchCode,stock\nD-1,5\n"));
+
+        assertEquals(1, resultado.getConError());
+        assertTrue(resultado.getErrores().get(0).getMensaje().startsWith("El lote está en 2 productos"));
+        assertTrue(productoRepository.findByBatchCodeIn(List.of("D-1")).stream().allMatch(p -> p.getStock() == 0));
+    }
+
+    @Test
+    void stockDeLoteExistenteSeAjustaPorDiferenciaTest() throws Exception {
+        Producto existente = new Producto();
+        existente.setName("Hidróxido de sodio");
+        existente.setBatchCode("S-1");
+        existente.setStock(10);
+        productoRepository.save(existente);
+
+        // Las dos filas caen en el mismo bloque: la segunda parte del stock que dejó la primera
+        ResultadoImportacionDTO resultado = importacionService.importarCsv(entrada("batchCode,stock\nS-1,4\nS-1,6\n"));
+
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(0, resultado.getConError());
+        assertEquals(6, unico("S-1").getStock());
+    }
+
+    @Test
+    void encabezadoConColumnasDesconocidasSeRechazaTest() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> importacionService.importarCsv(entrada("batchCode,precio\nL-1,100\n")));
+        assertTrue(error.getMessage().startsWith("Columnas desconocidas: precio"));
+        assertThrows(IllegalArgumentException.class, () -> importacionService.importarCsv(entrada("name,stock\n")));
+    }
+
+    @Test
+    void exportacionCsvSePuedeReimportarTest() throws Exception {
+        importacionService.importarNdjson(entrada(
+                "{\"batchCode\":\"E-1\",\"name\":\"Reactivo, grado ACS\",\"cost\":1500,\"categoria\":\"" + CATEGORIA
+                + "\",\"elabDate\":\"2025-01-10\",\"expDate\":\"2027-01-10\"}\n"
+                + "{\"batchCode\":\"E-2\",\"name\":\"Agua destilada\",\"destacado\":true}\n"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        importacionService.exportarCsv(csv);
+        String texto = csv.toString(StandardCharsets.UTF_8);
+        List<String> lineas = texto.lines().collect(Collectors.toList());
+
+        assertEquals("batchCode,name,description,chemCode,elabDate,expDate,cost,stock,stockCritico,proveedor,"
+                + "categoria,image,activeStatus,destacado", lineas.get(0));
+        assertEquals("E-1,\"Reactivo, grado ACS\",,,2025-01-10,2027-01-10,1500,0,0,," + CATEGORIA + ",,true,false",
+                lineas.get(1));
+
+        ResultadoImportacionDTO reimportacion = importacionService.importarCsv(entrada(texto));
+        assertEquals(0, reimportacion.getCreados());
+        assertEquals(2, reimportacion.getActualizados());
+        assertEquals(0, reimportacion.getConError());
+        assertEquals(2, productoRepository.count());
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        importacionService.exportarNdjson(ndjson);
+        String segunda = ndjson.toString(StandardCharsets.UTF_8).lines().skip(1).findFirst().get();
+        assertEquals("{\"batchCode\":\"E-2\",\"name\":\"Agua destilada\",\"cost\":0,\"stock\":0,\"stockCritico\":0,"
+                + "\"activeStatus\":true,\"destacado\":true}", segunda);
+        assertNull(unico("E-2").getCategory());
+    }
+
+    /* ---------------------------------- Datos de prueba ---------------------------------- */
+
+    private static InputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Producto unico(String batchCode) {
+        List<Producto> productos = productoRepository.findByBatchCodeIn(List.of(batchCode));
+        assertEquals(1, productos.size());
+        return productos.get(0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+public class IndiceVencimientosTest {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    @InjectMocks
+    private IndiceVencimientos indice;
+
+    @Mock
+    private ProductoRepository repository;
+
+    private final Date hoy = new Date();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void vencidosSaleOrdenadoYCortaEnElPrimeroVigenteTest() {
+        when(repository.findVencimientosActivos()).thenReturn(List.of(
+                new Object[] {1L, dias(5)},
+                new Object[] {2L, dias(-3)},
+                new Object[] {3L, dias(-10)},
+                new Object[] {4L, dias(-1)}));
+        indice.construirAlIniciar();
+
+        assertTrue(indice.isListo());
+        assertEquals(List.of(3L, 2L, 4L), indice.vencidos(hoy, 100));
+        assertEquals(List.of(3L, 2L), indice.vencidos(hoy, 2));
+    }
+
+    @Test
+    public void actualizarMueveOQuitaElLoteTest() {
+        indice.actualizar(producto(1L, dias(-2), true));
+        indice.actualizar(producto(2L, dias(-1), true));
+        assertEquals(List.of(1L, 2L), indice.vencidos(hoy, 100));
+
+        // Se corrigió la fecha del lote 1 y se desactivó el 2
+        indice.actualizar(producto(1L, dias(30), true));
+        indice.actualizar(producto(2L, dias(-1), false));
+        indice.actualizar(producto(3L, null, true));
+
+        assertTrue(indice.vencidos(hoy, 100).isEmpty());
+        assertEquals(1, indice.tamanio());
+        assertEquals(List.of(1L), indice.vencidos(dias(31), 100));
+    }
+
+    private Date dias(int dias) {
+        return new Date(hoy.getTime() + dias * DIA);
+    }
+
+    private static Producto producto(Long id, Date vence, boolean activo) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setExpDate(vence);
+        producto.setActiveStatus(activo);
+        return producto;
+    }
+}
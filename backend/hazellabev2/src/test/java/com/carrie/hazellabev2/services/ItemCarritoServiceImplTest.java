@@ -0,0 +1,124 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.carrie.hazellabev2.dto.OperacionCarritoDTO;
+import com.carrie.hazellabev2.dto.OperacionCarritoDTO.Tipo;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ItemCarritoServiceImplTest {
+
+    @InjectMocks
+    private ItemCarritoServiceImpl service;
+
+    @Mock
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private StockService stockService;
+
+    @Spy
+    private MetricasNegocio metricasNegocio = new MetricasNegocio(new SimpleMeterRegistry());
+
+    private Usuario usuario;
+    private Producto pipeta;
+    private ItemCarrito lineaPipeta;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        usuario = new Usuario();
+        usuario.setId(1L);
+        pipeta = new Producto();
+        pipeta.setId(7L);
+        pipeta.setName("Pipeta");
+        lineaPipeta = new ItemCarrito(10L, 2, pipeta, usuario);
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(itemCarritoRepository.findByUsuarioId(1L)).thenReturn(new ArrayList<>(List.of(lineaPipeta)));
+        when(productoRepository.findAllById(any())).thenReturn(List.of());
+        when(itemCarritoRepository.findVistaByUsuarioId(1L)).thenReturn(List.of());
+    }
+
+    @Test
+    public void eliminarYAgregarElMismoProductoConservaElProductoTest() {
+        service.aplicarOperaciones(1L, List.of(
+                new OperacionCarritoDTO(Tipo.ELIMINAR, 7L, 0),
+                new OperacionCarritoDTO(Tipo.AGREGAR, 7L, 3)));
+
+        assertLineaRecreada(3);
+    }
+
+    @Test
+    public void fijarEnCeroYAgregarElMismoProductoConservaElProductoTest() {
+        service.aplicarOperaciones(1L, List.of(
+                new OperacionCarritoDTO(Tipo.FIJAR_CANTIDAD, 7L, 0),
+                new OperacionCarritoDTO(Tipo.AGREGAR, 7L, 5)));
+
+        assertLineaRecreada(5);
+    }
+
+    @Test
+    public void agregarProductoInexistenteTest() {
+        Exception exception = assertThrows(RuntimeException.class, () -> service.aplicarOperaciones(1L,
+                List.of(new OperacionCarritoDTO(Tipo.AGREGAR, 99L, 1))));
+
+        assertEquals("Producto no encontrado.", exception.getMessage());
+    }
+
+    @Test
+    public void lineasDuplicadasSeFusionanConSuReservaTest() {
+        ItemCarrito duplicada = new ItemCarrito(11L, 3, pipeta, usuario);
+        when(itemCarritoRepository.findByUsuarioId(1L)).thenReturn(new ArrayList<>(List.of(lineaPipeta, duplicada)));
+
+        service.aplicarOperaciones(1L, List.of());
+
+        // La reserva de la duplicada pasa a la línea que queda en vez de devolverse al inventario
+        assertEquals(5, lineaPipeta.getQuantity());
+        verify(stockService).fusionarReserva(11L, 10L);
+        verify(stockService).liberarPorItem(11L);
+        verify(itemCarritoRepository).deleteAll(List.of(duplicada));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertLineaRecreada(int cantidad) {
+        // La línea anterior se borra y devuelve su reserva; la nueva apunta al mismo producto
+        verify(stockService).liberarPorItem(10L);
+        verify(itemCarritoRepository).deleteAll(List.of(lineaPipeta));
+        ArgumentCaptor<List<ItemCarrito>> nuevas = ArgumentCaptor.forClass(List.class);
+        verify(itemCarritoRepository).saveAll(nuevas.capture());
+        assertEquals(1, nuevas.getValue().size());
+        ItemCarrito nueva = nuevas.getValue().get(0);
+        assertSame(pipeta, nueva.getProducto());
+        assertEquals(cantidad, nueva.getQuantity());
+        assertSame(usuario, nueva.getUsuario());
+    }
+}
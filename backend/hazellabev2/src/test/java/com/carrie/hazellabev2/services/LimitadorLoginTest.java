@@ -0,0 +1,111 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class LimitadorLoginTest {
+
+    private static final long MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    public void cubetaAgotadaRechazaYSeRecargaTest() {
+        LimitadorLogin.Cubetas cubetas = new LimitadorLogin.Cubetas(3, 6, 100);
+        long t0 = 1_000_000_000L;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, cubetas.consumir("admin@duoc.cl", t0));
+        }
+        long espera = cubetas.consumir("admin@duoc.cl", t0);
+        // 6 por minuto: un token cada 10 segundos
+        assertEquals(TimeUnit.SECONDS.toNanos(10), espera, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertTrue(cubetas.consumir("admin@duoc.cl", t0 + espera / 2) > 0);
+        assertEquals(0, cubetas.consumir("admin@duoc.cl", t0 + espera));
+        // Otra clave tiene su propia cubeta
+        assertEquals(0, cubetas.consumir("otro@duoc.cl", t0));
+    }
+
+    @Test
+    public void clavesAcotadasDescartanSinCompartirCubetaTest() {
+        LimitadorLogin.Cubetas cubetas = new LimitadorLogin.Cubetas(2, 1, 2);
+        long t0 = System.nanoTime();
+
+        // Una ráfaga de claves distintas no agota el cupo de las siguientes: cada una tiene su cubeta
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, cubetas.consumir("ip-" + i, t0));
+        }
+        assertTrue(cubetas.tamanio() <= 2);
+
+        assertEquals(0, cubetas.consumir("admin@duoc.cl", t0));
+        assertEquals(0, cubetas.consumir("admin@duoc.cl", t0));
+        assertTrue(cubetas.consumir("admin@duoc.cl", t0) > 0);
+    }
+
+    @Test
+    public void purgaDescartaCubetasRecargadasTest() {
+        LimitadorLogin.Cubetas cubetas = new LimitadorLogin.Cubetas(2, 2, 100);
+        long t0 = 1_000_000_000L;
+        cubetas.consumir("inactiva", t0);
+        cubetas.consumir("activa", t0 + MINUTO);
+        cubetas.consumir("activa", t0 + MINUTO);
+
+        cubetas.purgar(t0 + MINUTO);
+
+        assertEquals(1, cubetas.tamanio());
+        assertEquals(0, cubetas.consumir("inactiva", t0 + MINUTO));
+    }
+
+    @Test
+    public void concurrenciaNoPermiteMasQueLaCapacidadTest() throws Exception {
+        LimitadorLogin.Cubetas cubetas = new LimitadorLogin.Cubetas(50, 1, 100);
+        long t0 = System.nanoTime();
+        AtomicInteger permitidos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int j = 0; j < 100; j++) {
+                    if (cubetas.consumir("admin@duoc.cl", t0) == 0) {
+                        permitidos.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, permitidos.get());
+    }
+
+    @Test
+    public void intentarLimitaPorEmailYSeReiniciaConExitoTest() {
+        LimitadorLogin limitador = new LimitadorLogin();
+        ReflectionTestUtils.setField(limitador, "capacidadEmail", 2);
+        ReflectionTestUtils.setField(limitador, "porMinutoEmail", 1);
+        ReflectionTestUtils.setField(limitador, "capacidadIp", 100);
+        ReflectionTestUtils.setField(limitador, "porMinutoIp", 100);
+        ReflectionTestUtils.setField(limitador, "maxClaves", 1000);
+        limitador.inicializar();
+
+        assertEquals(0, limitador.intentar("Admin@duoc.cl", "10.0.0.1"));
+        assertEquals(0, limitador.intentar("admin@duoc.cl ", "10.0.0.2"));
+        assertTrue(limitador.intentar("admin@duoc.cl", "10.0.0.3") > 0);
+        assertEquals(1, limitador.getRechazosPorEmail());
+
+        limitador.registrarExito("admin@duoc.cl");
+        assertEquals(0, limitador.intentar("admin@duoc.cl", "10.0.0.1"));
+        assertEquals(3, limitador.getPermitidos());
+    }
+}
@@ -0,0 +1,139 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.carrie.hazellabev2.dto.AlertaStockDTO;
+import com.carrie.hazellabev2.dto.NivelStockDTO;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+public class MonitorStockCriticoTest {
+
+    @InjectMocks
+    private MonitorStockCritico monitor;
+
+    @Mock
+    private ProductoRepository repository;
+
+    private final List<AlertaStockDTO> alertas = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        monitor.suscribir(alertas::add);
+    }
+
+    @AfterEach
+    public void detener() {
+        monitor.detener();
+    }
+
+    @Test
+    public void cargaInicialYTransicionesTest() throws Exception {
+        when(repository.findNivelesCriticos()).thenReturn(List.of(new NivelStockDTO(1L, 0, 0)));
+        monitor.cargarAlIniciar();
+        assertEquals(Set.of(1L), monitor.idsCriticos());
+
+        when(repository.findNivelStockById(2L)).thenReturn(Optional.of(new NivelStockDTO(2L, 5, 5)));
+        monitor.stockModificado(2L);
+        // Sigue crítico: no genera una alerta nueva
+        when(repository.findNivelStockById(2L)).thenReturn(Optional.of(new NivelStockDTO(2L, 4, 5)));
+        monitor.stockModificado(2L);
+        when(repository.findNivelStockById(1L)).thenReturn(Optional.of(new NivelStockDTO(1L, 20, 0)));
+        monitor.stockModificado(1L);
+
+        esperarAlertas(2);
+        assertEquals(Set.of(2L), monitor.idsCriticos());
+        assertEquals(AlertaStockDTO.ENTRO, alertas.get(0).getTipo());
+        assertEquals(2L, alertas.get(0).getProductoId());
+        assertEquals(AlertaStockDTO.SALIO, alertas.get(1).getTipo());
+        assertEquals(1L, alertas.get(1).getProductoId());
+    }
+
+    @Test
+    public void commitsFueraDeOrdenConservanElMasNuevoTest() {
+        when(repository.findNivelesStockParaActualizar(List.of(3L)))
+                .thenReturn(List.of(new NivelStockDTO(3L, 2, 5)), List.of(new NivelStockDTO(3L, 50, 5)));
+
+        // Dos transacciones sobre el mismo producto: la más nueva confirma antes que la vieja
+        List<TransactionSynchronization> vieja = enTransaccion(() -> monitor.productoGuardado(producto(3L, 2, 5)));
+        List<TransactionSynchronization> nueva = enTransaccion(() -> monitor.productoGuardado(producto(3L, 50, 5)));
+
+        assertFalse(monitor.idsCriticos().contains(3L), "Nada se aplica antes del commit");
+        nueva.forEach(TransactionSynchronization::afterCommit);
+        vieja.forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(monitor.idsCriticos().contains(3L));
+    }
+
+    @Test
+    public void productoGuardadoUsaElNivelDeLaBaseTest() {
+        // La entidad se leyó con stock 40; entre tanto se vendió y en la base quedan 2
+        when(repository.findNivelesStockParaActualizar(List.of(5L))).thenReturn(List.of(new NivelStockDTO(5L, 2, 5)));
+
+        List<TransactionSynchronization> sincronizaciones = enTransaccion(() -> monitor.productoGuardado(producto(5L, 40, 5)));
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(monitor.idsCriticos().contains(5L));
+    }
+
+    @Test
+    public void productoEliminadoSaleDelConjuntoTest() throws Exception {
+        when(repository.findNivelStockById(4L)).thenReturn(Optional.of(new NivelStockDTO(4L, 0, 3)));
+        monitor.productoGuardado(producto(4L, 0, 3));
+        assertTrue(monitor.idsCriticos().contains(4L));
+
+        monitor.productoEliminado(4L);
+
+        esperarAlertas(2);
+        assertTrue(monitor.idsCriticos().isEmpty());
+        assertEquals(AlertaStockDTO.SALIO, alertas.get(1).getTipo());
+    }
+
+    /* ---------------------------------- Auxiliares ---------------------------------- */
+
+    private static List<TransactionSynchronization> enTransaccion(Runnable accion) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            accion.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void esperarAlertas(int cantidad) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (alertas.size() < cantidad && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(cantidad, alertas.size());
+    }
+
+    private static Producto producto(Long id, int stock, int stockCritico) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setStock(stock);
+        producto.setStockCritico(stockCritico);
+        return producto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.carrie.hazellabev2.entities.Categoria;
+import com.carrie.hazellabev2.entities.Producto;
+
+public class ProductoSearchIndexTest {
+
+    private ProductoSearchIndex index;
+
+    private Categoria categoriaLab;
+    private Categoria categoriaFarma;
+
+    @BeforeEach
+    public void init() {
+        categoriaLab = new Categoria(1L, "Laboratorio", null);
+        categoriaFarma = new Categoria(2L, "Farmacéutico", null);
+
+        index = new ProductoSearchIndex();
+        index.reconstruir(List.of(
+            producto(1L, "Ácido Clorhídrico", "Solución corrosiva", "HCL001", "LOT-QUI-001", categoriaLab, true),
+            producto(2L, "Etanol", "Alcohol 96% para laboratorio", "ETH002", "LOT-QUI-002", categoriaLab, true),
+            producto(3L, "Termómetro Clínico", "Termómetro digital", "TER003", "LOT-FAR-003", categoriaFarma, true),
+            producto(4L, "Ácido Acético", "Vinagre concentrado", "ACE004", "LOT-QUI-004", categoriaLab, false)));
+    }
+
+    private Producto producto(Long id, String nombre, String descripcion, String chemCode, String lote,
+            Categoria categoria, boolean activo) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setName(nombre);
+        producto.setDescription(descripcion);
+        producto.setChemCode(chemCode);
+        producto.setBatchCode(lote);
+        producto.setCategory(categoria);
+        producto.setActiveStatus(activo);
+        return producto;
+    }
+
+    private List<Long> ids(List<Producto> productos) {
+        return productos.stream().map(Producto::getId).toList();
+    }
+
+    @Test
+    public void buscarPorSubcadenaSinAcentosTest() {
+        assertEquals(List.of(1L), ids(index.buscar("clorhidr", null, null, 10)));
+        assertEquals(List.of(3L), ids(index.buscar("METRO", null, null, 10)));
+    }
+
+    @Test
+    public void buscarPorPrefijoCortoTest() {
+        assertEquals(List.of(2L), ids(index.buscar("et", null, null, 10)));
+        assertTrue(index.buscar("zz", null, null, 10).isEmpty());
+    }
+
+    @Test
+    public void buscarEnCodigosTest() {
+        assertEquals(List.of(2L), ids(index.buscar("eth002", null, null, 10)));
+        assertEquals(List.of(3L), ids(index.buscar("far-003", null, null, 10)));
+    }
+
+    @Test
+    public void buscarVariosTerminosOrdenaPorCoincidenciasTest() {
+        List<Long> resultado = ids(index.buscar("ácido acético", null, null, 10));
+
+        // El Ácido Acético contiene ambos términos, el Clorhídrico solo uno
+        assertEquals(List.of(4L, 1L), resultado);
+    }
+
+    @Test
+    public void buscarConFiltrosTest() {
+        assertEquals(List.of(1L), ids(index.buscar("acido", 1L, true, 10)));
+        assertTrue(index.buscar("termometro", 1L, null, 10).isEmpty());
+        assertEquals(3, index.buscar("", 1L, null, 10).size());
+    }
+
+    @Test
+    public void indexarYEliminarMantienenElIndiceTest() {
+        Producto actualizado = producto(2L, "Metanol", "Alcohol metílico", "MET002", "LOT-QUI-002", categoriaLab, true);
+        index.indexar(actualizado);
+
+        assertTrue(index.buscar("eth002", null, null, 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.buscar("metanol", null, null, 10)));
+
+        index.eliminar(2L);
+
+        assertTrue(index.buscar("metanol", null, null, 10).isEmpty());
+        assertEquals(3, index.tamanio());
+    }
+
+    @Test
+    public void buscarPorNombreSoloCoincideConSubcadenaDelNombreTest() {
+        // "lot" está en los lotes y "alcohol" en una descripción, pero no en ningún nombre
+        assertTrue(index.buscarPorNombre("lot", null, null).isEmpty());
+        assertTrue(index.buscarPorNombre("alcohol", null, null).isEmpty());
+        assertEquals(List.of(1L, 4L), ids(index.buscarPorNombre("ÁCIDO", null, null)));
+        assertEquals(List.of(1L), ids(index.buscarPorNombre("do clorh", null, null)));
+        // Sin palabras de 3 letras no hay trigramas: se recorren los documentos
+        assertEquals(List.of(2L, 3L), ids(index.buscarPorNombre("n", null, null)));
+        assertEquals(List.of(1L), ids(index.buscarPorNombre("acido", null, true)));
+        assertEquals(List.of(4L), ids(index.buscarPorNombre("acido", 1L, false)));
+    }
+
+    @Test
+    public void respetaElLimiteTest() {
+        assertEquals(2, index.buscar("lot", null, null, 2).size());
+    }
+}
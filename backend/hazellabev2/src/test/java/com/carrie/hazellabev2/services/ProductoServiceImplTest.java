@@ -3,6 +3,7 @@ package com.carrie.hazellabev2.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -12,16 +13,20 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import com.carrie.hazellabev2.entities.Categoria;
 import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.CategoriaRepository;
 import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class ProductoServiceImplTest {
     
@@ -30,6 +35,27 @@ public class ProductoServiceImplTest {
     
     @Mock
     private ProductoRepository repository;
+
+    @Mock
+    private ProductoSearchIndex searchIndex;
+
+    @Spy
+    private RevisionCatalogo revisionCatalogo = new RevisionCatalogo();
+
+    @Mock
+    private MonitorStockCritico monitorStockCritico;
+
+    @Mock
+    private IndiceVencimientos indiceVencimientos;
+
+    @Mock
+    private CategoriaRepository categoriaRepository;
+
+    @Mock
+    private RefrescoProductos refrescoProductos;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     
     List<Producto> list = new ArrayList<Producto>();
     
@@ -138,20 +164,22 @@ public class ProductoServiceImplTest {
             Date.valueOf("2026-03-15"), Date.valueOf("2024-03-10"), 350000, 8, 2, "Proveedor Equipos Científicos Premium Ltda.", categoriaLab, "centrifuga-mejorada.jpg", true, LocalDateTime.now(), true);
 
         when(repository.findById(3L)).thenReturn(Optional.of(productoOriginal));
-        when(repository.save(any(Producto.class))).thenReturn(productoActualizado);
+        when(repository.save(any(Producto.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
 
         Producto response = service.actualizar(3L, productoActualizado);
 
         assertNotNull(response);
         assertEquals("Centrífuga Mejorada", response.getName());
         assertEquals(350000, response.getCost());
-        assertEquals(8, response.getStock());
+        assertEquals(5, response.getStock()); // El stock del cuerpo se ignora: se ajusta con StockService
         assertEquals(2, response.getStockCritico());
         assertEquals("Proveedor Equipos Científicos Premium Ltda.", response.getProveedor());
         assertTrue(response.getDestacado());
         
-        verify(repository).findById(3L);
+        verify(repository, times(1)).findById(3L);
         verify(repository).save(any(Producto.class));
+        // Caché, listados e índices se refrescan al confirmar, con el producto releído
+        verify(refrescoProductos).refrescar(3L);
     }
 
     @Test
@@ -193,6 +221,7 @@ public class ProductoServiceImplTest {
         
         verify(repository, times(1)).findById(1L);
         verify(repository, times(1)).save(any(Producto.class));
+        verify(refrescoProductos).refrescar(1L);
     }
 
     @Test
@@ -244,6 +273,7 @@ public class ProductoServiceImplTest {
         assertEquals(1, response.size());
         assertEquals("Microscopio Digital", response.get(0).getName());
         verify(repository, times(1)).findByNameContainingIgnoreCase(nombreBusqueda);
+        verify(searchIndex, never()).buscarPorNombre(any(), any(), any()); // Índice sin construir: responde la consulta LIKE
     }
 
     @Test
@@ -264,19 +294,28 @@ public class ProductoServiceImplTest {
 
     @Test
     public void buscarProductosStockBajoTest() {
-        // Productos con stock < 5
-        List<Producto> productosStockBajo = list.stream()
-                .filter(p -> p.getStock() < 5)
-                .toList();
+        // La Centrífuga queda en su stock crítico (5 <= 5); el monitor ya la tiene marcada
+        Producto centrifuga = list.get(2);
+        centrifuga.setStockCritico(5);
 
-        when(repository.findByStockLessThan(5)).thenReturn(productosStockBajo);
+        when(monitorStockCritico.idsCriticos()).thenReturn(Set.of(3L));
+        when(repository.findAllById(Set.of(3L))).thenReturn(List.of(centrifuga));
 
         List<Producto> response = service.buscarProductosStockBajo();
 
-        assertEquals(1, response.size()); // Solo la Centrífuga tiene stock 5
+        assertEquals(1, response.size());
         assertEquals("Centrífuga", response.get(0).getName());
-        assertEquals(5, response.get(0).getStock()); // Stock = 5 (no menor que 5)
-        verify(repository, times(1)).findByStockLessThan(5);
+        assertEquals(5, response.get(0).getStock()); // Stock = stockCritico también es crítico
+        verify(repository, times(1)).findAllById(Set.of(3L));
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    public void buscarProductosStockBajoSinCriticosNoConsultaTest() {
+        when(monitorStockCritico.idsCriticos()).thenReturn(Set.of());
+
+        assertTrue(service.buscarProductosStockBajo().isEmpty());
+        verify(repository, never()).findAllById(any());
     }
 
     @Test
@@ -295,6 +334,18 @@ public class ProductoServiceImplTest {
         verify(repository, times(1)).findByActiveStatus(activo);
     }
 
+    @Test
+    public void buscarPorNombreConIndiceListoNoConsultaLaBaseTest() {
+        Producto microscopio = list.stream().filter(p -> p.getName().equals("Microscopio Digital")).findFirst().get();
+        when(searchIndex.isListo()).thenReturn(true);
+        when(searchIndex.buscarPorNombre("micro", null, true)).thenReturn(List.of(microscopio));
+
+        List<Producto> response = service.buscarPorNombreYEstado("micro", true);
+
+        assertEquals(List.of(microscopio), response);
+        verify(repository, never()).findByNameContainingIgnoreCaseAndActiveStatus(any(), any());
+    }
+
     @Test
     public void buscarPorNombreYCategoriaTest() {
         String nombre = "centrífuga";
@@ -313,6 +364,7 @@ public class ProductoServiceImplTest {
         assertEquals("Centrífuga", response.get(0).getName());
         assertEquals(categoriaId, response.get(0).getCategory().getId());
         verify(repository, times(1)).findByNameContainingIgnoreCaseAndCategoryId(nombre, categoriaId);
+        verify(searchIndex, never()).buscarPorNombre(any(), any(), any()); // Índice sin construir: responde la consulta LIKE
     }
 
     @Test
@@ -333,5 +385,48 @@ public class ProductoServiceImplTest {
         assertEquals("Termómetro Clínico", response.get(0).getName());
         assertTrue(response.get(0).getActiveStatus());
         verify(repository, times(1)).findByNameContainingIgnoreCaseAndActiveStatus(nombre, activo);
+        verify(searchIndex, never()).buscarPorNombre(any(), any(), any()); // Índice sin construir: responde la consulta LIKE
+    }
+
+    @Test
+    public void parcharProductoSoloCambiaCamposEnviadosTest() throws Exception {
+        Producto producto = list.get(0);
+        when(repository.findById(1L)).thenReturn(Optional.of(producto));
+        when(repository.save(any(Producto.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+        when(categoriaRepository.findById(2L)).thenReturn(Optional.of(categoriaFarma));
+
+        Producto response = service.parchar(1L, objectMapper.readTree(
+                "{\"image\": \"microscopio-v2.jpg\", \"stockCritico\": 3, \"proveedor\": null, \"category\": {\"id\": 2}}"));
+
+        assertEquals("microscopio-v2.jpg", response.getImage());
+        assertEquals(3, response.getStockCritico());
+        assertNull(response.getProveedor());
+        assertEquals(categoriaFarma, response.getCategory());
+        // Lo que no viene en el parche queda igual
+        assertEquals("Microscopio Digital", response.getName());
+        assertEquals(150000, response.getCost());
+        assertTrue(response.getDestacado());
+        verify(repository, times(1)).findById(1L);
+        verify(monitorStockCritico).productoGuardado(producto);
+    }
+
+    @Test
+    public void parcharProductoCampoNoModificableTest() throws Exception {
+        when(repository.findById(1L)).thenReturn(Optional.of(list.get(0)));
+
+        Exception noModificable = assertThrows(IllegalArgumentException.class,
+                () -> service.parchar(1L, objectMapper.readTree("{\"id\": 9}")));
+        Exception nulo = assertThrows(IllegalArgumentException.class,
+                () -> service.parchar(1L, objectMapper.readTree("{\"cost\": null}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.parchar(1L, objectMapper.readTree("[1, 2]")));
+
+        Exception stock = assertThrows(IllegalArgumentException.class,
+                () -> service.parchar(1L, objectMapper.readTree("{\"stock\": 3}")));
+
+        assertEquals("El campo 'id' no existe o no se puede modificar.", noModificable.getMessage());
+        assertEquals("El stock se ajusta con /api/stock/productos/1/reponer o /descontar.", stock.getMessage());
+        assertEquals("Valor inválido en cost.", nulo.getMessage());
+        verify(repository, never()).save(any(Producto.class));
     }
-}
\ No newline at end of file
+}
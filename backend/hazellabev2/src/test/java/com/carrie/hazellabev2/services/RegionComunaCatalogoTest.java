@@ -0,0 +1,75 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.carrie.hazellabev2.dto.ComunaSugerenciaDTO;
+
+public class RegionComunaCatalogoTest {
+
+    private final RegionComunaCatalogo catalogo = new RegionComunaCatalogo();
+
+    @Test
+    public void cargaRegionesYComunasTest() {
+        assertEquals(16, catalogo.getRegiones().size());
+        assertEquals("Arica y Parinacota", catalogo.getRegiones().get(0));
+        assertEquals(345, catalogo.getRegionesComunas().values().stream().mapToInt(List::size).sum());
+        assertTrue(catalogo.getComunas("Metropolitana").contains("Ñuñoa"));
+        assertTrue(catalogo.getComunas("No existe").isEmpty());
+    }
+
+    @Test
+    public void recursosSerializadosConEtagTest() {
+        RegionComunaCatalogo.Recurso comunas = catalogo.getRecursoComunas("Arica y Parinacota");
+
+        assertEquals("[\"Arica\",\"Camarones\",\"Putre\",\"General Lagos\"]",
+                new String(comunas.json(), StandardCharsets.UTF_8));
+        assertTrue(comunas.etag().startsWith("\"") && comunas.etag().endsWith("\""));
+        assertNotEquals(comunas.etag(), catalogo.getRecursoComunas("Tarapacá").etag());
+        assertEquals("[]", new String(catalogo.getRecursoComunas("No existe").json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void buscarComunasSinTildesTest() {
+        List<ComunaSugerenciaDTO> resultado = catalogo.buscarComunas("nun", 10);
+
+        assertEquals(1, resultado.size());
+        assertEquals("Ñuñoa", resultado.get(0).getComuna());
+        assertEquals("Metropolitana", resultado.get(0).getRegion());
+    }
+
+    @Test
+    public void buscarComunasPrioridadInicioDeNombreTest() {
+        List<ComunaSugerenciaDTO> resultado = catalogo.buscarComunas("MAIP", 10);
+
+        // "Maipú" empieza con el texto; "San José de Maipo" e "Isla de Maipo" lo tienen en otra palabra
+        assertEquals("Maipú", resultado.get(0).getComuna());
+        assertEquals(List.of("Maipú", "Isla de Maipo", "San José de Maipo"),
+                resultado.stream().map(ComunaSugerenciaDTO::getComuna).toList());
+    }
+
+    @Test
+    public void buscarComunasRespetaLimiteTest() {
+        assertEquals(3, catalogo.buscarComunas("san", 3).size());
+        assertTrue(catalogo.buscarComunas("", 10).isEmpty());
+        assertTrue(catalogo.buscarComunas("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void comunaRepetidaEnDistintasRegionesTest() {
+        List<ComunaSugerenciaDTO> resultado = catalogo.buscarComunas("o'higgins", 10);
+
+        assertEquals(1, resultado.size());
+        assertEquals("Aysén", resultado.get(0).getRegion());
+        assertEquals("O'Higgins", catalogo.regionOficial("o'higgins"));
+        assertEquals("O'Higgins", catalogo.comunaOficial("aysen", "O'HIGGINS"));
+        assertNull(catalogo.comunaOficial("Metropolitana", "Arica"));
+    }
+}
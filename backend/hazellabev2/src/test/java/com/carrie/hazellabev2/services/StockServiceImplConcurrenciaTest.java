@@ -0,0 +1,439 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carrie.hazellabev2.config.CacheConfig;
+import com.carrie.hazellabev2.dto.AlertaStockDTO;
+import com.carrie.hazellabev2.entities.ItemCarrito;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.entities.ReservaStock;
+import com.carrie.hazellabev2.entities.Usuario;
+import com.carrie.hazellabev2.repositories.ItemCarritoRepository;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+import com.carrie.hazellabev2.repositories.ReservaStockRepository;
+import com.carrie.hazellabev2.repositories.UsuarioRepository;
+
+// Corre contra H2 en memoria y sin la transacción de prueba, para que cada hilo confirme la suya
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({StockServiceImpl.class, ProductoServiceImpl.class, RevisionCatalogo.class, RefrescoProductos.class, MonitorStockCritico.class,
+        ProductoSearchIndex.class, IndiceVencimientos.class, StockServiceImplConcurrenciaTest.CacheTestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockServiceImplConcurrenciaTest {
+
+    @TestConfiguration
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MonitorStockCritico monitorStockCritico;
+
+    @Autowired
+    private ProductoSearchIndex searchIndex;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void limpiar() {
+        reservaStockRepository.deleteAll();
+        itemCarritoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        productoRepository.deleteAll();
+    }
+
+    @Test
+    void descontarConcurrenteNuncaVendeDeMasTest() throws Exception {
+        Producto producto = crearProducto("Reactivo muy pedido", 100);
+        int hilos = 32;
+        int intentosPorHilo = 10;
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger rechazos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                for (int j = 0; j < intentosPorHilo; j++) {
+                    try {
+                        stockService.descontar(producto.getId(), 1);
+                        exitos.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rechazos.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(100, exitos.get());
+        assertEquals(hilos * intentosPorHilo - 100, rechazos.get());
+        assertEquals(0, productoRepository.findById(producto.getId()).get().getStock());
+    }
+
+    @Test
+    void actualizarProductoNoPisaReservasConcurrentesTest() throws Exception {
+        Producto producto = crearProducto("Reactivo en edición", 100);
+        int hilos = 20;
+        int reservasPorHilo = 5;
+        int ediciones = 50;
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos + 1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                for (int j = 0; j < reservasPorHilo; j++) {
+                    stockService.descontar(producto.getId(), 1);
+                }
+                return null;
+            }));
+        }
+        // El administrador guarda el formulario una y otra vez con el stock que vio al abrirlo
+        tareas.add(executor.submit(() -> {
+            largada.await();
+            for (int i = 0; i < ediciones; i++) {
+                Producto formulario = new Producto();
+                formulario.setName("Reactivo en edición v" + i);
+                formulario.setStock(100);
+                formulario.setStockCritico(2);
+                formulario.setActiveStatus(true);
+                productoService.actualizar(producto.getId(), formulario);
+            }
+            return null;
+        }));
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Producto guardado = productoRepository.findById(producto.getId()).get();
+        assertEquals(100 - hilos * reservasPorHilo, guardado.getStock());
+        assertEquals("Reactivo en edición v" + (ediciones - 1), guardado.getName());
+    }
+
+    @Test
+    void reservarCarritoSinStockNoApartaNadaTest() {
+        Producto conStock = crearProducto("Pipeta", 10);
+        Producto sinStock = crearProducto("Matraz", 1);
+        Usuario usuario = crearUsuario();
+        crearItem(usuario, conStock, 4);
+        crearItem(usuario, sinStock, 2);
+
+        assertThrows(RuntimeException.class, () -> stockService.reservarCarrito(usuario.getId()));
+
+        assertEquals(10, productoRepository.findById(conStock.getId()).get().getStock());
+        assertEquals(1, productoRepository.findById(sinStock.getId()).get().getStock());
+        assertEquals(0, reservaStockRepository.count());
+    }
+
+    @Test
+    void reservarAjustaSoloLaDiferenciaTest() {
+        Producto producto = crearProducto("Probeta", 10);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 3);
+
+        stockService.reservar(item.getId());
+        item.setQuantity(5);
+        itemCarritoRepository.save(item);
+        stockService.reservar(item.getId());
+
+        assertEquals(5, productoRepository.findById(producto.getId()).get().getStock());
+        assertEquals(5, reservaStockRepository.findByItemCarritoId(item.getId()).get().getCantidad());
+    }
+
+    @Test
+    void reReservasConcurrentesDelMismoItemDescuentanUnaVezTest() throws Exception {
+        int hilos = 8;
+        Producto producto = crearProducto("Pipeta aforada", 100);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 3);
+        stockService.reservar(item.getId());
+
+        // Cada ronda sube la cantidad y todos los hilos vuelven a reservar el mismo item a la vez
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int cantidad = 4; cantidad <= 10; cantidad++) {
+            item.setQuantity(cantidad);
+            itemCarritoRepository.save(item);
+            CountDownLatch partida = new CountDownLatch(1);
+            List<Future<ReservaStock>> resultados = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                resultados.add(executor.submit(() -> {
+                    partida.await();
+                    return stockService.reservar(item.getId());
+                }));
+            }
+            partida.countDown();
+            for (Future<ReservaStock> resultado : resultados) {
+                resultado.get(10, TimeUnit.SECONDS);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(90, productoRepository.findById(producto.getId()).get().getStock());
+        assertEquals(10, reservaStockRepository.findByItemCarritoId(item.getId()).get().getCantidad());
+    }
+
+    @Test
+    void fusionarReservaConservaElStockApartadoTest() {
+        Producto producto = crearProducto("Gradilla", 10);
+        Usuario usuario = crearUsuario();
+        ItemCarrito queda = crearItem(usuario, producto, 3);
+        ItemCarrito duplicada = crearItem(usuario, producto, 2);
+        stockService.reservar(queda.getId());
+        stockService.reservar(duplicada.getId());
+
+        stockService.fusionarReserva(duplicada.getId(), queda.getId());
+
+        assertEquals(5, productoRepository.findById(producto.getId()).get().getStock());
+        assertEquals(5, reservaStockRepository.findByItemCarritoId(queda.getId()).get().getCantidad());
+        assertTrue(reservaStockRepository.findByItemCarritoId(duplicada.getId()).isEmpty());
+
+        // Si la línea que queda no tenía reserva, la de la duplicada se le reasigna
+        ItemCarrito otra = crearItem(usuario, producto, 1);
+        stockService.fusionarReserva(queda.getId(), otra.getId());
+
+        assertEquals(5, reservaStockRepository.findByItemCarritoId(otra.getId()).get().getCantidad());
+        assertEquals(5, productoRepository.findById(producto.getId()).get().getStock());
+    }
+
+    @Test
+    void liberarDosVecesRepondeUnaSolaVezTest() throws Exception {
+        Producto producto = crearProducto("Bureta", 10);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 4);
+        ReservaStock reserva = stockService.reservar(item.getId());
+        assertEquals(6, productoRepository.findById(producto.getId()).get().getStock());
+
+        // El usuario quita el item mientras el barrido libera la misma reserva
+        reserva.setExpiraEn(LocalDateTime.now().minusMinutes(1));
+        reservaStockRepository.save(reserva);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> porItem = executor.submit(() -> stockService.liberarPorItem(item.getId()));
+        Future<Integer> barrido = executor.submit(() -> stockService.liberarExpiradas());
+        porItem.get(10, TimeUnit.SECONDS);
+        barrido.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(10, productoRepository.findById(producto.getId()).get().getStock());
+        assertTrue(reservaStockRepository.findByItemCarritoId(item.getId()).isEmpty());
+    }
+
+    @Test
+    void barridoEliminaReservasDeProductosBorradosYSigueTest() {
+        Producto producto = crearProducto("Embudo", 10);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 4);
+        ReservaStock vigente = stockService.reservar(item.getId());
+        vigente.setExpiraEn(LocalDateTime.now().minusMinutes(1));
+        reservaStockRepository.save(vigente);
+        // La más vieja aparta stock de un producto que ya no existe
+        reservaStockRepository.save(new ReservaStock(null, -1L, null, 3, LocalDateTime.now().minusHours(1)));
+
+        assertEquals(2, stockService.liberarExpiradas());
+
+        assertEquals(0, reservaStockRepository.count());
+        assertEquals(10, productoRepository.findById(producto.getId()).get().getStock());
+    }
+
+    @Test
+    void confirmarNoDevuelveStockTest() {
+        Producto producto = crearProducto("Crisol", 10);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 2);
+        ReservaStock reserva = stockService.reservar(item.getId());
+
+        stockService.confirmar(reserva.getId());
+
+        assertEquals(8, productoRepository.findById(producto.getId()).get().getStock());
+        assertThrows(RuntimeException.class, () -> stockService.confirmar(reserva.getId()));
+    }
+
+    @Test
+    void carritoRevertidoNoDejaProductosCriticosTest() throws Exception {
+        Producto critico = crearProducto("Pipeta aforada", 3);
+        Producto sinStock = crearProducto("Matraz aforado", 1);
+        Usuario usuario = crearUsuario();
+        crearItem(usuario, critico, 2);
+        crearItem(usuario, sinStock, 5);
+        List<AlertaStockDTO> alertas = new CopyOnWriteArrayList<>();
+        Runnable cancelar = monitorStockCritico.suscribir(alertas::add);
+
+        try {
+            // El primer item deja la pipeta en 1 (<= 2), pero el segundo falla y se revierte todo
+            assertThrows(RuntimeException.class, () -> stockService.reservarCarrito(usuario.getId()));
+            assertFalse(monitorStockCritico.idsCriticos().contains(critico.getId()));
+
+            stockService.descontar(critico.getId(), 2);
+            assertTrue(monitorStockCritico.idsCriticos().contains(critico.getId()));
+            stockService.reponer(critico.getId(), 10);
+            assertFalse(monitorStockCritico.idsCriticos().contains(critico.getId()));
+
+            long limite = System.currentTimeMillis() + 5000;
+            while (alertas.size() < 2 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(AlertaStockDTO.ENTRO, AlertaStockDTO.SALIO),
+                    alertas.stream().map(AlertaStockDTO::getTipo).toList());
+        } finally {
+            cancelar.run();
+        }
+    }
+
+    @Test
+    void productoGuardadoAvisaElStockConfirmadoTest() {
+        Producto producto = crearProducto("Tubo de ensayo", 10);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        transaccion.executeWithoutResult(estado -> {
+            Producto formulario = productoRepository.findById(producto.getId()).get();
+            // Otra transacción vende 7 después de que la edición leyó la fila con stock 10
+            ExecutorService otra = Executors.newSingleThreadExecutor();
+            try {
+                otra.submit(() -> stockService.descontar(producto.getId(), 7)).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                otra.shutdown();
+            }
+            formulario.setStockCritico(5);
+            productoRepository.save(formulario);
+            monitorStockCritico.productoGuardado(formulario);
+        });
+
+        // Con el stock de la entidad (10 > 5) no sería crítico; en la base quedan 3
+        assertTrue(monitorStockCritico.idsCriticos().contains(producto.getId()));
+    }
+
+    @Test
+    void actualizarProductoPublicaSoloAlConfirmarTest() {
+        Producto producto = crearProducto("Mechero Bunsen", 10);
+        searchIndex.indexar(producto);
+        Cache productos = cacheManager.getCache(CacheConfig.PRODUCTOS);
+        String etag = revisionCatalogo.etag(RevisionCatalogo.PRODUCTOS);
+        Producto formulario = new Producto();
+        formulario.setName("Mechero Tirrill");
+        formulario.setStockCritico(2);
+        formulario.setActiveStatus(true);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        // Revertida: ni caché, ni índice, ni ETag ven el nombre que no se guardó
+        transaccion.executeWithoutResult(estado -> {
+            productoService.actualizar(producto.getId(), formulario);
+            estado.setRollbackOnly();
+        });
+        assertNull(productos.get(producto.getId()));
+        assertTrue(searchIndex.buscar("tirrill", null, null, 10).isEmpty());
+        assertEquals(etag, revisionCatalogo.etag(RevisionCatalogo.PRODUCTOS));
+
+        transaccion.executeWithoutResult(estado -> productoService.actualizar(producto.getId(), formulario));
+        assertEquals("Mechero Tirrill", ((Producto) productos.get(producto.getId()).get()).getName());
+        assertEquals(1, searchIndex.buscar("tirrill", null, null, 10).size());
+        assertNotEquals(etag, revisionCatalogo.etag(RevisionCatalogo.PRODUCTOS));
+    }
+
+    @Test
+    void reservarRefrescaListadosEIndiceTest() {
+        Producto producto = crearProducto("Reactivo de Biuret", 10);
+        ItemCarrito item = crearItem(crearUsuario(), producto, 3);
+        searchIndex.indexar(producto);
+        Cache destacados = cacheManager.getCache(CacheConfig.PRODUCTOS_DESTACADOS);
+        destacados.put("destacados", List.of(producto));
+        String etag = revisionCatalogo.etag(RevisionCatalogo.PRODUCTOS);
+
+        // La reserva lee el item (y su producto) antes del UPDATE: el índice no debe quedarse con esa copia
+        stockService.reservar(item.getId());
+
+        assertNull(destacados.get("destacados"));
+        assertEquals(7, searchIndex.buscar("biuret", null, null, 10).get(0).getStock());
+        assertNotEquals(etag, revisionCatalogo.etag(RevisionCatalogo.PRODUCTOS));
+    }
+
+    /* ---------------------------------- Datos de prueba ---------------------------------- */
+
+    private Producto crearProducto(String nombre, int stock) {
+        Producto producto = new Producto();
+        producto.setName(nombre);
+        producto.setStock(stock);
+        producto.setStockCritico(2);
+        producto.setActiveStatus(true);
+        return productoRepository.save(producto);
+    }
+
+    private Usuario crearUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail("cliente" + System.nanoTime() + "@hazellab.cl");
+        usuario.setRut(String.valueOf(System.nanoTime()));
+        usuario.setPassword("secreto");
+        return usuarioRepository.save(usuario);
+    }
+
+    private ItemCarrito crearItem(Usuario usuario, Producto producto, int cantidad) {
+        return itemCarritoRepository.save(new ItemCarrito(null, cantidad, producto, usuario));
+    }
+}
@@ -0,0 +1,86 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.carrie.hazellabev2.entities.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TokenServiceImplTest {
+
+    private TokenServiceImpl service;
+    private Usuario admin;
+
+    @BeforeEach
+    void init() {
+        service = crearServicio(Base64.getEncoder().encodeToString(new byte[32]), 15);
+        admin = new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9", null,
+                "super_admin", "activo", LocalDateTime.now(), null, null, null, null, null, null);
+    }
+
+    private TokenServiceImpl crearServicio(String secreto, long minutosAcceso) {
+        TokenServiceImpl nuevo = new TokenServiceImpl();
+        ReflectionTestUtils.setField(nuevo, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(nuevo, "secretoConfigurado", secreto);
+        ReflectionTestUtils.setField(nuevo, "minutosAcceso", minutosAcceso);
+        ReflectionTestUtils.setField(nuevo, "horasRefresco", 24L);
+        nuevo.inicializarClave();
+        return nuevo;
+    }
+
+    @Test
+    public void tokenAccesoValidoTest() {
+        String token = service.generarAcceso(admin);
+
+        TokenService.Sesion sesion = service.validarAcceso(token).orElseThrow();
+
+        assertEquals(1L, sesion.usuarioId());
+        assertEquals("admin@duoc.cl", sesion.email());
+        assertEquals("super_admin", sesion.role());
+    }
+
+    @Test
+    public void tokenAlteradoRechazadoTest() {
+        String token = service.generarAcceso(admin);
+        String[] partes = token.split("\\.");
+        String payloadFalso = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"2\",\"role\":\"super_admin\",\"typ\":\"acceso\",\"exp\":9999999999}".getBytes());
+
+        assertTrue(service.validarAcceso(partes[0] + "." + payloadFalso + "." + partes[2]).isEmpty());
+        assertTrue(service.validarAcceso(token + "x").isEmpty());
+        assertTrue(service.validarAcceso("no-es-un-token").isEmpty());
+        assertTrue(service.validarAcceso(null).isEmpty());
+    }
+
+    @Test
+    public void tokenDeOtraClaveRechazadoTest() {
+        TokenServiceImpl otro = crearServicio(Base64.getEncoder().encodeToString(new byte[] {
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}), 15);
+
+        assertTrue(service.validarAcceso(otro.generarAcceso(admin)).isEmpty());
+    }
+
+    @Test
+    public void tokenVencidoRechazadoTest() {
+        TokenServiceImpl sinDuracion = crearServicio(Base64.getEncoder().encodeToString(new byte[32]), 0);
+
+        assertTrue(sinDuracion.validarAcceso(sinDuracion.generarAcceso(admin)).isEmpty());
+    }
+
+    @Test
+    public void tiposDeTokenNoIntercambiablesTest() {
+        String acceso = service.generarAcceso(admin);
+        String refresco = service.generarRefresco(admin);
+
+        assertTrue(service.validarAcceso(refresco).isEmpty());
+        assertTrue(service.validarRefresco(acceso).isEmpty());
+        assertEquals(1L, service.validarRefresco(refresco).orElseThrow().usuarioId());
+    }
+}
@@ -17,10 +17,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.carrie.hazellabev2.entities.Usuario;
 import com.carrie.hazellabev2.repositories.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class UsuarioServiceImplTest {
     
@@ -32,6 +36,17 @@ public class UsuarioServiceImplTest {
     
     @Mock
     private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private RegionComunaCatalogo regionComunaCatalogo = new RegionComunaCatalogo();
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasNegocio metricasNegocio = new MetricasNegocio(meterRegistry);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     
     List<Usuario> list = new ArrayList<Usuario>();
 
@@ -475,4 +490,135 @@ public class UsuarioServiceImplTest {
 
         assertEquals("Usuario inactivo.", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void loginRehasheaCuandoCambiaElCostoTest() {
+        Usuario usuario = new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9", "hashCostoAntiguo", 
+                                    "super_admin", "activo", LocalDateTime.now(), null, null, null, null, null, null);
+
+        when(repository.findByEmail("admin@duoc.cl")).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matches("password123", "hashCostoAntiguo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashCostoAntiguo")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("hashCostoNuevo");
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Usuario response = service.login("admin@duoc.cl", "password123");
+
+        assertEquals("hashCostoNuevo", response.getPassword());
+        verify(repository, times(1)).save(usuario);
+    }
+
+    @Test
+    public void loginSinRehashConCostoVigenteTest() {
+        Usuario usuario = new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9", "passwordEncriptado", 
+                                    "super_admin", "activo", LocalDateTime.now(), null, null, null, null, null, null);
+
+        when(repository.findByEmail("admin@duoc.cl")).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matches("password123", "passwordEncriptado")).thenReturn(true);
+
+        service.login("admin@duoc.cl", "password123");
+
+        verify(passwordEncoder, times(0)).encode(anyString());
+        verify(repository, times(0)).save(any(Usuario.class));
+    }
+
+    @Test
+    public void crearUsuarioNormalizaRegionYComunaTest() {
+        Usuario usuarioSinId = new Usuario(null, "nuevo", "nuevo@duoc.cl", "12345678-9", "password123", 
+                                          "cliente", "activo", null,
+                                          "metropolitana", "nunoa", "Apellido", "1990-01-01", "Av. Nueva 123", null);
+
+        when(passwordEncoder.encode("password123")).thenReturn("passwordEncriptado");
+        when(repository.save(any(Usuario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Usuario response = service.crear(usuarioSinId);
+
+        assertEquals("Metropolitana", response.getRegion());
+        assertEquals("Ñuñoa", response.getComuna());
+    }
+
+    @Test
+    public void crearUsuarioComunaDeOtraRegionTest() {
+        Usuario usuarioSinId = new Usuario(null, "nuevo", "nuevo@duoc.cl", "12345678-9", "password123", 
+                                          "cliente", "activo", null,
+                                          "Metropolitana", "Viña del Mar", "Apellido", "1990-01-01", "Av. Nueva 123", null);
+
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            service.crear(usuarioSinId);
+        });
+
+        assertEquals("La comuna Viña del Mar no pertenece a la región Metropolitana", exception.getMessage());
+        verify(repository, times(0)).save(any(Usuario.class));
+    }
+
+    @Test
+    public void crearUsuarioRegionInexistenteTest() {
+        Usuario usuarioSinId = new Usuario(null, "nuevo", "nuevo@duoc.cl", "12345678-9", "password123", 
+                                          "cliente", "activo", null,
+                                          "Región Inventada", null, "Apellido", "1990-01-01", "Av. Nueva 123", null);
+
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            service.crear(usuarioSinId);
+        });
+
+        assertEquals("La región indicada no existe", exception.getMessage());
+    }
+
+    @Test
+    public void loginRegistraTiempoDeVerificacionTest() {
+        Usuario usuario = new Usuario(1L, "admin", "admin@duoc.cl", "12345678-9", "passwordEncriptado",
+                                    "super_admin", "activo", LocalDateTime.now(), null, null, null, null, null, null);
+
+        when(repository.findByEmail("admin@duoc.cl")).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matches("password123", "passwordEncriptado")).thenReturn(true);
+        when(passwordEncoder.matches("passwordIncorrecto", "passwordEncriptado")).thenReturn(false);
+
+        service.login("admin@duoc.cl", "password123");
+        assertThrows(RuntimeException.class, () -> service.login("admin@duoc.cl", "passwordIncorrecto"));
+
+        assertEquals(1, meterRegistry.get("hazellab.bcrypt.verificacion").tag("resultado", "valida").timer().count());
+        assertEquals(1, meterRegistry.get("hazellab.bcrypt.verificacion").tag("resultado", "invalida").timer().count());
+    }
+
+    @Test
+    public void parcharUsuarioSoloCambiaCamposEnviadosTest() throws Exception {
+        Usuario usuario = list.get(2);
+        when(repository.findById(3L)).thenReturn(Optional.of(usuario));
+        when(repository.save(any(Usuario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        Usuario response = service.parchar(3L, objectMapper.readTree("{\"direccion\": \"Pasaje 12\", \"region\": \"Biobío\"}"));
+
+        assertEquals("Pasaje 12", response.getDireccion());
+        assertEquals("clienteprueba@gmail.com", response.getEmail());
+        assertEquals("password789", response.getPassword());
+        // Sin contraseña en el parche no se usa BCrypt
+        verify(passwordEncoder, times(0)).encode(anyString());
+        verify(passwordEncoder, times(0)).matches(anyString(), anyString());
+    }
+
+    @Test
+    public void parcharUsuarioConPasswordTest() throws Exception {
+        when(repository.findById(3L)).thenReturn(Optional.of(list.get(2)));
+        when(repository.save(any(Usuario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+        when(passwordEncoder.encode("nueva")).thenReturn("hash-nueva");
+
+        Usuario response = service.parchar(3L, objectMapper.readTree("{\"password\": \"nueva\"}"));
+
+        assertEquals("hash-nueva", response.getPassword());
+        verify(passwordEncoder, times(1)).encode("nueva");
+    }
+
+    @Test
+    public void parcharUsuarioInvalidoTest() throws Exception {
+        when(repository.findById(3L)).thenReturn(Optional.of(list.get(2)));
+
+        Exception email = assertThrows(RuntimeException.class,
+                () -> service.parchar(3L, objectMapper.readTree("{\"email\": \"cliente@hotmail.com\"}")));
+        Exception campo = assertThrows(RuntimeException.class,
+                () -> service.parchar(3L, objectMapper.readTree("{\"createdAt\": null}")));
+
+        assertEquals("El correo debe ser @duoc.cl, @profesor.duoc.cl o @gmail.com", email.getMessage());
+        assertEquals("El campo 'createdAt' no existe o no se puede modificar.", campo.getMessage());
+        verify(repository, times(0)).save(any(Usuario.class));
+    }
+}
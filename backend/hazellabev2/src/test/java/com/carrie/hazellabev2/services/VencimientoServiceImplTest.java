@@ -0,0 +1,139 @@
+package com.carrie.hazellabev2.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.carrie.hazellabev2.config.ContadorConsultasSql;
+import com.carrie.hazellabev2.dto.VencimientoDTO;
+import com.carrie.hazellabev2.entities.Producto;
+import com.carrie.hazellabev2.repositories.ProductoRepository;
+
+// Sin la transacción de prueba: el barrido confirma un UPDATE por lote
+@DataJpaTest
+@Import({VencimientoServiceImpl.class, IndiceVencimientos.class, ProductoSearchIndex.class, RevisionCatalogo.class, RefrescoProductos.class,
+        ContadorConsultasSql.class, VencimientoServiceImplTest.CacheTestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class VencimientoServiceImplTest {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    @TestConfiguration
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private VencimientoService vencimientoService;
+
+    @Autowired
+    private IndiceVencimientos indiceVencimientos;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @BeforeEach
+    @AfterEach
+    void limpiar() {
+        productoRepository.deleteAll();
+    }
+
+    @Test
+    void barridoDesactivaSoloLosVencidosEnUnUpdateTest() {
+        Producto vencido = crear("Reactivo A", -2, true);
+        Producto otroVencido = crear("Reactivo B", -1, true);
+        Producto vigente = crear("Reactivo C", 10, true);
+        Producto yaInactivo = crear("Reactivo D", -5, false);
+        indiceVencimientos.construirAlIniciar();
+
+        ContadorConsultasSql.iniciar();
+        int desactivados;
+        ContadorConsultasSql.Registro registro;
+        try {
+            desactivados = vencimientoService.desactivarVencidos();
+        } finally {
+            registro = ContadorConsultasSql.terminar();
+        }
+
+        assertEquals(2, desactivados);
+        long updates = registro.getSentencias().stream().filter(sql -> sql.startsWith("update")).count();
+        assertEquals(1, updates, "Se esperaba un único UPDATE por lote: " + registro.getSentencias());
+        assertFalse(productoRepository.findById(vencido.getId()).get().getActiveStatus());
+        assertFalse(productoRepository.findById(otroVencido.getId()).get().getActiveStatus());
+        assertTrue(productoRepository.findById(vigente.getId()).get().getActiveStatus());
+        assertFalse(productoRepository.findById(yaInactivo.getId()).get().getActiveStatus());
+
+        // Los vencidos salieron del índice: la siguiente pasada no toca la base
+        ContadorConsultasSql.iniciar();
+        assertEquals(0, vencimientoService.desactivarVencidos());
+        assertEquals(0, ContadorConsultasSql.terminar().getTotal());
+    }
+
+    @Test
+    void barridoConservaEnElIndiceLosLotesQueElUpdateSaltaTest() {
+        Producto vencido = crear("Reactivo A", -2, true);
+        Producto renovado = crear("Reactivo B", -1, true);
+        indiceVencimientos.construirAlIniciar();
+
+        // Cambio concurrente que el índice todavía no vio: el lote ya no vence
+        renovado.setExpDate(new Date(System.currentTimeMillis() + 10 * DIA));
+        productoRepository.save(renovado);
+
+        assertEquals(1, vencimientoService.desactivarVencidos());
+
+        assertFalse(productoRepository.findById(vencido.getId()).get().getActiveStatus());
+        assertTrue(productoRepository.findById(renovado.getId()).get().getActiveStatus());
+        // Sigue indexado con su fecha nueva, así que el barrido lo desactivará cuando venza
+        assertEquals(1, indiceVencimientos.tamanio());
+        assertEquals(List.of(renovado.getId()),
+                indiceVencimientos.vencidos(new Date(System.currentTimeMillis() + 11 * DIA), 10));
+    }
+
+    @Test
+    void calendarioAgrupaPorFechaDentroDelHorizonteTest() {
+        crear("Buffer pH 7", 3, true);
+        crear("Buffer pH 4", 3, true);
+        crear("Agar", 20, true);
+        crear("Peptona", 60, true);
+        crear("Inactivo", 3, false);
+
+        Map<LocalDate, List<VencimientoDTO>> calendario = vencimientoService.calendario(30);
+
+        assertEquals(2, calendario.size());
+        List<LocalDate> fechas = List.copyOf(calendario.keySet());
+        assertTrue(fechas.get(0).isBefore(fechas.get(1)));
+        assertEquals(2, calendario.get(fechas.get(0)).size());
+        assertEquals("Agar", calendario.get(fechas.get(1)).get(0).getName());
+    }
+
+    private Producto crear(String nombre, int diasParaVencer, boolean activo) {
+        Producto producto = new Producto();
+        producto.setName(nombre);
+        producto.setBatchCode("LOTE-" + nombre.hashCode());
+        producto.setStock(10);
+        producto.setActiveStatus(activo);
+        producto.setExpDate(new Date(System.currentTimeMillis() + diasParaVencer * DIA));
+        return productoRepository.save(producto);
+    }
+}
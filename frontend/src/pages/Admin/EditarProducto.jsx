@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { useNavigate, useParams } from "react-router-dom";
-import { getProductos, getCategorias, actualizarProducto, subirImagen } from "../../services/api";
+import { getProductos, getCategorias, actualizarProducto, reponerStock, descontarStock, subirImagen } from "../../services/api";
 import "./VistaClienteYProducto.css";
 
 export function EditarProducto() {
@@ -8,6 +8,7 @@ export function EditarProducto() {
   const navigate = useNavigate();
 
   const [producto, setProducto] = useState(null);
+  const [stockOriginal, setStockOriginal] = useState(0);
   const [categorias, setCategorias] = useState([]);
   const [loading, setLoading] = useState(true);
   const [subiendoImagen, setSubiendoImagen] = useState(false);
@@ -23,6 +24,7 @@ export function EditarProducto() {
 
         const productoEncontrado = productosRes.data.find((p) => p.id === parseInt(id));
         setProducto(productoEncontrado || {});
+        setStockOriginal(productoEncontrado?.stock || 0);
         setCategorias(categoriasRes.data);
       } catch (error) {
         console.error("Error al cargar producto:", error);
@@ -114,6 +116,15 @@ export function EditarProducto() {
     e.preventDefault();
     try {
       await actualizarProducto(id, producto);
+
+      // 🔹 El PUT no modifica el stock: se aplica la diferencia con lo que había al abrir el formulario
+      const diferencia = (parseInt(producto.stock) || 0) - stockOriginal;
+      if (diferencia > 0) {
+        await reponerStock(id, diferencia);
+      } else if (diferencia < 0) {
+        await descontarStock(id, -diferencia);
+      }
+
       alert("✅ Producto actualizado correctamente.");
       navigate("/admin/productos");
     } catch (error) {
@@ -10,6 +10,67 @@ export const api = axios.create({
   },
 });
 
+// 🔐 Adjunta el token de acceso recibido en el login (si existe) a cada petición
+api.interceptors.request.use((config) => {
+  const usuario = JSON.parse(localStorage.getItem("usuarioLogueado") || "null");
+  if (usuario?.tokenAcceso) {
+    config.headers.Authorization = `${usuario.tipoToken || "Bearer"} ${usuario.tokenAcceso}`;
+  }
+  return config;
+});
+
+// 🔄 Con el acceso vencido (401) se renueva una sola vez con el token de refresco y se reintenta la petición.
+// Las peticiones que fallan a la vez comparten la misma renovación.
+let renovacionEnCurso = null;
+
+const renovarAcceso = () => {
+  if (!renovacionEnCurso) {
+    const usuario = JSON.parse(localStorage.getItem("usuarioLogueado") || "null");
+    renovacionEnCurso = (usuario?.tokenRefresco
+      ? axios.post(`${API_URL}/auth/refresh`, { tokenRefresco: usuario.tokenRefresco })
+      : Promise.reject(new Error("Sin token de refresco"))
+    )
+      .then(({ data }) => {
+        const actualizado = { ...usuario, ...data };
+        localStorage.setItem("usuarioLogueado", JSON.stringify(actualizado));
+        return actualizado;
+      })
+      .catch((error) => {
+        // Refresco vencido o revocado: se cierra la sesión local
+        localStorage.removeItem("usuarioLogueado");
+        window.dispatchEvent(new Event("usuarioLogueado"));
+        throw error;
+      })
+      .finally(() => {
+        renovacionEnCurso = null;
+      });
+  }
+  return renovacionEnCurso;
+};
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    if (
+      error.response?.status !== 401 ||
+      !original ||
+      original._reintentado ||
+      original.url?.startsWith("/auth/")
+    ) {
+      return Promise.reject(error);
+    }
+    original._reintentado = true;
+    try {
+      const usuario = await renovarAcceso();
+      original.headers.Authorization = `${usuario.tipoToken || "Bearer"} ${usuario.tokenAcceso}`;
+      return api(original);
+    } catch {
+      return Promise.reject(error);
+    }
+  }
+);
+
 /* ======================================================
    📦 PRODUCTOS
 ====================================================== */
@@ -26,6 +87,13 @@ export const actualizarProducto = (id, data) => api.put(`/productos/${id}`, data
 // Eliminar producto por ID
 export const eliminarProducto = (id) => api.delete(`/productos/${id}`);
 
+// Ajustar stock (el PUT de productos no lo modifica)
+export const reponerStock = (id, cantidad) =>
+  api.post(`/stock/productos/${id}/reponer`, null, { params: { cantidad } });
+
+export const descontarStock = (id, cantidad) =>
+  api.post(`/stock/productos/${id}/descontar`, null, { params: { cantidad } });
+
 // Obtener productos destacados
 export const getProductosDestacados = () => api.get("/productos/destacados");
 